@@ -1,13 +1,16 @@
 package fr.pederobien.communication.event;
 
+import fr.pederobien.communication.interfaces.connection.IBufferHeaderMessage;
 import fr.pederobien.communication.interfaces.connection.IConnection;
 import fr.pederobien.utils.ByteWrapper;
 
+import java.nio.ByteBuffer;
 import java.util.StringJoiner;
 
 public class MessageEvent extends ConnectionEvent {
     private final int identifier;
-    private final byte[] data;
+    private final IBufferHeaderMessage message;
+    private volatile byte[] data;
 
     /**
      * Creates a request received event. It is possible to set a response to the
@@ -21,6 +24,22 @@ public class MessageEvent extends ConnectionEvent {
         super(connection);
         this.identifier = identifier;
         this.data = data;
+
+        message = null;
+    }
+
+    /**
+     * Creates a request received event whose data is a view on the bytes received
+     * from the remote. The data is copied only if {@link #getData()} is called.
+     *
+     * @param connection The connection on which the message has been received.
+     * @param message    The message received from the remote.
+     */
+    public MessageEvent(IConnection connection, IBufferHeaderMessage message) {
+        super(connection);
+        this.message = message;
+
+        identifier = message.getIdentifier();
     }
 
     /**
@@ -34,9 +53,22 @@ public class MessageEvent extends ConnectionEvent {
      * @return The data received from the remote.
      */
     public byte[] getData() {
+        if (data == null) {
+            data = message.getBytes();
+        }
         return data;
     }
 
+    /**
+     * Unlike {@link #getData()}, the data is not copied from the bytes received
+     * from the remote.
+     *
+     * @return A read-only view on the data received from the remote.
+     */
+    public ByteBuffer getBuffer() {
+        return message == null ? ByteBuffer.wrap(data).asReadOnlyBuffer() : message.getBuffer();
+    }
+
     @Override
     public String toString() {
         StringJoiner joiner = new StringJoiner(",", "{", "}");
@@ -1,9 +1,14 @@
 package fr.pederobien.communication.impl;
 
 import fr.pederobien.communication.impl.client.Client;
+import fr.pederobien.communication.impl.client.NioTcpClientImpl;
+import fr.pederobien.communication.impl.client.ReliableClientImpl;
 import fr.pederobien.communication.impl.client.TcpClientImpl;
 import fr.pederobien.communication.impl.client.UdpClientImpl;
 import fr.pederobien.communication.impl.connection.Connection;
+import fr.pederobien.communication.impl.connection.SelectorLoopGroup;
+import fr.pederobien.communication.impl.server.NioTcpServerImpl;
+import fr.pederobien.communication.impl.server.ReliableServerImpl;
 import fr.pederobien.communication.impl.server.Server;
 import fr.pederobien.communication.impl.server.TcpServerImpl;
 import fr.pederobien.communication.impl.server.UdpServerImpl;
@@ -71,7 +76,17 @@ public class Communication {
      * @param config The object that holds the client configuration.
      */
     public static final IClient createTcpClient(IClientConfig<IEthernetEndPoint> config) {
-        return createClient(config, new TcpClientImpl());
+        return createClient(config, new TcpClientImpl(config.getBufferPool()));
+    }
+
+    /**
+     * Create a client with a non-blocking TCP connection ready to be connected to a
+     * remote. The connection is served by the default selector loops.
+     *
+     * @param config The object that holds the client configuration.
+     */
+    public static final IClient createNioTcpClient(IClientConfig<IEthernetEndPoint> config) {
+        return createClient(config, new NioTcpClientImpl(SelectorLoopGroup.getDefault(), config.getBufferPool()));
     }
 
     /**
@@ -83,6 +98,17 @@ public class Communication {
         return createClient(config, new UdpClientImpl());
     }
 
+    /**
+     * Create a client with a reliable UDP connection ready to be connected to a
+     * remote. Messages are sequenced, acknowledged and retransmitted if lost, the
+     * server must be created with {@link #createReliableUdpServer(IServerConfig)}.
+     *
+     * @param config The object that holds the client configuration.
+     */
+    public static final IClient createReliableUdpClient(IClientConfig<IEthernetEndPoint> config) {
+        return createClient(config, new ReliableClientImpl<IEthernetEndPoint>(new UdpClientImpl()));
+    }
+
     /**
      * Creates a client with a TCP connection ready to be connected to a remote.
      *
@@ -145,6 +171,16 @@ public class Communication {
         return createServer(config, new TcpServerImpl());
     }
 
+    /**
+     * Creates a non-blocking TCP server ready to be opened. The server and its
+     * client connections are served by the default selector loops.
+     *
+     * @param config The object that holds the server configuration.
+     */
+    public static final IServer createNioTcpServer(IServerConfig<IEthernetEndPoint> config) {
+        return createServer(config, new NioTcpServerImpl());
+    }
+
     /**
      * Creates a UDP server ready to be opened.
      *
@@ -154,6 +190,29 @@ public class Communication {
         return createServer(config, new UdpServerImpl());
     }
 
+    /**
+     * Creates a UDP server ready to be opened whose datagrams are received in
+     * parallel by several sockets bound to the same port, if the platform supports
+     * it.
+     *
+     * @param config  The object that holds the server configuration.
+     * @param workers The number of sockets receiving datagrams in parallel.
+     */
+    public static final IServer createUdpServer(IServerConfig<IEthernetEndPoint> config, int workers) {
+        return createServer(config, new UdpServerImpl(workers));
+    }
+
+    /**
+     * Creates a reliable UDP server ready to be opened. Messages are sequenced,
+     * acknowledged and retransmitted if lost, the clients must be created with
+     * {@link #createReliableUdpClient(IClientConfig)}.
+     *
+     * @param config The object that holds the server configuration.
+     */
+    public static final IServer createReliableUdpServer(IServerConfig<IEthernetEndPoint> config) {
+        return createServer(config, new ReliableServerImpl<IEthernetEndPoint>(new UdpServerImpl()));
+    }
+
     /**
      * Creates a TCP server ready to be opened.
      *
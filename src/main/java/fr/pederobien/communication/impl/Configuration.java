@@ -1,7 +1,10 @@
 package fr.pederobien.communication.impl;
 
+import fr.pederobien.communication.impl.connection.BufferPool;
 import fr.pederobien.communication.impl.layer.LayerInitializer;
 import fr.pederobien.communication.interfaces.IConfiguration;
+import fr.pederobien.communication.interfaces.connection.IBufferPool;
+import fr.pederobien.communication.interfaces.connection.IDispatchExecutor;
 import fr.pederobien.communication.interfaces.connection.IConnection.Mode;
 import fr.pederobien.communication.interfaces.layer.ILayerInitializer;
 
@@ -12,6 +15,13 @@ public abstract class Configuration implements IConfiguration {
     private Supplier<ILayerInitializer> layerInitializer;
     private int connectionMaxUnstableCounter;
     private int connectionHealTime;
+    private ExecutionMode executionMode;
+    private int sendingBatchSize;
+    private int sendingBatchLatency;
+    private IBufferPool bufferPool;
+    private boolean isEventBusMirrored;
+    private IDispatchExecutor dispatchExecutor;
+    private boolean isDispatchOrdered;
 
     /**
      * Creates a configuration that holds parameters for a connection.
@@ -25,6 +35,13 @@ public abstract class Configuration implements IConfiguration {
 
         connectionMaxUnstableCounter = 10;
         connectionHealTime = 1000;
+        executionMode = ExecutionMode.PLATFORM;
+        sendingBatchSize = 0;
+        sendingBatchLatency = 5;
+        bufferPool = BufferPool.getDefault();
+        isEventBusMirrored = true;
+        dispatchExecutor = null;
+        isDispatchOrdered = true;
     }
 
     @Override
@@ -83,4 +100,120 @@ public abstract class Configuration implements IConfiguration {
     public void setConnectionHealTime(int connectionHealTime) {
         this.connectionHealTime = connectionHealTime;
     }
+
+    @Override
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Set the kind of thread used to run the asynchronous stages (sending,
+     * receiving, extracting, dispatching and callback) of a connection. The default
+     * value is {@link ExecutionMode#PLATFORM}.
+     *
+     * @param executionMode The execution mode of the connection.
+     */
+    public void setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    @Override
+    public int getSendingBatchSize() {
+        return sendingBatchSize;
+    }
+
+    /**
+     * Set the maximum number of bytes written at once when several messages are
+     * waiting to be sent. The default value is 0, which means each message is
+     * written separately. Batching should only be enabled for stream oriented
+     * protocols such as TCP.
+     *
+     * @param sendingBatchSize The maximum number of bytes of a batch of messages.
+     */
+    public void setSendingBatchSize(int sendingBatchSize) {
+        this.sendingBatchSize = sendingBatchSize;
+    }
+
+    @Override
+    public int getSendingBatchLatency() {
+        return sendingBatchLatency;
+    }
+
+    /**
+     * Set the maximum time, in ms, a message can stay in a batch while other
+     * messages keep coming. The default value is 5 ms.
+     *
+     * @param sendingBatchLatency The maximum time, in ms, a message can wait in a
+     *                            batch.
+     */
+    public void setSendingBatchLatency(int sendingBatchLatency) {
+        this.sendingBatchLatency = sendingBatchLatency;
+    }
+
+    @Override
+    public IBufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * Set the pool that provides the buffers used to read data from the remote. By
+     * default, a pool of heap buffers is shared by all connections.
+     *
+     * @param bufferPool The pool of buffers.
+     */
+    public void setBufferPool(IBufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    @Override
+    public boolean isEventBusMirrored() {
+        return isEventBusMirrored;
+    }
+
+    /**
+     * Set whether the events of a connection or a server are also thrown on the
+     * global event bus. Disabling the mirror avoids delivering each event to every
+     * listener of the application when many connections are alive, listeners must
+     * then be registered on the connection or the server. The default value is
+     * true.
+     *
+     * @param isEventBusMirrored True to throw the events on the global event bus.
+     */
+    public void setEventBusMirrored(boolean isEventBusMirrored) {
+        this.isEventBusMirrored = isEventBusMirrored;
+    }
+
+    @Override
+    public IDispatchExecutor getDispatchExecutor() {
+        return dispatchExecutor;
+    }
+
+    /**
+     * Set the executor shared by connections to dispatch the unexpected messages
+     * received from the remote. The executor is not disposed with the connections.
+     * By default, each connection has its own dispatching thread.
+     *
+     * @param dispatchExecutor The shared executor, or null for a dispatching
+     *                         thread per connection.
+     */
+    public void setDispatchExecutor(IDispatchExecutor dispatchExecutor) {
+        this.dispatchExecutor = dispatchExecutor;
+    }
+
+    @Override
+    public boolean isDispatchOrdered() {
+        return isDispatchOrdered;
+    }
+
+    /**
+     * Set whether the unexpected messages of a connection are dispatched in order
+     * by the shared dispatch executor. This parameter is ignored if no dispatch
+     * executor is set. The default value is true.
+     *
+     * @param isDispatchOrdered True to dispatch the messages in order, false to
+     *                          dispatch them in parallel.
+     */
+    public void setDispatchOrdered(boolean isDispatchOrdered) {
+        this.isDispatchOrdered = isDispatchOrdered;
+    }
 }
@@ -2,6 +2,8 @@ package fr.pederobien.communication.impl;
 
 import fr.pederobien.communication.interfaces.IEthernetEndPoint;
 
+import java.util.Objects;
+
 public class EthernetEndPoint implements IEthernetEndPoint {
     private final String address;
     private int port;
@@ -42,6 +44,29 @@ public class EthernetEndPoint implements IEthernetEndPoint {
             this.port = port;
     }
 
+    /**
+     * Two end-points are equal if they have the same address and port. As the port
+     * of an end-point can be set once, an end-point should not be used as a key
+     * before its port is set.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof IEthernetEndPoint other)) {
+            return false;
+        }
+
+        return Objects.equals(address, other.getAddress()) && port == other.getPort();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(address, port);
+    }
+
     @Override
     public String toString() {
         return String.format("%s:%s", address, port);
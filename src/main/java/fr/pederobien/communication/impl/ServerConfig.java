@@ -3,6 +3,7 @@ package fr.pederobien.communication.impl;
 import fr.pederobien.communication.interfaces.connection.IConnection.Mode;
 import fr.pederobien.communication.interfaces.server.IClientValidator;
 import fr.pederobien.communication.interfaces.server.IServerConfig;
+import fr.pederobien.communication.interfaces.server.IServerConfig.OverflowPolicy;
 
 public class ServerConfig<T> extends Configuration implements IServerConfig<T> {
     private final String name;
@@ -10,6 +11,10 @@ public class ServerConfig<T> extends Configuration implements IServerConfig<T> {
     private IClientValidator<T> clientValidator;
     private int serverMaxUnstableCounter;
     private int serverHealTime;
+    private int handshakeConcurrency;
+    private int handshakeBacklog;
+    private int receptionQueueCapacity;
+    private OverflowPolicy overflowPolicy;
 
     /**
      * Creates a configuration that holds the parameters for a server.
@@ -26,6 +31,10 @@ public class ServerConfig<T> extends Configuration implements IServerConfig<T> {
         clientValidator = endPoint -> true;
         serverMaxUnstableCounter = 5;
         serverHealTime = 1000;
+        handshakeConcurrency = 16;
+        handshakeBacklog = 128;
+        receptionQueueCapacity = 1024;
+        overflowPolicy = OverflowPolicy.DROP_OLDEST;
     }
 
     @Override
@@ -92,4 +101,73 @@ public class ServerConfig<T> extends Configuration implements IServerConfig<T> {
     public void setServerHealTime(int serverHealTime) {
         this.serverHealTime = serverHealTime;
     }
+
+    @Override
+    public int getHandshakeConcurrency() {
+        return handshakeConcurrency;
+    }
+
+    /**
+     * Once accepted, the connection with a client is initialised by a dedicated
+     * pool of threads so that a slow client does not prevent other clients from
+     * being accepted. The handshake concurrency is the maximum number of
+     * connections initialised at the same time. The default value is 16.
+     *
+     * @param handshakeConcurrency The maximum number of connections initialised at
+     *                             the same time.
+     */
+    public void setHandshakeConcurrency(int handshakeConcurrency) {
+        this.handshakeConcurrency = handshakeConcurrency;
+    }
+
+    @Override
+    public int getHandshakeBacklog() {
+        return handshakeBacklog;
+    }
+
+    /**
+     * When the maximum number of connections are being initialised, the accepted
+     * clients wait for a thread to initialise their connection. The handshake
+     * backlog is the maximum number of waiting clients, beyond which an accepted
+     * client is disconnected immediately. The default value is 128.
+     *
+     * @param handshakeBacklog The maximum number of clients waiting for their
+     *                         connection to be initialised.
+     */
+    public void setHandshakeBacklog(int handshakeBacklog) {
+        this.handshakeBacklog = handshakeBacklog;
+    }
+
+    @Override
+    public int getReceptionQueueCapacity() {
+        return receptionQueueCapacity;
+    }
+
+    /**
+     * A UDP server demultiplexes the received datagrams per remote address. The
+     * datagrams of a client wait in a bounded queue for its connection to process
+     * them. The default value is 1024.
+     *
+     * @param receptionQueueCapacity The maximum number of datagrams waiting to be
+     *                               processed per client.
+     */
+    public void setReceptionQueueCapacity(int receptionQueueCapacity) {
+        this.receptionQueueCapacity = receptionQueueCapacity;
+    }
+
+    @Override
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Set the datagram to drop when the reception queue of a client is full. The
+     * default value is {@link OverflowPolicy#DROP_OLDEST}.
+     *
+     * @param overflowPolicy The datagram dropped when the reception queue of a
+     *                       client is full.
+     */
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
 }
@@ -0,0 +1,67 @@
+package fr.pederobien.communication.impl.client;
+
+import fr.pederobien.communication.impl.connection.BufferPool;
+import fr.pederobien.communication.impl.connection.NioTcpConnectionImpl;
+import fr.pederobien.communication.impl.connection.SelectorLoopGroup;
+import fr.pederobien.communication.interfaces.IEthernetEndPoint;
+import fr.pederobien.communication.interfaces.client.IClientImpl;
+import fr.pederobien.communication.interfaces.connection.IBufferPool;
+import fr.pederobien.communication.interfaces.connection.IConnectionImpl;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+
+public class NioTcpClientImpl implements IClientImpl<IEthernetEndPoint> {
+    private final SelectorLoopGroup group;
+    private final IBufferPool pool;
+
+    /**
+     * Creates a non-blocking TCP implementation for a client. Once connected, the
+     * channel is served by one loop of the given group.
+     *
+     * @param group The event loops that serve the channels.
+     * @param pool  The pool that provides the buffers used to read data from the
+     *              remote.
+     */
+    public NioTcpClientImpl(SelectorLoopGroup group, IBufferPool pool) {
+        this.group = group;
+        this.pool = pool;
+    }
+
+    /**
+     * Creates a non-blocking TCP implementation for a client. Once connected, the
+     * channel is served by one loop of the given group.
+     *
+     * @param group The event loops that serve the channels.
+     */
+    public NioTcpClientImpl(SelectorLoopGroup group) {
+        this(group, BufferPool.getDefault());
+    }
+
+    /**
+     * Creates a non-blocking TCP implementation for a client using the default
+     * event loops.
+     */
+    public NioTcpClientImpl() {
+        this(SelectorLoopGroup.getDefault());
+    }
+
+    @Override
+    public IConnectionImpl connect(String name, IEthernetEndPoint endPoint, int timeout) throws Exception {
+        String address = endPoint.getAddress();
+        int port = endPoint.getPort();
+
+        // Creating a TCP channel to connect with the remote
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.socket().connect(new InetSocketAddress(InetAddress.getByName(address), port), timeout);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        return new NioTcpConnectionImpl(channel, group.next(), pool);
+    }
+}
@@ -0,0 +1,25 @@
+package fr.pederobien.communication.impl.client;
+
+import fr.pederobien.communication.impl.connection.ReliableConnectionImpl;
+import fr.pederobien.communication.interfaces.client.IClientImpl;
+import fr.pederobien.communication.interfaces.connection.IConnectionImpl;
+
+public class ReliableClientImpl<T> implements IClientImpl<T> {
+    private final IClientImpl<T> impl;
+
+    /**
+     * Creates a client implementation whose connections add sequencing,
+     * acknowledgements and retransmissions to the connections of the given
+     * implementation. The server must use a {@link fr.pederobien.communication.impl.server.ReliableServerImpl}.
+     *
+     * @param impl The implementation of an unreliable client, such as UDP.
+     */
+    public ReliableClientImpl(IClientImpl<T> impl) {
+        this.impl = impl;
+    }
+
+    @Override
+    public IConnectionImpl connect(String name, T endPoint, int timeout) throws Exception {
+        return new ReliableConnectionImpl(impl.connect(name, endPoint, timeout));
+    }
+}
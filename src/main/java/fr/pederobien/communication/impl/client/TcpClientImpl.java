@@ -1,8 +1,10 @@
 package fr.pederobien.communication.impl.client;
 
+import fr.pederobien.communication.impl.connection.BufferPool;
 import fr.pederobien.communication.impl.connection.TcpConnectionImpl;
 import fr.pederobien.communication.interfaces.IEthernetEndPoint;
 import fr.pederobien.communication.interfaces.client.IClientImpl;
+import fr.pederobien.communication.interfaces.connection.IBufferPool;
 import fr.pederobien.communication.interfaces.connection.IConnectionImpl;
 
 import java.net.InetAddress;
@@ -10,6 +12,24 @@ import java.net.InetSocketAddress;
 import java.net.Socket;
 
 public class TcpClientImpl implements IClientImpl<IEthernetEndPoint> {
+    private final IBufferPool pool;
+
+    /**
+     * Creates a TCP implementation for a client.
+     *
+     * @param pool The pool that provides the buffers used to read data from the
+     *             remote.
+     */
+    public TcpClientImpl(IBufferPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Creates a TCP implementation for a client using the default buffer pool.
+     */
+    public TcpClientImpl() {
+        this(BufferPool.getDefault());
+    }
 
     @Override
     public IConnectionImpl connect(String name, IEthernetEndPoint endPoint, int timeout) throws Exception {
@@ -20,6 +40,6 @@ public class TcpClientImpl implements IClientImpl<IEthernetEndPoint> {
         Socket socket = new Socket();
         socket.connect(new InetSocketAddress(InetAddress.getByName(address), port), timeout);
 
-        return new TcpConnectionImpl(socket);
+        return new TcpConnectionImpl(socket, pool);
     }
 }
@@ -86,12 +86,15 @@ public class UdpSocket implements IUdpSocket {
         private final DatagramSocket socket;
         private final InetSocketAddress address;
         private final IDisposable disposable;
+        // Reused for each datagram, the data is copied by the connection before the next reception
+        private final byte[] buffer;
 
         public ConnectedSocket(DatagramSocket socket, InetSocketAddress address) {
             this.socket = socket;
             this.address = address;
 
             disposable = new Disposable();
+            buffer = new byte[2048];
         }
 
         @Override
@@ -104,7 +107,6 @@ public class UdpSocket implements IUdpSocket {
         public DatagramPacket receive() throws Exception {
             disposable.checkDisposed();
 
-            byte[] buffer = new byte[2048];
             DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
 
             try {
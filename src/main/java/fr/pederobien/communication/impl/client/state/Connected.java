@@ -3,11 +3,10 @@ package fr.pederobien.communication.impl.client.state;
 import fr.pederobien.communication.event.ClientConnectedEvent;
 import fr.pederobien.communication.event.ConnectionLostEvent;
 import fr.pederobien.communication.event.ConnectionUnstableEvent;
-import fr.pederobien.utils.event.EventHandler;
+import fr.pederobien.communication.interfaces.connection.IConnectionListener;
 import fr.pederobien.utils.event.EventManager;
-import fr.pederobien.utils.event.IEventListener;
 
-public class Connected<T> extends State<T> implements IEventListener {
+public class Connected<T> extends State<T> implements IConnectionListener {
 
     /**
      * Create a state where the client is connected to the remote.
@@ -23,9 +22,9 @@ public class Connected<T> extends State<T> implements IEventListener {
         if (isEnabled) {
             info("Client connected");
             EventManager.callEvent(new ClientConnectedEvent(getContext().getClient()));
-            EventManager.registerListener(this);
+            getContext().getConnection().addListener(this);
         } else {
-            EventManager.unregisterListener(this);
+            getContext().getConnection().removeListener(this);
         }
     }
 
@@ -48,21 +47,13 @@ public class Connected<T> extends State<T> implements IEventListener {
         getContext().setState(getContext().getDisposed());
     }
 
-    @EventHandler
-    private void onConnectionLost(ConnectionLostEvent event) {
-        if (event.getConnection() != getContext().getConnection()) {
-            return;
-        }
-
+    @Override
+    public void onLost(ConnectionLostEvent event) {
         reconnect();
     }
 
-    @EventHandler
-    private void onConnectionUnstable(ConnectionUnstableEvent event) {
-        if (event.getConnection() != getContext().getConnection()) {
-            return;
-        }
-
+    @Override
+    public void onUnstable(ConnectionUnstableEvent event) {
         reconnect();
     }
 
@@ -0,0 +1,61 @@
+package fr.pederobien.communication.impl.connection;
+
+public class AdaptiveReadSize {
+    private final int minimum;
+    private final int maximum;
+    private int size;
+    private boolean decreaseNow;
+
+    /**
+     * Creates an object that guesses the size of the next read according to the
+     * previous reads. The size doubles as soon as a read fills the whole buffer and
+     * is halved when two consecutive reads fill less than half of the buffer.
+     *
+     * @param minimum The minimum size of a read.
+     * @param initial The size of the first read.
+     * @param maximum The maximum size of a read.
+     */
+    public AdaptiveReadSize(int minimum, int initial, int maximum) {
+        this.minimum = minimum;
+        this.maximum = maximum;
+
+        size = initial;
+    }
+
+    /**
+     * Creates an object that guesses the size of the next read, from 512 bytes to
+     * 64 kB, starting with 2048 bytes.
+     */
+    public AdaptiveReadSize() {
+        this(512, 2048, 65536);
+    }
+
+    /**
+     * @return The number of bytes to read next.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Update the size of the next read according to the number of bytes actually
+     * read.
+     *
+     * @param read The number of bytes of the last read.
+     */
+    public void record(int read) {
+        if (read >= size) {
+            size = Math.min(size * 2, maximum);
+            decreaseNow = false;
+        } else if (read <= size / 2) {
+            if (decreaseNow) {
+                size = Math.max(size / 2, minimum);
+                decreaseNow = false;
+            } else {
+                decreaseNow = true;
+            }
+        } else {
+            decreaseNow = false;
+        }
+    }
+}
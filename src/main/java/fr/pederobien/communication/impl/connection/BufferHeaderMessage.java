@@ -0,0 +1,77 @@
+package fr.pederobien.communication.impl.connection;
+
+import fr.pederobien.communication.interfaces.connection.IBufferHeaderMessage;
+import fr.pederobien.utils.ByteWrapper;
+
+import java.nio.ByteBuffer;
+
+public class BufferHeaderMessage implements IBufferHeaderMessage {
+    private final int identifier;
+    private final int requestID;
+    private final ByteBuffer payload;
+    private final byte[] bytes;
+
+    /**
+     * Create a header of a message whose payload is a view on a received buffer.
+     *
+     * @param identifier The identifier of this request.
+     * @param requestID  The identifier of the request associated to this response.
+     * @param payload    The payload of the message, between the position and the
+     *                   limit of the buffer.
+     */
+    public BufferHeaderMessage(int identifier, int requestID, ByteBuffer payload) {
+        this.identifier = identifier;
+        this.requestID = requestID;
+        this.payload = payload.asReadOnlyBuffer();
+
+        bytes = null;
+    }
+
+    /**
+     * Create a header of a message whose payload has already been copied from the
+     * received buffer.
+     *
+     * @param identifier The identifier of this request.
+     * @param requestID  The identifier of the request associated to this response.
+     * @param payload    The payload of the message, returned as is by
+     *                   {@link #getBytes()}.
+     */
+    public BufferHeaderMessage(int identifier, int requestID, byte[] payload) {
+        this.identifier = identifier;
+        this.requestID = requestID;
+        this.payload = ByteBuffer.wrap(payload).asReadOnlyBuffer();
+
+        bytes = payload;
+    }
+
+    @Override
+    public int getIdentifier() {
+        return identifier;
+    }
+
+    @Override
+    public int getRequestID() {
+        return requestID;
+    }
+
+    @Override
+    public byte[] getBytes() {
+        if (bytes != null) {
+            return bytes;
+        }
+
+        byte[] copy = new byte[payload.remaining()];
+        payload.duplicate().get(copy);
+        return copy;
+    }
+
+    @Override
+    public ByteBuffer getBuffer() {
+        return payload.duplicate();
+    }
+
+    @Override
+    public String toString() {
+        return ByteWrapper.wrap(getBytes()).toString();
+    }
+}
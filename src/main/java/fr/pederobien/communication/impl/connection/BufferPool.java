@@ -0,0 +1,129 @@
+package fr.pederobien.communication.impl.connection;
+
+import fr.pederobien.communication.interfaces.connection.IBufferPool;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BufferPool implements IBufferPool {
+    private static final int MIN_SIZE_SHIFT = 9;
+    private static final int MAX_SIZE_SHIFT = 16;
+    private static BufferPool defaultPool;
+
+    private final boolean isDirect;
+    private final int maxBuffersPerSize;
+    private final Queue<ByteBuffer>[] buffers;
+    private final AtomicInteger[] counts;
+
+    /**
+     * Creates a pool of buffers. The buffers are sorted by size, from 512 bytes to
+     * 64 kB, each size is a power of two. A request for a bigger buffer is served
+     * by a buffer that is not pooled.
+     *
+     * @param isDirect          True to allocate buffers outside of the heap.
+     * @param maxBuffersPerSize The maximum number of buffers kept by this pool for
+     *                          each size.
+     */
+    @SuppressWarnings("unchecked")
+    public BufferPool(boolean isDirect, int maxBuffersPerSize) {
+        this.isDirect = isDirect;
+        this.maxBuffersPerSize = maxBuffersPerSize;
+
+        int sizes = MAX_SIZE_SHIFT - MIN_SIZE_SHIFT + 1;
+        buffers = new Queue[sizes];
+        counts = new AtomicInteger[sizes];
+        for (int i = 0; i < sizes; i++) {
+            buffers[i] = new ConcurrentLinkedQueue<ByteBuffer>();
+            counts[i] = new AtomicInteger(0);
+        }
+    }
+
+    /**
+     * Creates a pool of buffers that keeps up to 64 buffers for each size.
+     *
+     * @param isDirect True to allocate buffers outside of the heap.
+     */
+    public BufferPool(boolean isDirect) {
+        this(isDirect, 64);
+    }
+
+    /**
+     * @return The pool of heap buffers shared by default by all connections.
+     */
+    public static synchronized BufferPool getDefault() {
+        if (defaultPool == null) {
+            defaultPool = new BufferPool(false);
+        }
+
+        return defaultPool;
+    }
+
+    @Override
+    public ByteBuffer acquire(int size) {
+        int index = indexOf(size);
+
+        // Too big to be pooled
+        if (index >= buffers.length) {
+            return allocate(size);
+        }
+
+        ByteBuffer buffer = buffers[index].poll();
+        if (buffer == null) {
+            return allocate(1 << (index + MIN_SIZE_SHIFT));
+        }
+
+        counts[index].decrementAndGet();
+        return buffer.clear();
+    }
+
+    @Override
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.isDirect() != isDirect) {
+            return;
+        }
+
+        // Only buffers allocated by this pool can be pooled
+        int index = indexOf(buffer.capacity());
+        if (index >= buffers.length || buffer.capacity() != 1 << (index + MIN_SIZE_SHIFT)) {
+            return;
+        }
+
+        if (counts[index].incrementAndGet() <= maxBuffersPerSize) {
+            buffers[index].offer(buffer.clear());
+        } else {
+            counts[index].decrementAndGet();
+        }
+    }
+
+    @Override
+    public boolean isDirect() {
+        return isDirect;
+    }
+
+    /**
+     * Get the index of the smallest size able to hold the given number of bytes.
+     *
+     * @param size The number of bytes.
+     * @return The index of the size.
+     */
+    private int indexOf(int size) {
+        if (size <= 1 << MIN_SIZE_SHIFT) {
+            return 0;
+        }
+
+        int shift = 32 - Integer.numberOfLeadingZeros(size - 1);
+        return shift - MIN_SIZE_SHIFT;
+    }
+
+    /**
+     * Allocates a new buffer according to the kind of buffer of this pool.
+     *
+     * @param capacity The capacity of the buffer.
+     * @return The allocated buffer.
+     */
+    private ByteBuffer allocate(int capacity) {
+        return isDirect ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+}
@@ -7,12 +7,12 @@ import fr.pederobien.utils.Disposable;
 import fr.pederobien.utils.HealedCounter;
 import fr.pederobien.utils.IDisposable;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
-import java.util.concurrent.Semaphore;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class CallbackManager {
     private final Map<Integer, Monitor> monitors;
@@ -55,27 +55,37 @@ public class CallbackManager {
     }
 
     /**
-     * If a message is registered for the given identifier, then a separated thread
-     * is started to check if a timeout occurs while waiting for an answer.
+     * If a message is registered for the given identifier, then its timeout is
+     * scheduled on a timer shared by all connections.
      *
      * @param identifier The identifier of the message to monitor.
      */
     public void start(int identifier) {
         disposable.checkDisposed();
 
-        Monitor monitor = monitors.get(identifier);
+        Monitor monitor = null;
+        synchronized (disposable) {
+            monitor = monitors.get(identifier);
+        }
+
         if (monitor != null) {
             monitor.start();
         }
     }
 
     /**
-     * Cancel all pending requests, this object cannot be used anymore.
+     * Cancel all pending requests, this object cannot be used anymore. The
+     * callbacks of the pending requests are executed by the calling thread with the
+     * connection lost flag set, so that nobody waits forever for their response.
      */
     public void dispose() {
         if (disposable.dispose()) {
-            Set<Entry<Integer, Monitor>> set = monitors.entrySet();
-            set.forEach(entry -> entry.getValue().onConnectionLost());
+            List<Monitor> pending = null;
+            synchronized (disposable) {
+                pending = new ArrayList<Monitor>(monitors.values());
+            }
+
+            pending.forEach(monitor -> monitor.onConnectionLost());
         }
     }
 
@@ -111,10 +121,8 @@ public class CallbackManager {
     private class Monitor {
         private final int identifier;
         private final IMessage request;
-        private final Semaphore semaphore;
-        private final Thread monitor;
-        private IHeaderMessage response;
-        private boolean isConnectionLost;
+        private final AtomicBoolean isCompleted;
+        private ScheduledFuture<?> timeout;
 
         /**
          * Creates a monitor to handle timeout.
@@ -126,15 +134,16 @@ public class CallbackManager {
             this.identifier = identifier;
             this.request = request;
 
-            monitor = new Thread(() -> monitor(), String.format("[%s Timeout monitor]", identifier));
-            semaphore = new Semaphore(0);
+            isCompleted = new AtomicBoolean(false);
         }
 
         /**
-         * Start the underlying thread waiting for a timeout to occur.
+         * Schedule the timeout of the underlying request on the shared timer.
          */
-        public void start() {
-            monitor.start();
+        public synchronized void start() {
+            if (!isCompleted.get() && timeout == null) {
+                timeout = TimeoutScheduler.schedule(() -> complete(null, false), request.getCallback().timeout());
+            }
         }
 
         /**
@@ -143,42 +152,52 @@ public class CallbackManager {
          * @param response The message received from the remote.
          */
         public void onResponseReceived(IHeaderMessage response) {
-            this.response = response;
-
-            isConnectionLost = false;
-            semaphore.release();
+            complete(response, false);
         }
 
         /**
          * Notify this monitor that the connection with the remote has been lost.
          */
         public void onConnectionLost() {
-            response = null;
-            isConnectionLost = true;
-
-            semaphore.release();
+            complete(null, true);
         }
 
         /**
-         * Block until a timeout occurs or the response has been received.
+         * Execute the callback of the underlying request if it has not already been
+         * executed.
+         *
+         * @param response         The response received from the remote, null if a
+         *                         timeout occurred.
+         * @param isConnectionLost True if the connection with the remote has been
+         *                         lost.
          */
-        private void monitor() {
-            try {
-                semaphore.tryAcquire(request.getCallback().timeout(), TimeUnit.MILLISECONDS);
-
-                // Removing this monitor from the monitors map
-                unregister(identifier);
+        private void complete(IHeaderMessage response, boolean isConnectionLost) {
+            // The callback is executed only once whatever the outcome
+            if (!isCompleted.compareAndSet(false, true)) {
+                return;
+            }
 
-                dispatch();
-            } catch (InterruptedException e) {
-                // Do nothing
+            synchronized (this) {
+                if (timeout != null) {
+                    timeout.cancel(false);
+                }
             }
+
+            // Removing this monitor from the monitors map
+            unregister(identifier);
+
+            dispatch(response, isConnectionLost);
         }
 
         /**
          * Execute the callback of the underlying request.
+         *
+         * @param response         The response received from the remote, null if a
+         *                         timeout occurred.
+         * @param isConnectionLost True if the connection with the remote has been
+         *                         lost.
          */
-        private void dispatch() {
+        private void dispatch(IHeaderMessage response, boolean isConnectionLost) {
 
             // Considering by default that timeout happened
             int identifier = -1;
@@ -194,7 +213,13 @@ public class CallbackManager {
 
             CallbackArgs args = new CallbackArgs(identifier, resp, isTimeout, isConnectionLost);
             CallbackResult result = new CallbackResult(counter, request.getCallback(), args);
-            queueManager.getCallbackQueue().add(result);
+
+            // The callback queue is being disposed with the connection, the pending requests are completed directly
+            if (isConnectionLost) {
+                result.apply();
+            } else {
+                queueManager.getCallbackQueue().add(result);
+            }
         }
     }
 }
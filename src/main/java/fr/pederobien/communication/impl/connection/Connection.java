@@ -3,11 +3,17 @@ package fr.pederobien.communication.impl.connection;
 import fr.pederobien.communication.event.*;
 import fr.pederobien.communication.interfaces.IConfiguration;
 import fr.pederobien.communication.interfaces.IMessageHandler;
+import fr.pederobien.communication.impl.layer.BufferLayerAdapter;
 import fr.pederobien.communication.interfaces.connection.ICallback.CallbackArgs;
+import fr.pederobien.communication.interfaces.connection.IBufferHeaderMessage;
 import fr.pederobien.communication.interfaces.connection.IConnection;
 import fr.pederobien.communication.interfaces.connection.IConnectionImpl;
+import fr.pederobien.communication.interfaces.connection.IConnectionListener;
 import fr.pederobien.communication.interfaces.connection.IHeaderMessage;
 import fr.pederobien.communication.interfaces.connection.IMessage;
+import fr.pederobien.communication.interfaces.connection.ISharedMessage;
+import fr.pederobien.communication.interfaces.layer.IBufferLayer;
+import fr.pederobien.communication.interfaces.layer.ILayer;
 import fr.pederobien.communication.interfaces.layer.ILayerInitializer;
 import fr.pederobien.utils.Disposable;
 import fr.pederobien.utils.HealedCounter;
@@ -15,10 +21,19 @@ import fr.pederobien.utils.IDisposable;
 import fr.pederobien.utils.event.EventManager;
 import fr.pederobien.utils.event.Logger;
 
+import java.nio.ByteBuffer;
 import java.util.List;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 public class Connection<T> implements IConnection {
+    /**
+     * Additional time, in ms, a synchronous request waits for its callback after
+     * its timeout.
+     */
+    private static final int SYNC_TIMEOUT_MARGIN = 1000;
+
     private final IConfiguration config;
     private final IConnectionImpl impl;
     private final QueueManager queueManager;
@@ -26,12 +41,11 @@ public class Connection<T> implements IConnection {
     private final IDisposable disposable;
     private final ILayerInitializer layerInitializer;
     private final HealedCounter counter;
-    // When the synchronous send has been called
-    private final Semaphore semaphore;
+    private final SendingBatch batch;
+    private final List<IConnectionListener> listeners;
     private String name;
     private IMessageHandler handler;
     private boolean isEnabled;
-    private CallbackArgs argument;
 
     /**
      * Create an abstract connection that send asynchronously messages to the
@@ -49,7 +63,7 @@ public class Connection<T> implements IConnection {
         String remote = config.getMode() == Mode.CLIENT_TO_SERVER ? "Server" : "Client";
         name = String.format("%s %s", remote, endPoint);
 
-        queueManager = new QueueManager(name);
+        queueManager = new QueueManager(name, config.getExecutionMode(), config.getDispatchExecutor());
         queueManager.setOnSend(this::sendMessage);
         queueManager.setOnReceive(this::receiveMessage);
         queueManager.setOnExtract(this::extractMessage);
@@ -62,7 +76,8 @@ public class Connection<T> implements IConnection {
 
         callbackManager = new CallbackManager(queueManager, counter);
         disposable = new Disposable();
-        semaphore = new Semaphore(0);
+        batch = new SendingBatch();
+        listeners = new CopyOnWriteArrayList<IConnectionListener>();
 
         layerInitializer = config.getLayerInitializer();
         name = String.format("[%s]", name);
@@ -71,15 +86,27 @@ public class Connection<T> implements IConnection {
 
     @Override
     public boolean initialise() throws Exception {
+        // The token must receive the first message of the remote, even if it is
+        // sent before the layer initialisation starts on this side
+        Token token = new Token(this, config.getMode());
+        handler = token;
+
         queueManager.initialize();
 
         // Initializing layer
-        Token token = new Token(this, config.getMode());
-        handler = token;
 
+        long start = System.currentTimeMillis();
         boolean success = layerInitializer.initialize(token);
         token.dispose();
 
+        if (success) {
+            long duration = System.currentTimeMillis() - start;
+            Logger.debug("%s - Layer initialised in %s ms, steps: %s ms", name, duration, layerInitializer.getStepDurations());
+
+            // Messages exchanged during the initialisation are always dispatched in order
+            queueManager.setDispatchOrdered(config.isDispatchOrdered());
+        }
+
         setMessageHandler(null);
         return success;
     }
@@ -98,6 +125,27 @@ public class Connection<T> implements IConnection {
         }
     }
 
+    @Override
+    public CompletableFuture<CallbackArgs> sendAsync(IMessage message) {
+        disposable.checkDisposed();
+
+        if (!isEnabled()) {
+            return CompletableFuture.completedFuture(new CallbackArgs(-1, null, true, true));
+        }
+
+        return sendAsync(0, message);
+    }
+
+    @Override
+    public void send(ISharedMessage message) {
+        disposable.checkDisposed();
+
+        if (isEnabled()) {
+            callbackManager.register(message.getIdentifier(), message.getMessage());
+            queueManager.getSendingQueue().add(message);
+        }
+    }
+
     @Override
     public void answer(int requestID, IMessage message) {
         disposable.checkDisposed();
@@ -119,7 +167,7 @@ public class Connection<T> implements IConnection {
         }
 
         this.isEnabled = isEnabled;
-        EventManager.callEvent(new ConnectionEnableChangedEvent(this, isEnabled));
+        callEvent(new ConnectionEnableChangedEvent(this, isEnabled));
     }
 
     @Override
@@ -138,7 +186,7 @@ public class Connection<T> implements IConnection {
             // Disposing unstable counter
             counter.dispose();
 
-            EventManager.callEvent(new ConnectionDisposedEvent(this));
+            callEvent(new ConnectionDisposedEvent(this));
         }
     }
 
@@ -147,35 +195,139 @@ public class Connection<T> implements IConnection {
         return disposable.isDisposed();
     }
 
+    @Override
+    public void addListener(IConnectionListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(IConnectionListener listener) {
+        listeners.remove(listener);
+    }
+
     @Override
     public String toString() {
         return name;
     }
 
+    /**
+     * Notify the listeners of this connection and, if mirrored, the listeners of
+     * the global event bus.
+     *
+     * @param event The event to throw.
+     */
+    private void callEvent(ConnectionEvent event) {
+        for (IConnectionListener listener : listeners) {
+            try {
+                switch (event) {
+                    case ConnectionEnableChangedEvent changed -> listener.onEnableChanged(changed);
+                    case ConnectionLostEvent lost -> listener.onLost(lost);
+                    case ConnectionUnstableEvent unstable -> listener.onUnstable(unstable);
+                    case ConnectionDisposedEvent disposed -> listener.onDisposed(disposed);
+                    default -> {
+                        // Do nothing
+                    }
+                }
+            } catch (Exception e) {
+                Logger.warning("%s - Listener failure: %s", name, e.getMessage());
+            }
+        }
+
+        if (config.isEventBusMirrored()) {
+            EventManager.callEvent(event);
+        }
+    }
+
     /**
      * Throw an unstable connection event.
      */
     private void onUnstableConnection() {
         Logger.error("%s - Unstable connection detected", name);
-        EventManager.callEvent(new ConnectionUnstableEvent(this));
+        callEvent(new ConnectionUnstableEvent(this));
     }
 
     /**
-     * Send asynchronously a message to the remote.
+     * Send asynchronously a message to the remote. If batching is enabled, the
+     * message is written together with the messages waiting in the sending queue.
      *
      * @param message The message to send.
      */
     private void sendMessage(IHeaderMessage message) {
         if (isEnabled()) {
-            try {
-                byte[] data = layerInitializer.getLayer().pack(message);
+            // No batching, writing directly the message
+            if (config.getSendingBatchSize() <= 0) {
+                try {
+                    byte[] data = pack(message);
+
+                    callbackManager.start(message.getIdentifier());
+                    impl.send(data);
 
-                callbackManager.start(message.getIdentifier());
-                impl.send(data);
+                } catch (Exception exception) {
+                    counter.increment();
+                }
+                return;
+            }
 
+            try {
+                // A message shared by several connections may have already been packed by another connection
+                if (message instanceof ISharedMessage shared) {
+                    batch.add(message.getIdentifier(), shared.pack(layerInitializer.getLayer()));
+                } else {
+                    batch.add(message.getIdentifier(), message, getBufferLayer());
+                }
             } catch (Exception exception) {
                 counter.increment();
             }
+
+            boolean isLast = queueManager.getSendingPendingCount() == 0;
+            boolean isFull = batch.getLength() >= config.getSendingBatchSize();
+            boolean isLate = batch.getAge() >= config.getSendingBatchLatency();
+
+            if (!batch.isEmpty() && (isLast || isFull || isLate)) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Generates the bytes array to send to the remote. A message shared by several
+     * connections may have already been packed by another connection.
+     *
+     * @param message The message to pack.
+     * @return The bytes array to send to the remote.
+     */
+    private byte[] pack(IHeaderMessage message) throws Exception {
+        ILayer layer = layerInitializer.getLayer();
+        return message instanceof ISharedMessage shared ? shared.pack(layer) : layer.pack(message);
+    }
+
+    /**
+     * Get the layer used to pack messages directly into a buffer and to unpack
+     * messages without copying their payload. Layers that are not buffer oriented
+     * are adapted.
+     *
+     * @return The buffer oriented layer of this connection.
+     */
+    private IBufferLayer getBufferLayer() {
+        ILayer layer = layerInitializer.getLayer();
+        return layer instanceof IBufferLayer bufferLayer ? bufferLayer : new BufferLayerAdapter(layer);
+    }
+
+    /**
+     * Write in one call all the messages waiting in the sending batch.
+     */
+    private void flush() {
+        try {
+            for (int identifier : batch.getIdentifiers()) {
+                callbackManager.start(identifier);
+            }
+
+            impl.send(batch.get());
+
+        } catch (Exception exception) {
+            counter.increment();
+        } finally {
+            batch.clear();
         }
     }
 
@@ -204,7 +356,7 @@ public class Connection<T> implements IConnection {
 
                 // If connection is disabled, client is being disconnected
                 if (isEnabled()) {
-                    EventManager.callEvent(new ConnectionLostEvent(this));
+                    callEvent(new ConnectionLostEvent(this));
                 }
             } else {
 
@@ -226,11 +378,11 @@ public class Connection<T> implements IConnection {
         if (isEnabled()) {
 
             try {
-                // Extracting requests from the raw bytes array received from the network
-                List<IHeaderMessage> requests = layerInitializer.getLayer().unpack(raw);
+                // Extracting requests from the raw bytes array received from the network, payloads are views on it
+                List<IBufferHeaderMessage> requests = getBufferLayer().unpack(ByteBuffer.wrap(raw));
 
                 // For each received request
-                for (IHeaderMessage request : requests) {
+                for (IBufferHeaderMessage request : requests) {
 
                     // A 0 identifier means it does not correspond to a response to a request
                     if (request.getRequestID() != 0) {
@@ -239,7 +391,7 @@ public class Connection<T> implements IConnection {
                         callbackManager.unregisterAndExecute(request);
                     } else {
                         // Dispatching asynchronously a message event.
-                        MessageEvent event = new MessageEvent(this, request.getIdentifier(), request.getBytes());
+                        MessageEvent event = new MessageEvent(this, request);
                         queueManager.getDispatchingQueue().add(event);
                     }
                 }
@@ -257,36 +409,59 @@ public class Connection<T> implements IConnection {
      * @param message   The message to send to the remote.
      */
     private void send(int requestID, IMessage message) {
-        IMessage toSend = message;
-
-        if (message.isSync()) {
-            int timeout = message.getCallback().timeout() == -1 ? 10 : message.getCallback().timeout();
-            toSend = new Message(message.getBytes(), message.isSync(), timeout, args -> {
-                argument = args;
-                semaphore.release();
-            });
+        if (!message.isSync()) {
+            IHeaderMessage header = new HeaderMessage(requestID, message);
+            callbackManager.register(header.getIdentifier(), message);
+            queueManager.getSendingQueue().add(header);
+            return;
+        }
+
+        CallbackArgs argument = null;
+        try {
+            // Wait until the response has been received or a timeout occurred, with a margin in case the callback is never executed
+            argument = sendAsync(requestID, message).get(getTimeout(message) + SYNC_TIMEOUT_MARGIN, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            argument = new CallbackArgs(-1, null, true, false);
+        }
+
+        // Executing callback
+        if (message.getCallback().timeout() != -1) {
+            message.getCallback().apply(argument);
         }
+    }
+
+    /**
+     * Creates a header message to be sent to the remote whose response completes
+     * the returned future. Each request has its own future, several requests can
+     * then wait for their response at the same time.
+     *
+     * @param requestID The Identifier of the request to respond to.
+     * @param message   The message to send to the remote.
+     * @return A future completed once the response has been received or a timeout
+     * occurred.
+     */
+    private CompletableFuture<CallbackArgs> sendAsync(int requestID, IMessage message) {
+        CompletableFuture<CallbackArgs> future = new CompletableFuture<CallbackArgs>();
+
+        IMessage toSend = new Message(message.getBytes(), message.isSync(), getTimeout(message), future::complete);
 
         IHeaderMessage header = new HeaderMessage(requestID, toSend);
         callbackManager.register(header.getIdentifier(), toSend);
         queueManager.getSendingQueue().add(header);
 
-        if (message.isSync()) {
-            try {
-                // Wait until the callback has been executed
-                semaphore.acquire();
-            } catch (Exception e) {
-                argument = new CallbackArgs(-1, null, true, false);
-            } finally {
-                // Always draining the semaphore to force the synchronous send
-                semaphore.drainPermits();
-            }
+        return future;
+    }
 
-            // Executing callback
-            if (message.getCallback().timeout() != -1) {
-                message.getCallback().apply(argument);
-            }
-        }
+    /**
+     * Get the time to wait for the response of a message. A callback is only
+     * monitored if its timeout is positive, a message with no positive timeout
+     * waits 10 ms so that the future of its response is always completed.
+     *
+     * @param message The message sent to the remote.
+     * @return The time, in ms, to wait for the response.
+     */
+    private int getTimeout(IMessage message) {
+        return message.getCallback().timeout() > 0 ? message.getCallback().timeout() : 10;
     }
 
     /**
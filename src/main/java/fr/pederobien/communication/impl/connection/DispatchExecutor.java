@@ -0,0 +1,118 @@
+package fr.pederobien.communication.impl.connection;
+
+import fr.pederobien.communication.interfaces.IConfiguration.ExecutionMode;
+import fr.pederobien.communication.interfaces.connection.IDispatchExecutor;
+import fr.pederobien.utils.Disposable;
+import fr.pederobien.utils.IDisposable;
+import fr.pederobien.utils.event.Logger;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+public class DispatchExecutor implements IDispatchExecutor {
+    private final String name;
+    private final IQueueTask<Runnable>[] lanes;
+    private final ExecutorService parallel;
+    private final IDisposable disposable;
+
+    /**
+     * Creates an executor to dispatch the messages received by several
+     * connections. Each connection is associated to one serial lane, so that its
+     * messages are dispatched in order, whereas several connections share the same
+     * lane. Messages whose order does not matter can be dispatched in parallel.
+     *
+     * @param name  The name of the executor.
+     * @param lanes The number of serial lanes.
+     * @param mode  The kind of thread used to execute the tasks.
+     */
+    @SuppressWarnings("unchecked")
+    public DispatchExecutor(String name, int lanes, ExecutionMode mode) {
+        this.name = name;
+
+        this.lanes = new IQueueTask[Math.max(1, lanes)];
+        for (int i = 0; i < this.lanes.length; i++) {
+            String laneName = String.format("[%s lane %s]", name, i);
+            this.lanes[i] = switch (mode) {
+                case VIRTUAL -> new VirtualQueueTask<Runnable>(laneName, this::run);
+                case PLATFORM -> new PlatformQueueTask<Runnable>(laneName, this::run);
+            };
+            this.lanes[i].start();
+        }
+
+        parallel = switch (mode) {
+            case VIRTUAL -> Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(String.format("[%s parallel]", name)).factory());
+            case PLATFORM -> Executors.newFixedThreadPool(this.lanes.length,
+                    Thread.ofPlatform().name(String.format("[%s parallel]-", name), 0).daemon(true).factory());
+        };
+
+        disposable = new Disposable();
+    }
+
+    /**
+     * Creates an executor whose tasks are executed by platform threads, with as
+     * many lanes as available processors.
+     *
+     * @param name The name of the executor.
+     */
+    public DispatchExecutor(String name) {
+        this(name, Runtime.getRuntime().availableProcessors(), ExecutionMode.PLATFORM);
+    }
+
+    @Override
+    public void execute(Object key, Runnable task) {
+        disposable.checkDisposed();
+
+        // Spreading the hash code so that lanes are evenly used
+        int hash = key.hashCode();
+        lanes[Math.floorMod(hash ^ (hash >>> 16), lanes.length)].add(task);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        disposable.checkDisposed();
+
+        try {
+            parallel.execute(() -> run(task));
+        } catch (RejectedExecutionException e) {
+            // Executor disposed in the meantime
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (disposable.dispose()) {
+            for (IQueueTask<Runnable> lane : lanes) {
+                lane.dispose();
+            }
+
+            parallel.shutdownNow();
+        }
+    }
+
+    /**
+     * @return The number of serial lanes of this executor.
+     */
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%s]", name);
+    }
+
+    /**
+     * Execute the given task. An exception must not stop the thread of a lane
+     * shared by several connections.
+     *
+     * @param task The task to execute.
+     */
+    private void run(Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            Logger.warning("%s - Dispatch failure: %s", this, e.getMessage());
+        }
+    }
+}
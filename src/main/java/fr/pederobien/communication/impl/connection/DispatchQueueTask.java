@@ -0,0 +1,68 @@
+package fr.pederobien.communication.impl.connection;
+
+import fr.pederobien.communication.interfaces.connection.IDispatchExecutor;
+
+import java.util.function.Consumer;
+
+public class DispatchQueueTask<T> implements IQueueTask<T> {
+    private final IDispatchExecutor executor;
+    private final Consumer<T> consumer;
+    private volatile boolean isOrdered;
+    private volatile boolean isDisposed;
+
+    /**
+     * Creates a queue whose elements are processed by an executor shared with
+     * other queues. No thread is dedicated to this queue.
+     *
+     * @param executor  The executor that processes the elements.
+     * @param consumer  The code to execute for each element added to the queue.
+     * @param isOrdered True to process the elements in the order they have been
+     *                  added, false to process them in parallel.
+     */
+    public DispatchQueueTask(IDispatchExecutor executor, Consumer<T> consumer, boolean isOrdered) {
+        this.executor = executor;
+        this.consumer = consumer;
+        this.isOrdered = isOrdered;
+    }
+
+    @Override
+    public void start() {
+        // Do nothing, the executor is already started
+    }
+
+    @Override
+    public void add(T element) {
+        if (isDisposed) {
+            return;
+        }
+
+        Runnable task = () -> {
+            // Elements still waiting in the executor when the queue is disposed are ignored
+            if (!isDisposed) {
+                consumer.accept(element);
+            }
+        };
+
+        if (isOrdered) {
+            executor.execute(this, task);
+        } else {
+            executor.execute(task);
+        }
+    }
+
+    /**
+     * Set whether the elements added from now on are processed in order or in
+     * parallel.
+     *
+     * @param isOrdered True to process the elements in the order they have been
+     *                  added, false to process them in parallel.
+     */
+    public void setOrdered(boolean isOrdered) {
+        this.isOrdered = isOrdered;
+    }
+
+    @Override
+    public void dispose() {
+        isDisposed = true;
+    }
+}
@@ -0,0 +1,23 @@
+package fr.pederobien.communication.impl.connection;
+
+public interface IQueueTask<T> {
+
+    /**
+     * Start the underlying thread waiting for elements to be added to this queue.
+     */
+    void start();
+
+    /**
+     * Add the given element at the end of this queue. Elements are processed one
+     * after the other, in the order they have been added.
+     *
+     * @param element The element to process asynchronously.
+     */
+    void add(T element);
+
+    /**
+     * Dispose this queue. The underlying thread is interrupted and the queue cannot
+     * be used anymore.
+     */
+    void dispose();
+}
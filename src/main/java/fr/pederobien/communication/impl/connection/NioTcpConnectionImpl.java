@@ -0,0 +1,240 @@
+package fr.pederobien.communication.impl.connection;
+
+import fr.pederobien.communication.interfaces.connection.IBufferPool;
+import fr.pederobien.communication.interfaces.connection.IConnectionImpl;
+import fr.pederobien.utils.Disposable;
+import fr.pederobien.utils.IDisposable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class NioTcpConnectionImpl implements IConnectionImpl, SelectorLoop.IHandler {
+    private static final ByteBuffer END_OF_STREAM = ByteBuffer.allocate(0);
+
+    /**
+     * Number of received bytes waiting to be consumed beyond which the channel is
+     * not read anymore. The remote is then slowed down by the TCP flow control.
+     */
+    private static final int MAX_RECEIVED_BYTES = 1024 * 1024;
+
+    private final SocketChannel channel;
+    private final SelectorLoop loop;
+    private final IBufferPool pool;
+    private final AdaptiveReadSize readSize;
+    private final BlockingQueue<ByteBuffer> received;
+    private final AtomicInteger receivedBytes;
+    private final Queue<ByteBuffer> pending;
+    private final IDisposable disposable;
+    private volatile boolean isReadSuspended;
+    private SelectionKey key;
+
+    /**
+     * Creates a non-blocking connection specific for TCP protocol. The channel is
+     * served by the given event loop, no thread is blocked waiting for data from
+     * the remote. The channel stops being read while more than 1 MB received from
+     * the remote waits to be consumed.
+     *
+     * @param channel The channel to use to send/receive data from the remote.
+     * @param loop    The event loop that serves the channel.
+     * @param pool    The pool that provides the buffers used to read data from the
+     *                remote.
+     */
+    public NioTcpConnectionImpl(SocketChannel channel, SelectorLoop loop, IBufferPool pool) throws IOException {
+        this.channel = channel;
+        this.loop = loop;
+        this.pool = pool;
+
+        readSize = new AdaptiveReadSize();
+        received = new LinkedBlockingQueue<ByteBuffer>();
+        receivedBytes = new AtomicInteger();
+        pending = new ArrayDeque<ByteBuffer>();
+        disposable = new Disposable();
+
+        channel.configureBlocking(false);
+        loop.register(channel, SelectionKey.OP_READ, this, key -> this.key = key);
+    }
+
+    /**
+     * Creates a non-blocking connection specific for TCP protocol using the default
+     * buffer pool.
+     *
+     * @param channel The channel to use to send/receive data from the remote.
+     * @param loop    The event loop that serves the channel.
+     */
+    public NioTcpConnectionImpl(SocketChannel channel, SelectorLoop loop) throws IOException {
+        this(channel, loop, BufferPool.getDefault());
+    }
+
+    @Override
+    public void send(byte[] data) throws Exception {
+        disposable.checkDisposed();
+
+        synchronized (pending) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+
+            // Nothing waiting to be written, trying to write directly
+            if (pending.isEmpty()) {
+                channel.write(buffer);
+                if (!buffer.hasRemaining()) {
+                    return;
+                }
+            }
+
+            pending.add(buffer);
+
+            // The socket buffer is full, waiting for the channel to be writable
+            if (pending.size() == 1) {
+                loop.execute(() -> setInterest(SelectionKey.OP_WRITE, true));
+            }
+        }
+    }
+
+    @Override
+    public byte[] receive() throws Exception {
+        ByteBuffer buffer = received.take();
+        if (buffer == END_OF_STREAM) {
+            return null;
+        }
+
+        byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+        pool.release(buffer);
+
+        // Enough data consumed, reading again the channel
+        if (receivedBytes.addAndGet(-data.length) < MAX_RECEIVED_BYTES / 2 && isReadSuspended) {
+            loop.execute(this::resumeRead);
+        }
+
+        return data;
+    }
+
+    @Override
+    public void dispose() {
+        if (disposable.dispose()) {
+            close();
+        }
+    }
+
+    @Override
+    public void onSelected(SelectionKey key) throws IOException {
+        if (key.isReadable()) {
+            read();
+        }
+
+        if (key.isValid() && key.isWritable()) {
+            write();
+        }
+    }
+
+    @Override
+    public void onClosed() {
+        close();
+    }
+
+    /**
+     * Read the data available on the channel, from the loop thread.
+     */
+    private void read() throws IOException {
+        ByteBuffer buffer = pool.acquire(readSize.getSize());
+
+        int read;
+        try {
+            read = channel.read(buffer);
+        } catch (IOException e) {
+            pool.release(buffer);
+            throw e;
+        }
+
+        if (read <= 0) {
+            pool.release(buffer);
+
+            // Connection closed by the remote
+            if (read == -1) {
+                close();
+            }
+            return;
+        }
+
+        readSize.record(read);
+        received.add(buffer.flip());
+
+        // The data is not consumed fast enough, no more data is read from the channel
+        if (receivedBytes.addAndGet(read) >= MAX_RECEIVED_BYTES) {
+            isReadSuspended = true;
+            setInterest(SelectionKey.OP_READ, false);
+
+            // The data may have been consumed before the reading has been suspended
+            if (receivedBytes.get() < MAX_RECEIVED_BYTES / 2) {
+                resumeRead();
+            }
+        }
+    }
+
+    /**
+     * Read again the channel once the received data has been consumed, from the
+     * loop thread.
+     */
+    private void resumeRead() {
+        if (isReadSuspended) {
+            isReadSuspended = false;
+            setInterest(SelectionKey.OP_READ, true);
+        }
+    }
+
+    /**
+     * Write the pending data, from the loop thread.
+     */
+    private void write() throws IOException {
+        synchronized (pending) {
+            while (!pending.isEmpty()) {
+                ByteBuffer buffer = pending.peek();
+                channel.write(buffer);
+
+                // Socket buffer full, waiting for the next writable event
+                if (buffer.hasRemaining()) {
+                    return;
+                }
+
+                pending.poll();
+            }
+
+            setInterest(SelectionKey.OP_WRITE, false);
+        }
+    }
+
+    /**
+     * Add or remove an operation from the interest set of the selection key. Must
+     * be called from the loop thread.
+     *
+     * @param operation The operation to add or remove.
+     * @param enabled   True to be notified when the operation is ready.
+     */
+    private void setInterest(int operation, boolean enabled) {
+        if (key == null || !key.isValid()) {
+            return;
+        }
+
+        int ops = key.interestOps();
+        key.interestOps(enabled ? ops | operation : ops & ~operation);
+    }
+
+    /**
+     * Close the channel and notify the reception that the connection is over.
+     */
+    private void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Do nothing
+        }
+
+        received.add(END_OF_STREAM);
+    }
+}
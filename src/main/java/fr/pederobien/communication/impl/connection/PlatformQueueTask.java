@@ -0,0 +1,34 @@
+package fr.pederobien.communication.impl.connection;
+
+import fr.pederobien.utils.BlockingQueueTask;
+
+import java.util.function.Consumer;
+
+public class PlatformQueueTask<T> implements IQueueTask<T> {
+    private final BlockingQueueTask<T> queue;
+
+    /**
+     * Creates a queue whose elements are processed by a dedicated platform thread.
+     *
+     * @param name     The name of the underlying thread.
+     * @param consumer The code to execute for each element added to the queue.
+     */
+    public PlatformQueueTask(String name, Consumer<T> consumer) {
+        queue = new BlockingQueueTask<T>(name, consumer);
+    }
+
+    @Override
+    public void start() {
+        queue.start();
+    }
+
+    @Override
+    public void add(T element) {
+        queue.add(element);
+    }
+
+    @Override
+    public void dispose() {
+        queue.dispose();
+    }
+}
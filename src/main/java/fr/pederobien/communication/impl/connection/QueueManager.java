@@ -1,17 +1,21 @@
 package fr.pederobien.communication.impl.connection;
 
 import fr.pederobien.communication.event.MessageEvent;
+import fr.pederobien.communication.interfaces.IConfiguration.ExecutionMode;
+import fr.pederobien.communication.interfaces.connection.IDispatchExecutor;
 import fr.pederobien.communication.interfaces.connection.IHeaderMessage;
-import fr.pederobien.utils.BlockingQueueTask;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 public class QueueManager {
-    private final BlockingQueueTask<IHeaderMessage> sendingQueue;
-    private final BlockingQueueTask<Object> receivingQueue;
-    private final BlockingQueueTask<byte[]> extractingQueue;
-    private final BlockingQueueTask<MessageEvent> dispatchingQueue;
-    private final BlockingQueueTask<CallbackResult> callbackQueue;
+    private final ExecutionMode mode;
+    private final IQueueTask<IHeaderMessage> sendingQueue;
+    private final IQueueTask<Object> receivingQueue;
+    private final IQueueTask<byte[]> extractingQueue;
+    private final IQueueTask<MessageEvent> dispatchingQueue;
+    private final IQueueTask<CallbackResult> callbackQueue;
+    private final AtomicInteger sendingPending;
     private Consumer<IHeaderMessage> onSend;
     private Consumer<Object> onReceive;
     private Consumer<byte[]> onExtract;
@@ -20,23 +24,56 @@ public class QueueManager {
     /**
      * Creates a manager that contains a sending, receiving and extracting queue.
      *
-     * @param name The connection name.
+     * @param name       The connection name.
+     * @param mode       The kind of thread used to process the elements of each
+     *                   queue.
+     * @param dispatcher The executor shared by several connections to dispatch
+     *                   the unexpected messages in order, or null to dispatch them
+     *                   on a dedicated thread.
      */
-    public QueueManager(String name) {
+    public QueueManager(String name, ExecutionMode mode, IDispatchExecutor dispatcher) {
+        this.mode = mode;
+
+        sendingPending = new AtomicInteger(0);
+
         String queueName = String.format("[%s send]", name);
-        sendingQueue = new BlockingQueueTask<IHeaderMessage>(queueName, this::onSend);
+        sendingQueue = new SendingQueue(createQueue(queueName, this::onSend));
 
         queueName = String.format("[%s receive]", name);
-        receivingQueue = new BlockingQueueTask<Object>(queueName, this::onReceive);
+        receivingQueue = createQueue(queueName, this::onReceive);
 
         queueName = String.format("[%s extract]", name);
-        extractingQueue = new BlockingQueueTask<byte[]>(queueName, this::onExtract);
+        extractingQueue = createQueue(queueName, this::onExtract);
 
         queueName = String.format("[%s dispatch]", name);
-        dispatchingQueue = new BlockingQueueTask<MessageEvent>(queueName, this::onDispatch);
+        if (dispatcher == null) {
+            dispatchingQueue = createQueue(queueName, this::onDispatch);
+        } else {
+            dispatchingQueue = new DispatchQueueTask<MessageEvent>(dispatcher, this::onDispatch, true);
+        }
 
         queueName = String.format("[%s callback]", name);
-        callbackQueue = new BlockingQueueTask<CallbackResult>(queueName, CallbackResult::apply);
+        callbackQueue = createQueue(queueName, CallbackResult::apply);
+    }
+
+    /**
+     * Creates a manager that contains a sending, receiving and extracting queue.
+     *
+     * @param name The connection name.
+     * @param mode The kind of thread used to process the elements of each queue.
+     */
+    public QueueManager(String name, ExecutionMode mode) {
+        this(name, mode, null);
+    }
+
+    /**
+     * Creates a manager that contains a sending, receiving and extracting queue.
+     * Each queue is processed by a dedicated platform thread.
+     *
+     * @param name The connection name.
+     */
+    public QueueManager(String name) {
+        this(name, ExecutionMode.PLATFORM);
     }
 
     /**
@@ -77,10 +114,18 @@ public class QueueManager {
     /**
      * @return The queue to send data to the remote.
      */
-    public BlockingQueueTask<IHeaderMessage> getSendingQueue() {
+    public IQueueTask<IHeaderMessage> getSendingQueue() {
         return sendingQueue;
     }
 
+    /**
+     * @return The number of messages in the sending queue that have not been given
+     * yet to the code to execute to send data to the remote.
+     */
+    public int getSendingPendingCount() {
+        return sendingPending.get();
+    }
+
     /**
      * Set the code to execute when data should be sent to the remote.
      *
@@ -93,7 +138,7 @@ public class QueueManager {
     /**
      * @return The queue to receive data from the remote.
      */
-    public BlockingQueueTask<Object> getReceivingQueue() {
+    public IQueueTask<Object> getReceivingQueue() {
         return receivingQueue;
     }
 
@@ -109,7 +154,7 @@ public class QueueManager {
     /**
      * @return The queue to extract data received from the remote.
      */
-    public BlockingQueueTask<byte[]> getExtractingQueue() {
+    public IQueueTask<byte[]> getExtractingQueue() {
         return extractingQueue;
     }
 
@@ -125,7 +170,7 @@ public class QueueManager {
     /**
      * @return The queue to dispatch an unexpected message.
      */
-    public BlockingQueueTask<MessageEvent> getDispatchingQueue() {
+    public IQueueTask<MessageEvent> getDispatchingQueue() {
         return dispatchingQueue;
     }
 
@@ -138,14 +183,43 @@ public class QueueManager {
         this.onDispatch = onDispatch;
     }
 
+    /**
+     * If the unexpected messages are dispatched by an executor shared by several
+     * connections, set whether they are dispatched in order or in parallel.
+     *
+     * @param isOrdered True to dispatch the messages in order, false to dispatch
+     *                  them in parallel.
+     */
+    public void setDispatchOrdered(boolean isOrdered) {
+        if (dispatchingQueue instanceof DispatchQueueTask<MessageEvent> queue) {
+            queue.setOrdered(isOrdered);
+        }
+    }
+
     /**
      * @return The queue to execute a callback.
      */
-    public BlockingQueueTask<CallbackResult> getCallbackQueue() {
+    public IQueueTask<CallbackResult> getCallbackQueue() {
         return callbackQueue;
     }
 
+    /**
+     * Creates a queue whose elements are processed according to the execution mode
+     * of this manager.
+     *
+     * @param name     The name of the queue.
+     * @param consumer The code to execute for each element of the queue.
+     * @return The created queue.
+     */
+    private <E> IQueueTask<E> createQueue(String name, Consumer<E> consumer) {
+        return switch (mode) {
+            case VIRTUAL -> new VirtualQueueTask<E>(name, consumer);
+            case PLATFORM -> new PlatformQueueTask<E>(name, consumer);
+        };
+    }
+
     private void onSend(IHeaderMessage message) {
+        sendingPending.decrementAndGet();
         if (onSend != null) {
             onSend.accept(message);
         }
@@ -168,4 +242,33 @@ public class QueueManager {
             onDispatch.accept(event);
         }
     }
+
+    private class SendingQueue implements IQueueTask<IHeaderMessage> {
+        private final IQueueTask<IHeaderMessage> queue;
+
+        /**
+         * Creates a queue that counts the messages waiting to be sent.
+         *
+         * @param queue The queue that processes the messages to send.
+         */
+        private SendingQueue(IQueueTask<IHeaderMessage> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void start() {
+            queue.start();
+        }
+
+        @Override
+        public void add(IHeaderMessage message) {
+            sendingPending.incrementAndGet();
+            queue.add(message);
+        }
+
+        @Override
+        public void dispose() {
+            queue.dispose();
+        }
+    }
 }
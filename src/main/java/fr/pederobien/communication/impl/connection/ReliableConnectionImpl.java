@@ -0,0 +1,662 @@
+package fr.pederobien.communication.impl.connection;
+
+import fr.pederobien.communication.interfaces.connection.IConnectionImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+public class ReliableConnectionImpl implements IConnectionImpl {
+    /**
+     * Type of a segment that holds the last, or only, part of a payload.
+     */
+    private static final byte DATA = 0;
+
+    /**
+     * Type of a segment that acknowledges the data received from the remote.
+     */
+    private static final byte ACK = 1;
+
+    /**
+     * Type of a segment that holds a part of a payload, the following parts are
+     * held by the next segments.
+     */
+    private static final byte FRAGMENT = 2;
+
+    /**
+     * Size of the header of a segment: CRC32 (4 bytes), type (1 byte), sequence
+     * number or cumulative acknowledgement (4 bytes).
+     */
+    private static final int HEADER_SIZE = 9;
+
+    /**
+     * Maximum number of out-of-order segments selectively acknowledged by an ACK.
+     */
+    private static final int MAX_SACK = 16;
+
+    /**
+     * Number of segments selectively acknowledged after a missing segment before
+     * retransmitting it without waiting for its timer.
+     */
+    private static final int FAST_RETRANSMIT_THRESHOLD = 3;
+
+    /**
+     * Maximum size of a payload gathered from several segments, beyond which the
+     * remote is considered as corrupted.
+     */
+    private static final int MAX_PAYLOAD_SIZE = 16 * 1024 * 1024;
+
+    private static final long INITIAL_RTO = 200;
+    private static final long MIN_RTO = 20;
+    private static final long MAX_RTO = 5000;
+
+    private final IConnectionImpl impl;
+    private final int maxWindow;
+    private final int maxRetransmissions;
+    private final int maxSegmentSize;
+
+    // Sender side, guarded by lock
+    private final ReentrantLock lock;
+    private final Condition windowAvailable;
+    private final TreeMap<Integer, Segment> inFlight;
+    private int nextSequence;
+    private double congestionWindow;
+    private double slowStartThreshold;
+    private boolean isInRecovery;
+    private int recoveryPoint;
+    private boolean isRttMeasured;
+    private long smoothedRtt;
+    private long rttVariation;
+    private long rto;
+    private ScheduledFuture<?> timer;
+    private long retransmissions;
+    private boolean isDisposed;
+    private boolean isLost;
+
+    // Receiver side, only accessed by the receiving thread
+    private final TreeMap<Integer, Part> outOfOrder;
+    private final Deque<byte[]> ready;
+    private final ByteArrayOutputStream assembling;
+    private int expectedSequence;
+
+    /**
+     * Creates a connection that adds reliability to an unreliable connection such
+     * as UDP. Each payload is sent in a segment with a sequence number and a CRC32,
+     * the remote acknowledges the segments it received, cumulatively and
+     * selectively. A segment is retransmitted if it is not acknowledged before the
+     * retransmission timeout computed from the measured round-trip time, or if
+     * later segments have been acknowledged. The number of segments in flight is
+     * limited by a congestion window that grows with the acknowledgements and is
+     * reduced on losses. A payload bigger than a segment is split into several
+     * segments. Payloads are given to the connection in the order they have been
+     * sent.
+     *
+     * @param impl               The unreliable connection used to send/receive
+     *                           segments.
+     * @param maxWindow          The maximum number of segments in flight, and the
+     *                           maximum number of out-of-order segments kept by
+     *                           the receiver.
+     * @param maxRetransmissions The number of retransmissions of a segment after
+     *                           which the connection is considered as lost.
+     * @param maxSegmentSize     The maximum size, in bytes, of a segment including
+     *                           its header. It must not exceed the size of the
+     *                           datagrams the remote can receive.
+     */
+    public ReliableConnectionImpl(IConnectionImpl impl, int maxWindow, int maxRetransmissions, int maxSegmentSize) {
+        if (maxSegmentSize <= HEADER_SIZE + 4 * MAX_SACK) {
+            throw new IllegalArgumentException("The maximum segment size must be greater than the size of an ACK");
+        }
+
+        this.impl = impl;
+        this.maxWindow = maxWindow;
+        this.maxRetransmissions = maxRetransmissions;
+        this.maxSegmentSize = maxSegmentSize;
+
+        lock = new ReentrantLock();
+        windowAvailable = lock.newCondition();
+        inFlight = new TreeMap<Integer, Segment>();
+        congestionWindow = 2;
+        slowStartThreshold = maxWindow;
+        rto = INITIAL_RTO;
+
+        outOfOrder = new TreeMap<Integer, Part>();
+        ready = new ArrayDeque<byte[]>();
+        assembling = new ByteArrayOutputStream();
+    }
+
+    /**
+     * Creates a connection that adds reliability to an unreliable connection with
+     * segments of at most 1400 bytes, so that they fit in the datagrams received by
+     * the client UDP socket.
+     *
+     * @param impl               The unreliable connection used to send/receive
+     *                           segments.
+     * @param maxWindow          The maximum number of segments in flight, and the
+     *                           maximum number of out-of-order segments kept by
+     *                           the receiver.
+     * @param maxRetransmissions The number of retransmissions of a segment after
+     *                           which the connection is considered as lost.
+     */
+    public ReliableConnectionImpl(IConnectionImpl impl, int maxWindow, int maxRetransmissions) {
+        this(impl, maxWindow, maxRetransmissions, 1400);
+    }
+
+    /**
+     * Creates a connection that adds reliability to an unreliable connection with
+     * at most 64 segments of at most 1400 bytes in flight. The connection is
+     * considered as lost if a segment has been retransmitted 10 times.
+     *
+     * @param impl The unreliable connection used to send/receive segments.
+     */
+    public ReliableConnectionImpl(IConnectionImpl impl) {
+        this(impl, 64, 10);
+    }
+
+    @Override
+    public void send(byte[] data) throws Exception {
+        int maxPartSize = maxSegmentSize - HEADER_SIZE;
+
+        // The remote gathers the parts of the payload in the order of their sequence numbers
+        int offset = 0;
+        do {
+            int length = Math.min(maxPartSize, data.length - offset);
+            send(Arrays.copyOfRange(data, offset, offset + length), offset + length == data.length);
+            offset += length;
+        } while (offset < data.length);
+    }
+
+    /**
+     * Send a segment to the remote once the congestion window allows it.
+     *
+     * @param data   The part of the payload to send.
+     * @param isLast True if this is the last part of the payload.
+     */
+    private void send(byte[] data, boolean isLast) throws Exception {
+        Segment segment = null;
+
+        lock.lock();
+        try {
+            // Waiting for the remote to acknowledge segments
+            while (!isDisposed && !isLost && inFlight.size() >= (int) congestionWindow) {
+                windowAvailable.await();
+            }
+
+            if (isDisposed || isLost) {
+                throw new IllegalStateException("Reliable connection closed");
+            }
+
+            segment = new Segment(nextSequence++, data, isLast);
+            segment.sentTime = System.currentTimeMillis();
+            inFlight.put(segment.sequence, segment);
+
+            if (timer == null) {
+                timer = TimeoutScheduler.schedule(this::onTimeout, rto);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        impl.send(segment.frame());
+    }
+
+    @Override
+    public byte[] receive() throws Exception {
+        while (ready.isEmpty()) {
+            byte[] raw = impl.receive();
+
+            // Connection lost
+            if (raw == null) {
+                return null;
+            }
+
+            // Corrupted segments are dropped, the remote will retransmit them
+            ByteBuffer buffer = ByteBuffer.wrap(raw);
+            if (raw.length < HEADER_SIZE || buffer.getInt() != checksum(raw)) {
+                continue;
+            }
+
+            byte type = buffer.get();
+            int sequence = buffer.getInt();
+
+            if (type == ACK) {
+                onAcknowledgement(sequence, buffer);
+            } else if (type == DATA || type == FRAGMENT) {
+                byte[] payload = new byte[buffer.remaining()];
+                buffer.get(payload);
+                onData(sequence, new Part(payload, type == DATA));
+            }
+
+            // Checking if the connection has been lost while waiting for a segment
+            if (ready.isEmpty() && isLost()) {
+                return null;
+            }
+
+            // The remote sends a payload bigger than any valid payload
+            if (assembling.size() > MAX_PAYLOAD_SIZE) {
+                return null;
+            }
+        }
+
+        return ready.poll();
+    }
+
+    @Override
+    public void dispose() {
+        lock.lock();
+        try {
+            isDisposed = true;
+            cancelTimer();
+            windowAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        impl.dispose();
+    }
+
+    /**
+     * @return The current size of the congestion window, in segments.
+     */
+    public double getCongestionWindow() {
+        lock.lock();
+        try {
+            return congestionWindow;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The smoothed round-trip time, in ms, 0 if it has not been measured
+     * yet.
+     */
+    public long getSmoothedRtt() {
+        lock.lock();
+        try {
+            return smoothedRtt;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The current retransmission timeout, in ms.
+     */
+    public long getRto() {
+        lock.lock();
+        try {
+            return rto;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of segments retransmitted since the creation of this
+     * connection.
+     */
+    public long getRetransmissions() {
+        lock.lock();
+        try {
+            return retransmissions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Buffer the received data segment and acknowledge it.
+     *
+     * @param sequence The sequence number of the segment.
+     * @param part     The part of the payload held by the segment.
+     */
+    private void onData(int sequence, Part part) throws Exception {
+        int offset = sequence - expectedSequence;
+
+        // Segments beyond the receive window are dropped, duplicates are acknowledged again
+        if (0 <= offset && offset < maxWindow) {
+            if (offset == 0) {
+                deliver(part);
+                expectedSequence++;
+
+                // The segment may fill a gap, delivering the following segments
+                Part next;
+                while ((next = outOfOrder.remove(expectedSequence)) != null) {
+                    deliver(next);
+                    expectedSequence++;
+                }
+            } else {
+                outOfOrder.putIfAbsent(sequence, part);
+            }
+        }
+
+        ByteBuffer ack = ByteBuffer.allocate(HEADER_SIZE + 4 * Math.min(outOfOrder.size(), MAX_SACK));
+        ack.position(4);
+        ack.put(ACK);
+        ack.putInt(expectedSequence);
+
+        for (int selective : outOfOrder.keySet()) {
+            if (!ack.hasRemaining()) {
+                break;
+            }
+            ack.putInt(selective);
+        }
+
+        byte[] frame = ack.array();
+        ByteBuffer.wrap(frame).putInt(checksum(frame));
+        impl.send(frame);
+    }
+
+    /**
+     * Gather the parts received in order, the payload is given to the connection
+     * once its last part has been received.
+     *
+     * @param part The next part in the order of the sequence numbers.
+     */
+    private void deliver(Part part) {
+        if (part.isLast() && assembling.size() == 0) {
+            ready.add(part.data());
+            return;
+        }
+
+        assembling.writeBytes(part.data());
+        if (part.isLast()) {
+            ready.add(assembling.toByteArray());
+            assembling.reset();
+        }
+    }
+
+    /**
+     * Remove the acknowledged segments, update the round-trip time estimation and
+     * the congestion window, then retransmit the segments considered as lost.
+     *
+     * @param cumulative The sequence number of the next segment expected by the
+     *                   remote, all previous segments have been received.
+     * @param buffer     The buffer positioned on the selectively acknowledged
+     *                   sequence numbers.
+     */
+    private void onAcknowledgement(int cumulative, ByteBuffer buffer) throws Exception {
+        List<Segment> toRetransmit = new ArrayList<Segment>();
+
+        lock.lock();
+        try {
+            List<Segment> acknowledged = new ArrayList<Segment>();
+
+            Map<Integer, Segment> head = inFlight.headMap(cumulative);
+            acknowledged.addAll(head.values());
+            head.clear();
+
+            int highest = cumulative - 1;
+            while (buffer.remaining() >= 4) {
+                int selective = buffer.getInt();
+                Segment segment = inFlight.remove(selective);
+                if (segment != null) {
+                    acknowledged.add(segment);
+                }
+                highest = Math.max(highest, selective);
+            }
+
+            if (acknowledged.isEmpty()) {
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            boolean isRttSampled = false;
+            for (Segment segment : acknowledged) {
+                // Karn's algorithm: retransmitted segments give ambiguous samples
+                if (!isRttSampled && segment.transmissions == 1) {
+                    updateRto(now - segment.sentTime);
+                    isRttSampled = true;
+                }
+
+                // Additive increase: slow start then congestion avoidance
+                if (congestionWindow < slowStartThreshold) {
+                    congestionWindow += 1;
+                } else {
+                    congestionWindow += 1 / congestionWindow;
+                }
+            }
+            congestionWindow = Math.min(congestionWindow, maxWindow);
+
+            // Fast retransmit of the segments followed by enough acknowledged segments
+            boolean isLossDetected = false;
+            for (Segment segment : inFlight.values()) {
+                if (highest - segment.sequence < FAST_RETRANSMIT_THRESHOLD) {
+                    break;
+                }
+
+                if (!segment.isFastRetransmitted) {
+                    segment.isFastRetransmitted = true;
+                    toRetransmit.add(segment);
+                    isLossDetected = true;
+                }
+            }
+
+            // The loss event ends once every segment sent before its detection is acknowledged
+            if (isInRecovery && cumulative > recoveryPoint) {
+                isInRecovery = false;
+            }
+
+            // Multiplicative decrease, once per loss event
+            if (isLossDetected && !isInRecovery) {
+                slowStartThreshold = Math.max(congestionWindow / 2, 2);
+                congestionWindow = slowStartThreshold;
+                isInRecovery = true;
+                recoveryPoint = nextSequence - 1;
+            }
+
+            prepareRetransmission(toRetransmit, now);
+
+            cancelTimer();
+            if (!inFlight.isEmpty()) {
+                timer = TimeoutScheduler.schedule(this::onTimeout, rto);
+            }
+
+            windowAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        retransmit(toRetransmit);
+    }
+
+    /**
+     * Retransmit the segments whose timer has expired. The congestion window
+     * restarts from one segment and the retransmission timeout is doubled.
+     */
+    private void onTimeout() {
+        List<Segment> toRetransmit = new ArrayList<Segment>();
+        boolean isConnectionLost = false;
+
+        lock.lock();
+        try {
+            timer = null;
+            if (isDisposed || inFlight.isEmpty()) {
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            for (Segment segment : inFlight.values()) {
+                if (now - segment.sentTime >= rto) {
+                    toRetransmit.add(segment);
+                    isConnectionLost |= segment.transmissions > maxRetransmissions;
+                }
+            }
+
+            if (isConnectionLost) {
+                isLost = true;
+                windowAvailable.signalAll();
+            } else {
+                if (!toRetransmit.isEmpty()) {
+                    slowStartThreshold = Math.max(congestionWindow / 2, 2);
+                    congestionWindow = 1;
+                    isInRecovery = true;
+                    recoveryPoint = nextSequence - 1;
+                    rto = Math.min(rto * 2, MAX_RTO);
+                    prepareRetransmission(toRetransmit, now);
+                }
+
+                timer = TimeoutScheduler.schedule(this::onTimeout, rto);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // The remote does not respond anymore, the receiving thread is released
+        if (isConnectionLost) {
+            impl.dispose();
+            return;
+        }
+
+        try {
+            retransmit(toRetransmit);
+        } catch (Exception e) {
+            // The timer will retransmit the segments again
+        }
+    }
+
+    /**
+     * Update the state of the segments to retransmit. This method must be called
+     * while holding the lock.
+     *
+     * @param segments The segments to retransmit.
+     * @param now      The current time, in ms.
+     */
+    private void prepareRetransmission(List<Segment> segments, long now) {
+        for (Segment segment : segments) {
+            segment.sentTime = now;
+            segment.transmissions++;
+            retransmissions++;
+        }
+    }
+
+    /**
+     * Send again the given segments to the remote. This method must not be called
+     * while holding the lock.
+     *
+     * @param segments The segments to retransmit.
+     */
+    private void retransmit(List<Segment> segments) throws Exception {
+        for (Segment segment : segments) {
+            impl.send(segment.frame());
+        }
+    }
+
+    /**
+     * Update the smoothed round-trip time and the retransmission timeout with the
+     * given sample, as described in RFC 6298. This method must be called while
+     * holding the lock.
+     *
+     * @param sample The measured round-trip time, in ms.
+     */
+    private void updateRto(long sample) {
+        if (!isRttMeasured) {
+            isRttMeasured = true;
+            smoothedRtt = sample;
+            rttVariation = sample / 2;
+        } else {
+            rttVariation = (3 * rttVariation + Math.abs(smoothedRtt - sample)) / 4;
+            smoothedRtt = (7 * smoothedRtt + sample) / 8;
+        }
+
+        rto = Math.max(MIN_RTO, Math.min(smoothedRtt + Math.max(1, 4 * rttVariation), MAX_RTO));
+    }
+
+    /**
+     * Cancel the retransmission timer, if any. This method must be called while
+     * holding the lock.
+     */
+    private void cancelTimer() {
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+        }
+    }
+
+    /**
+     * @return True if a segment has been retransmitted too many times.
+     */
+    private boolean isLost() {
+        lock.lock();
+        try {
+            return isLost;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Compute the CRC32 of the given frame, the first 4 bytes holding the
+     * checksum are ignored.
+     *
+     * @param frame The frame whose checksum is computed.
+     * @return The CRC32 of the frame.
+     */
+    private static int checksum(byte[] frame) {
+        CRC32 crc = new CRC32();
+        crc.update(frame, 4, frame.length - 4);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * A part of a payload received from the remote.
+     *
+     * @param data   The bytes of the part.
+     * @param isLast True if this is the last part of the payload.
+     */
+    private record Part(byte[] data, boolean isLast) {
+    }
+
+    private static class Segment {
+        private final int sequence;
+        private final byte[] data;
+        private final boolean isLast;
+        private long sentTime;
+        private int transmissions;
+        private boolean isFastRetransmitted;
+
+        /**
+         * Creates a data segment not acknowledged yet by the remote.
+         *
+         * @param sequence The sequence number of the segment.
+         * @param data     The part of the payload held by the segment.
+         * @param isLast   True if this is the last part of the payload.
+         */
+        public Segment(int sequence, byte[] data, boolean isLast) {
+            this.sequence = sequence;
+            this.data = data;
+            this.isLast = isLast;
+
+            transmissions = 1;
+        }
+
+        /**
+         * Creates a new frame for each transmission, the underlying connection may
+         * modify the array it sends.
+         *
+         * @return The bytes to send to the remote.
+         */
+        public byte[] frame() {
+            byte[] frame = new byte[HEADER_SIZE + data.length];
+
+            ByteBuffer buffer = ByteBuffer.wrap(frame);
+            buffer.position(4);
+            buffer.put(isLast ? DATA : FRAGMENT);
+            buffer.putInt(sequence);
+            buffer.put(data);
+
+            ByteBuffer.wrap(frame).putInt(checksum(frame));
+            return frame;
+        }
+    }
+}
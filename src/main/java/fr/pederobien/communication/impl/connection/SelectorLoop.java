@@ -0,0 +1,136 @@
+package fr.pederobien.communication.impl.connection;
+
+import java.io.IOException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+public class SelectorLoop {
+    private final Selector selector;
+    private final Queue<Runnable> tasks;
+    private final Thread thread;
+
+    /**
+     * Creates an event loop that waits for I/O events on the channels registered
+     * with it. All the registered channels are served by one single thread.
+     *
+     * @param name The name of the underlying thread.
+     */
+    public SelectorLoop(String name) throws IOException {
+        selector = Selector.open();
+        tasks = new ConcurrentLinkedQueue<Runnable>();
+
+        thread = new Thread(this::loop, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Register asynchronously the given channel to the underlying selector.
+     *
+     * @param channel      The non-blocking channel to register.
+     * @param interestOps  The interest set for the selection key.
+     * @param handler      The handler to call when the channel is ready for an I/O
+     *                     operation.
+     * @param onRegistered The code to execute, from the loop thread, once the
+     *                     channel is registered.
+     */
+    public void register(SelectableChannel channel, int interestOps, IHandler handler, Consumer<SelectionKey> onRegistered) {
+        execute(() -> {
+            try {
+                SelectionKey key = channel.register(selector, interestOps, handler);
+                onRegistered.accept(key);
+            } catch (IOException e) {
+                handler.onClosed();
+            }
+        });
+    }
+
+    /**
+     * Register asynchronously the given channel to the underlying selector.
+     *
+     * @param channel     The non-blocking channel to register.
+     * @param interestOps The interest set for the selection key.
+     * @param handler     The handler to call when the channel is ready for an I/O
+     *                    operation.
+     */
+    public void register(SelectableChannel channel, int interestOps, IHandler handler) {
+        register(channel, interestOps, handler, key -> {
+        });
+    }
+
+    /**
+     * Execute the given task in the loop thread. Selection keys must only be
+     * modified from the loop thread.
+     *
+     * @param task The code to execute.
+     */
+    public void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Close the underlying selector. The channels registered with this loop will
+     * not be served anymore.
+     */
+    public void dispose() {
+        try {
+            selector.close();
+        } catch (IOException e) {
+            // Do nothing
+        }
+    }
+
+    private void loop() {
+        while (selector.isOpen()) {
+            try {
+                selector.select();
+
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+
+                Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+
+                    IHandler handler = (IHandler) key.attachment();
+                    try {
+                        if (key.isValid()) {
+                            handler.onSelected(key);
+                        }
+                    } catch (Exception e) {
+                        key.cancel();
+                        handler.onClosed();
+                    }
+                }
+            } catch (Exception e) {
+                // Selector closed
+            }
+        }
+    }
+
+    public interface IHandler {
+
+        /**
+         * Method called from the loop thread when the channel is ready for at least
+         * one of the operations of its interest set.
+         *
+         * @param key The selection key of the channel.
+         */
+        void onSelected(SelectionKey key) throws IOException;
+
+        /**
+         * Method called from the loop thread when the channel cannot be served
+         * anymore.
+         */
+        void onClosed();
+    }
+}
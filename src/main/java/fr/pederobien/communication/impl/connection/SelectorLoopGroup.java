@@ -0,0 +1,59 @@
+package fr.pederobien.communication.impl.connection;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SelectorLoopGroup {
+    private static SelectorLoopGroup defaultGroup;
+
+    private final SelectorLoop[] loops;
+    private final AtomicInteger index;
+
+    /**
+     * Creates a group of event loops. Channels are distributed among the loops in
+     * a round-robin fashion.
+     *
+     * @param name The name of the group, used to name the loop threads.
+     * @param size The number of loops, ie the number of threads, of this group.
+     */
+    public SelectorLoopGroup(String name, int size) throws IOException {
+        loops = new SelectorLoop[size];
+        for (int i = 0; i < size; i++) {
+            loops[i] = new SelectorLoop(String.format("[%s selector %s]", name, i));
+        }
+
+        index = new AtomicInteger(0);
+    }
+
+    /**
+     * @return The group shared by default by all NIO clients and servers. It has
+     * one loop per available processor.
+     */
+    public static synchronized SelectorLoopGroup getDefault() {
+        if (defaultGroup == null) {
+            try {
+                defaultGroup = new SelectorLoopGroup("NIO", Runtime.getRuntime().availableProcessors());
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot open the default selectors", e);
+            }
+        }
+
+        return defaultGroup;
+    }
+
+    /**
+     * @return The loop to use for the next registered channel.
+     */
+    public SelectorLoop next() {
+        return loops[Math.floorMod(index.getAndIncrement(), loops.length)];
+    }
+
+    /**
+     * Close each loop of this group.
+     */
+    public void dispose() {
+        for (SelectorLoop loop : loops) {
+            loop.dispose();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package fr.pederobien.communication.impl.connection;
+
+import fr.pederobien.communication.interfaces.connection.IHeaderMessage;
+import fr.pederobien.communication.interfaces.layer.IBufferLayer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SendingBatch {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Maximum capacity of the buffer kept between two batches, a bigger buffer is
+     * released when the batch is cleared.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+    private final List<Integer> identifiers;
+    private ByteBuffer buffer;
+    private long creationTime;
+
+    /**
+     * Creates a batch to gather several packed messages in order to write them
+     * together to the remote.
+     */
+    public SendingBatch() {
+        identifiers = new ArrayList<Integer>();
+        buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Append the packed message to this batch.
+     *
+     * @param identifier The identifier of the message.
+     * @param data       The bytes of the packed message.
+     */
+    public void add(int identifier, byte[] data) {
+        start(identifier);
+
+        if (buffer.remaining() < data.length) {
+            int capacity = Math.max(buffer.position() + data.length, 2 * buffer.capacity());
+            buffer = ByteBuffer.allocate(capacity).put(buffer.flip());
+        }
+
+        buffer.put(data);
+    }
+
+    /**
+     * Pack the message directly at the end of this batch.
+     *
+     * @param identifier The identifier of the message.
+     * @param message    The message to pack.
+     * @param layer      The layer used to pack the message.
+     */
+    public void add(int identifier, IHeaderMessage message, IBufferLayer layer) throws Exception {
+        int position = buffer.position();
+
+        try {
+            buffer = layer.pack(message, buffer);
+        } catch (Exception e) {
+            // Removing the bytes of the message that could not be packed
+            buffer.position(position);
+            throw e;
+        }
+
+        start(identifier);
+    }
+
+    /**
+     * @return True if no message is waiting in this batch.
+     */
+    public boolean isEmpty() {
+        return identifiers.isEmpty();
+    }
+
+    /**
+     * @return The number of bytes waiting in this batch.
+     */
+    public int getLength() {
+        return buffer.position();
+    }
+
+    /**
+     * @return The time, in ms, since the first message of this batch has been
+     * added.
+     */
+    public long getAge() {
+        return identifiers.isEmpty() ? 0 : System.currentTimeMillis() - creationTime;
+    }
+
+    /**
+     * @return The identifiers of the messages of this batch, in the order they have
+     * been added.
+     */
+    public List<Integer> getIdentifiers() {
+        return identifiers;
+    }
+
+    /**
+     * @return The bytes of all the messages of this batch.
+     */
+    public byte[] get() {
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * Remove all the messages of this batch.
+     */
+    public void clear() {
+        identifiers.clear();
+
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+        } else {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Register the identifier of a message added to this batch.
+     *
+     * @param identifier The identifier of the message.
+     */
+    private void start(int identifier) {
+        if (identifiers.isEmpty()) {
+            creationTime = System.currentTimeMillis();
+        }
+
+        identifiers.add(identifier);
+    }
+}
@@ -0,0 +1,73 @@
+package fr.pederobien.communication.impl.connection;
+
+import fr.pederobien.communication.interfaces.connection.IHeaderMessage;
+import fr.pederobien.communication.interfaces.connection.IMessage;
+import fr.pederobien.communication.interfaces.connection.ISharedMessage;
+import fr.pederobien.communication.interfaces.layer.ILayer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class SharedMessage implements ISharedMessage {
+    private final IMessage message;
+    private final IHeaderMessage header;
+    private final Map<Object, byte[]> frames;
+
+    /**
+     * Creates a message to send to several remotes. As the identifier of a message
+     * is unique whatever the connection, the same header is sent to each remote
+     * and the bytes generated by a shareable layer are reused by all the
+     * connections whose layer has an equal share key.
+     *
+     * @param message The message to send.
+     */
+    public SharedMessage(IMessage message) {
+        this.message = message;
+
+        header = new HeaderMessage(0, message);
+        frames = new ConcurrentHashMap<Object, byte[]>();
+    }
+
+    @Override
+    public int getIdentifier() {
+        return header.getIdentifier();
+    }
+
+    @Override
+    public int getRequestID() {
+        return header.getRequestID();
+    }
+
+    @Override
+    public byte[] getBytes() {
+        return header.getBytes();
+    }
+
+    @Override
+    public IMessage getMessage() {
+        return message;
+    }
+
+    @Override
+    public byte[] pack(ILayer layer) throws Exception {
+        Object key = layer.getShareKey();
+        if (key == null) {
+            return layer.pack(header);
+        }
+
+        byte[] frame = frames.get(key);
+        if (frame == null) {
+            // Several connections may pack the message at the same time, the first frame is kept
+            frame = layer.pack(header);
+            byte[] previous = frames.putIfAbsent(key, frame);
+            frame = previous == null ? frame : previous;
+        }
+
+        return frame;
+    }
+
+    @Override
+    public String toString() {
+        return header.toString();
+    }
+}
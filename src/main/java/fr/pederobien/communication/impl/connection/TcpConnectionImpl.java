@@ -1,21 +1,40 @@
 package fr.pederobien.communication.impl.connection;
 
+import fr.pederobien.communication.interfaces.connection.IBufferPool;
 import fr.pederobien.communication.interfaces.connection.IConnectionImpl;
-import fr.pederobien.utils.ByteWrapper;
 
 import java.io.IOException;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 public class TcpConnectionImpl implements IConnectionImpl {
     private final Socket socket;
+    private final IBufferPool pool;
+    private final AdaptiveReadSize readSize;
 
     /**
      * Creates a connection specific for TCP protocol.
      *
      * @param socket The socket to use to send/receive data from the remote.
+     * @param pool   The pool that provides the buffers used to read data from the
+     *               remote. Data is read straight into the array backing a heap
+     *               buffer, a direct pool adds an intermediate copy.
      */
-    public TcpConnectionImpl(Socket socket) {
+    public TcpConnectionImpl(Socket socket, IBufferPool pool) {
         this.socket = socket;
+        this.pool = pool;
+
+        readSize = new AdaptiveReadSize();
+    }
+
+    /**
+     * Creates a connection specific for TCP protocol using the default buffer pool.
+     *
+     * @param socket The socket to use to send/receive data from the remote.
+     */
+    public TcpConnectionImpl(Socket socket) {
+        this(socket, BufferPool.getDefault());
     }
 
     @Override
@@ -26,13 +45,30 @@ public class TcpConnectionImpl implements IConnectionImpl {
 
     @Override
     public byte[] receive() throws Exception {
-        byte[] buffer = new byte[2048];
+        ByteBuffer buffer = pool.acquire(readSize.getSize());
 
         try {
-            int read = socket.getInputStream().read(buffer);
-            return ByteWrapper.wrap(buffer).extract(0, read);
+            // A direct buffer cannot be filled by the socket stream without an intermediate array
+            if (!buffer.hasArray()) {
+                byte[] chunk = new byte[readSize.getSize()];
+                int read = socket.getInputStream().read(chunk);
+                return read == -1 ? null : record(chunk, read);
+            }
+
+            // Reading straight into the array backing the pooled buffer
+            int read = socket.getInputStream().read(buffer.array(), buffer.arrayOffset(), buffer.capacity());
+
+            // Connection closed by the remote
+            if (read == -1) {
+                return null;
+            }
+
+            // Only one copy, with the exact number of bytes read
+            return record(Arrays.copyOfRange(buffer.array(), buffer.arrayOffset(), buffer.arrayOffset() + read), read);
         } catch (Exception e) {
             return null;
+        } finally {
+            pool.release(buffer);
         }
     }
 
@@ -50,4 +86,16 @@ public class TcpConnectionImpl implements IConnectionImpl {
             // Do nothing
         }
     }
+
+    /**
+     * Record the number of bytes read in order to adapt the size of the next read.
+     *
+     * @param data The array that contains the bytes read.
+     * @param read The number of bytes read.
+     * @return An array with the exact number of bytes read.
+     */
+    private byte[] record(byte[] data, int read) {
+        readSize.record(read);
+        return data.length == read ? data : Arrays.copyOf(data, read);
+    }
 }
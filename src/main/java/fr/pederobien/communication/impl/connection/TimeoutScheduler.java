@@ -0,0 +1,37 @@
+package fr.pederobien.communication.impl.connection;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class TimeoutScheduler {
+    private static final ScheduledThreadPoolExecutor EXECUTOR;
+
+    static {
+        EXECUTOR = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "[Timeout scheduler]");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Cancelled timeouts are removed immediately instead of waiting for their delay
+        EXECUTOR.setRemoveOnCancelPolicy(true);
+    }
+
+    private TimeoutScheduler() {
+        // Do nothing
+    }
+
+    /**
+     * Schedule the given task to be executed once the delay has elapsed. All the
+     * connections share the same timer thread, the task should be short and not
+     * blocking.
+     *
+     * @param task  The code to execute.
+     * @param delay The delay, in ms, before executing the task.
+     * @return The future to use to cancel the task.
+     */
+    public static ScheduledFuture<?> schedule(Runnable task, long delay) {
+        return EXECUTOR.schedule(task, delay, TimeUnit.MILLISECONDS);
+    }
+}
@@ -6,16 +6,14 @@ import fr.pederobien.communication.interfaces.IMessageHandler;
 import fr.pederobien.communication.interfaces.IToken;
 import fr.pederobien.communication.interfaces.connection.IConnection;
 import fr.pederobien.communication.interfaces.connection.IConnection.Mode;
+import fr.pederobien.communication.interfaces.connection.IConnectionListener;
 import fr.pederobien.communication.interfaces.connection.IMessage;
 import fr.pederobien.utils.Disposable;
 import fr.pederobien.utils.IDisposable;
-import fr.pederobien.utils.event.EventHandler;
-import fr.pederobien.utils.event.EventManager;
-import fr.pederobien.utils.event.IEventListener;
 
 import java.util.concurrent.Semaphore;
 
-public class Token implements IToken, IEventListener, IMessageHandler {
+public class Token implements IToken, IConnectionListener, IMessageHandler {
     private final IConnection connection;
     private final Mode mode;
     private final IDisposable disposable;
@@ -35,7 +33,7 @@ public class Token implements IToken, IEventListener, IMessageHandler {
         disposable = new Disposable();
         semaphore = new Semaphore(0);
 
-        EventManager.registerListener(this);
+        connection.addListener(this);
     }
 
     @Override
@@ -77,7 +75,7 @@ public class Token implements IToken, IEventListener, IMessageHandler {
             // Notifying listener
             notify(new MessageEvent(connection, -1, null));
 
-            EventManager.unregisterListener(this);
+            connection.removeListener(this);
         }
     }
 
@@ -90,12 +88,8 @@ public class Token implements IToken, IEventListener, IMessageHandler {
         notify(event);
     }
 
-    @EventHandler
-    private void onConnectionLostEvent(ConnectionLostEvent event) {
-        if (event.getConnection() != connection) {
-            return;
-        }
-
+    @Override
+    public void onLost(ConnectionLostEvent event) {
         notify(new MessageEvent(connection, -1, null));
     }
 
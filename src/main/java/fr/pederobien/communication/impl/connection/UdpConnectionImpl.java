@@ -2,9 +2,9 @@ package fr.pederobien.communication.impl.connection;
 
 import fr.pederobien.communication.interfaces.connection.IConnectionImpl;
 import fr.pederobien.communication.interfaces.connection.IUdpSocket;
-import fr.pederobien.utils.ByteWrapper;
 
 import java.net.DatagramPacket;
+import java.util.Arrays;
 
 public class UdpConnectionImpl implements IConnectionImpl {
     private final IUdpSocket socket;
@@ -32,7 +32,8 @@ public class UdpConnectionImpl implements IConnectionImpl {
             return null;
         }
 
-        return ByteWrapper.wrap(packet.getData()).extract(0, packet.getLength());
+        // The packet buffer may be reused by the socket, copying the received bytes
+        return Arrays.copyOfRange(packet.getData(), packet.getOffset(), packet.getOffset() + packet.getLength());
     }
 
     @Override
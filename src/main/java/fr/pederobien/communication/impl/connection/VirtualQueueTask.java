@@ -0,0 +1,82 @@
+package fr.pederobien.communication.impl.connection;
+
+import fr.pederobien.utils.Disposable;
+import fr.pederobien.utils.IDisposable;
+import fr.pederobien.utils.event.Logger;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+public class VirtualQueueTask<T> implements IQueueTask<T> {
+    private final String name;
+    private final Consumer<T> consumer;
+    private final BlockingQueue<T> queue;
+    private final IDisposable disposable;
+    private Thread thread;
+
+    /**
+     * Creates a queue whose elements are processed by a virtual thread. While the
+     * queue is empty, the virtual thread is unmounted and does not hold any OS
+     * thread.
+     *
+     * @param name     The name of the underlying thread.
+     * @param consumer The code to execute for each element added to the queue.
+     */
+    public VirtualQueueTask(String name, Consumer<T> consumer) {
+        this.name = name;
+        this.consumer = consumer;
+
+        queue = new LinkedBlockingQueue<T>();
+        disposable = new Disposable();
+    }
+
+    @Override
+    public void start() {
+        synchronized (queue) {
+            if (thread == null && !disposable.isDisposed()) {
+                thread = Thread.ofVirtual().name(name).start(this::process);
+            }
+        }
+    }
+
+    @Override
+    public void add(T element) {
+        if (!disposable.isDisposed()) {
+            queue.add(element);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (disposable.dispose()) {
+            synchronized (queue) {
+                if (thread != null) {
+                    thread.interrupt();
+                }
+            }
+
+            queue.clear();
+        }
+    }
+
+    /**
+     * Block until an element is added to the queue and process it.
+     */
+    private void process() {
+        try {
+            while (!disposable.isDisposed()) {
+                T element = queue.take();
+
+                // An exception must not stop the processing of the next elements
+                try {
+                    consumer.accept(element);
+                } catch (Exception e) {
+                    Logger.warning("%s - Unexpected error while processing element: %s", name, e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            // Queue disposed
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package fr.pederobien.communication.impl.keyexchange;
+
+import fr.pederobien.communication.impl.layer.AesGcmLayer;
+import fr.pederobien.communication.interfaces.IToken;
+import fr.pederobien.communication.interfaces.layer.ILayer;
+
+public class AesGcmKeyExchange {
+    private final IToken token;
+    private final SymmetricKeyExchange keyExchange;
+
+    /**
+     * Creates an AES-GCM key exchange. A size-bits AES secret key will be
+     * generated. Unlike the AES-CBC key exchange, no IV is exchanged as each
+     * message has its own nonce.
+     *
+     * @param token   The token to send/receive data from the remote.
+     * @param keySize This is an algorithm-specific metric, specified in number of
+     *                bits.
+     * @param timeout The maximum time, in ms, to wait for remote response during
+     *                the key exchange.
+     */
+    public AesGcmKeyExchange(IToken token, int keySize, int timeout) {
+        this.token = token;
+        keyExchange = new SymmetricKeyExchange(token, new AesKeyManager(keySize), timeout);
+    }
+
+    /**
+     * Perform the key exchange with the remote.
+     *
+     * @return An AES-GCM Layer if the key exchange succeed, null otherwise.
+     */
+    public ILayer exchange() {
+        if (!keyExchange.exchange()) {
+            return null;
+        }
+
+        return new AesGcmLayer(keyExchange.getRemoteKey(), token.getMode());
+    }
+}
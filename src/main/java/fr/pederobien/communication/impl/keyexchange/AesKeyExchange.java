@@ -1,14 +1,21 @@
 package fr.pederobien.communication.impl.keyexchange;
 
 import fr.pederobien.communication.impl.layer.AesLayer;
+import fr.pederobien.communication.impl.layer.Encapsulater;
 import fr.pederobien.communication.interfaces.IToken;
 import fr.pederobien.communication.interfaces.layer.ICertificate;
+import fr.pederobien.communication.interfaces.layer.IFramer;
 import fr.pederobien.communication.interfaces.layer.ILayer;
 
+import javax.crypto.SecretKey;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.function.Supplier;
+
 public class AesKeyExchange {
     private final ICertificate certificate;
     private final SymmetricKeyExchange keyExchange;
     private final IvParameterSpecExchange ivExchange;
+    private final Supplier<IFramer> framer;
 
     /**
      * Creates an AES key exchange. A size-bits AES secret key will be generated as
@@ -20,11 +27,43 @@ public class AesKeyExchange {
      *                    of bits.
      * @param timeout     The maximum time, in ms, to wait for remote response
      *                    during the key exchange.
+     * @param framer      Creates the framer of the AES layer.
      */
-    public AesKeyExchange(IToken token, ICertificate certificate, int keySize, int timeout) {
+    public AesKeyExchange(IToken token, ICertificate certificate, int keySize, int timeout, Supplier<IFramer> framer) {
         this.certificate = certificate;
+        this.framer = framer;
         keyExchange = new SymmetricKeyExchange(token, new AesKeyManager(keySize), timeout);
-        ivExchange = new IvParameterSpecExchange(token);
+        ivExchange = new IvParameterSpecExchange(token, timeout);
+    }
+
+    /**
+     * Creates an AES key exchange. A size-bits AES secret key will be generated as
+     * well as a 16 bytes IV. The messages of the AES layer are encapsulated within
+     * two delimiter words.
+     *
+     * @param token       The token to send/receive data from the remote.
+     * @param certificate To sign the data before AES encryption.
+     * @param keySize     This is an algorithm-specific metric, specified in number
+     *                    of bits.
+     * @param timeout     The maximum time, in ms, to wait for remote response
+     *                    during the key exchange.
+     */
+    public AesKeyExchange(IToken token, ICertificate certificate, int keySize, int timeout) {
+        this(token, certificate, keySize, timeout, () -> new Encapsulater("(~@=", "#.?)"));
+    }
+
+    /**
+     * @return The secret key shared with the remote once the exchange succeed.
+     */
+    public SecretKey getSecretKey() {
+        return keyExchange.getRemoteKey();
+    }
+
+    /**
+     * @return The IV shared with the remote once the exchange succeed.
+     */
+    public AlgorithmParameterSpec getIvParameterSpec() {
+        return ivExchange.getIvParameterSpec();
     }
 
     /**
@@ -37,6 +76,6 @@ public class AesKeyExchange {
             return null;
         }
 
-        return new AesLayer(certificate, keyExchange.getRemoteKey(), ivExchange.getIvParameterSpec());
+        return new AesLayer(certificate, keyExchange.getRemoteKey(), ivExchange.getIvParameterSpec(), framer.get());
     }
 }
@@ -46,16 +46,13 @@ public class AsymmetricKeyExchange extends Exchange {
             }
         });
 
-        // Adding delay to let the client be ready for next initialisation step
-        try {
-            Thread.sleep(500);
-        } catch (Exception e) {
-            // Do nothing
-        }
-
         return success;
     }
 
+    /**
+     * The client waits at most the timeout for the server to send its key, then the
+     * timeout for the server to acknowledge the answer.
+     */
     @Override
     protected boolean doClientToServerExchange() throws Exception {
         watchdog = Watchdog.create(() -> {
@@ -74,7 +71,7 @@ public class AsymmetricKeyExchange extends Exchange {
                 // Generating a new key to send
                 clientToServer_sendPublicKey(event.getIdentifier(), keyManager.generatePair().getEncoded());
             }
-        }, 10000);
+        }, 2 * timeout);
 
         return watchdog.start();
     }
@@ -86,6 +83,13 @@ public class AsymmetricKeyExchange extends Exchange {
         return keyManager.getPrivateKey();
     }
 
+    /**
+     * @return The public key sent to the remote.
+     */
+    public PublicKey getPublicKey() {
+        return keyManager.getPublicKey();
+    }
+
     /**
      * @return The public key received from the remote.
      */
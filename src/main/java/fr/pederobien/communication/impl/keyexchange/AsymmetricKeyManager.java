@@ -8,6 +8,7 @@ import java.util.function.Function;
 
 public abstract class AsymmetricKeyManager {
     private PrivateKey privateKey;
+    private PublicKey publicKey;
     private PublicKey remoteKey;
 
     /**
@@ -19,7 +20,7 @@ public abstract class AsymmetricKeyManager {
         KeyPair pair = getKeyGenerator().generateKeyPair();
 
         privateKey = pair.getPrivate();
-        return pair.getPublic();
+        return publicKey = pair.getPublic();
     }
 
     /**
@@ -39,6 +40,13 @@ public abstract class AsymmetricKeyManager {
         return privateKey;
     }
 
+    /**
+     * @return The public key sent to the remote.
+     */
+    public PublicKey getPublicKey() {
+        return publicKey;
+    }
+
     /**
      * @return The public key received from the remote.
      */
@@ -0,0 +1,64 @@
+package fr.pederobien.communication.impl.keyexchange;
+
+import fr.pederobien.communication.impl.layer.AesGcmLayer;
+import fr.pederobien.communication.interfaces.IToken;
+import fr.pederobien.communication.interfaces.connection.IConnection.Mode;
+import fr.pederobien.communication.interfaces.layer.ILayer;
+
+import javax.crypto.KeyAgreement;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+
+public class EcdhKeyExchange {
+    private static final byte[] LABEL = "fr.pederobien.communication ECDH AES-GCM".getBytes();
+    private final IToken token;
+    private final AsymmetricKeyExchange keyExchange;
+
+    /**
+     * Creates an elliptic-curve Diffie-Hellman key agreement over X25519. Each side
+     * sends an ephemeral public key, both sides derive the same AES key from the
+     * shared secret. Unlike the RSA then AES key exchange, the AES key is never
+     * sent to the remote.
+     *
+     * @param token   The token to perform key exchange.
+     * @param timeout The maximum time, in ms, to wait for remote response during
+     *                the key exchange.
+     */
+    public EcdhKeyExchange(IToken token, int timeout) {
+        this.token = token;
+        keyExchange = new AsymmetricKeyExchange(token, new X25519KeyManager(), timeout);
+    }
+
+    /**
+     * Perform the key agreement with the remote.
+     *
+     * @return An AES-GCM layer if the key agreement succeed, null otherwise.
+     */
+    public ILayer exchange() {
+        if (!keyExchange.exchange()) {
+            return null;
+        }
+
+        try {
+            KeyAgreement agreement = KeyAgreement.getInstance("X25519");
+            agreement.init(keyExchange.getPrivateKey());
+            agreement.doPhase(keyExchange.getRemoteKey(), true);
+
+            // Both public keys, in the same order on both sides, bind the key to this exchange
+            boolean isClient = token.getMode() == Mode.CLIENT_TO_SERVER;
+            PublicKey client = isClient ? keyExchange.getPublicKey() : keyExchange.getRemoteKey();
+            PublicKey server = isClient ? keyExchange.getRemoteKey() : keyExchange.getPublicKey();
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(LABEL);
+            digest.update(agreement.generateSecret());
+            digest.update(client.getEncoded());
+            digest.update(server.getEncoded());
+
+            return new AesGcmLayer(new SecretKeySpec(digest.digest(), "AES"), token.getMode());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
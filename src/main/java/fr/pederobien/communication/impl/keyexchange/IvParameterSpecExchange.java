@@ -11,6 +11,7 @@ import java.security.spec.AlgorithmParameterSpec;
 import java.util.Arrays;
 
 public class IvParameterSpecExchange extends Exchange {
+    private final int timeout;
     private AlgorithmParameterSpec ivParameterSpec;
     private boolean success;
     private WatchdogStakeholder watchdog;
@@ -18,14 +19,27 @@ public class IvParameterSpecExchange extends Exchange {
     /**
      * Creates an IV exchange for symmetric encoding/decoding.
      *
-     * @param token The token used to send/receive data from the remote.
+     * @param token   The token used to send/receive data from the remote.
+     * @param timeout The maximum time, in ms, to wait for remote response during
+     *                the IV exchange.
      */
-    public IvParameterSpecExchange(IToken token) {
+    public IvParameterSpecExchange(IToken token, int timeout) {
         super(token);
+        this.timeout = timeout;
 
         success = false;
     }
 
+    /**
+     * Creates an IV exchange for symmetric encoding/decoding. The maximum time to
+     * wait for remote response is 2000 ms.
+     *
+     * @param token The token used to send/receive data from the remote.
+     */
+    public IvParameterSpecExchange(IToken token) {
+        this(token, 2000);
+    }
+
     /**
      * @return The IV parameter spec shared between the client and the server.
      */
@@ -40,7 +54,7 @@ public class IvParameterSpecExchange extends Exchange {
         SecureRandom random = new SecureRandom();
         random.nextBytes(iv);
 
-        send(iv, 2000, args -> {
+        send(iv, timeout, args -> {
             if (!args.isTimeout()) {
 
                 // Step 2: Receiving remote parameter specification
@@ -55,6 +69,10 @@ public class IvParameterSpecExchange extends Exchange {
         return success;
     }
 
+    /**
+     * The client waits at most the timeout for the server to send the IV, then the
+     * timeout for the server to acknowledge the answer.
+     */
     @Override
     protected boolean doClientToServerExchange() throws Exception {
         watchdog = Watchdog.create(() -> {
@@ -72,12 +90,12 @@ public class IvParameterSpecExchange extends Exchange {
                     clientToServer_sendBackSecretKey(event.getIdentifier(), event.getData());
                 }
             }
-        }, 10000);
+        }, 2 * timeout);
         return watchdog.start();
     }
 
     private void serverToClient_sendPositiveAcknowledgement(int identifier, byte[] iv) {
-        answer(identifier, SUCCESS_PATTERN, 2000, args -> {
+        answer(identifier, SUCCESS_PATTERN, timeout, args -> {
             if (!args.isTimeout()) {
 
                 if (Arrays.equals(SUCCESS_PATTERN, args.response())) {
@@ -89,7 +107,7 @@ public class IvParameterSpecExchange extends Exchange {
     }
 
     private void clientToServer_sendBackSecretKey(int identifier, byte[] iv) {
-        answer(identifier, iv, 2000, args -> {
+        answer(identifier, iv, timeout, args -> {
             if (!args.isTimeout()) {
                 if (Arrays.equals(SUCCESS_PATTERN, args.response())) {
                     answer(args.identifier(), SUCCESS_PATTERN);
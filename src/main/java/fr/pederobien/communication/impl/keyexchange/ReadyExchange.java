@@ -0,0 +1,85 @@
+package fr.pederobien.communication.impl.keyexchange;
+
+import fr.pederobien.communication.event.MessageEvent;
+import fr.pederobien.communication.interfaces.IToken;
+import fr.pederobien.utils.Watchdog;
+import fr.pederobien.utils.Watchdog.WatchdogStakeholder;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class ReadyExchange extends Exchange {
+    private static final byte[] READY_PATTERN = "READY_PATTERN".getBytes();
+    private static final int ATTEMPTS = 10;
+    private final byte[] ready;
+    private final int timeout;
+    private boolean success;
+    private WatchdogStakeholder watchdog;
+
+    /**
+     * Creates a barrier to perform once both sides have changed their layer. The
+     * client sends a ready message with its new layer, the server answers once it
+     * has been able to read it with its own new layer. Neither side has then to
+     * wait an arbitrary delay before using the new layer.
+     *
+     * @param token   The token used to send/receive data from the remote.
+     * @param step    The index of the initialisation step after which the barrier
+     *                is performed, so that a late ready message of a previous step
+     *                is ignored.
+     * @param timeout The maximum time, in ms, to wait for the remote to be ready.
+     */
+    public ReadyExchange(IToken token, int step, int timeout) {
+        super(token);
+        this.timeout = timeout;
+
+        ready = ByteBuffer.allocate(READY_PATTERN.length + 4).put(READY_PATTERN).putInt(step).array();
+        success = false;
+    }
+
+    @Override
+    protected boolean doServerToClientExchange() throws Exception {
+        watchdog = Watchdog.create(() -> {
+            while (!success) {
+
+                // Waiting for the client to use its new layer
+                MessageEvent event = receive();
+
+                // Connection with the remote has been lost
+                if (event.getData() == null) {
+                    watchdog.cancel();
+                    return;
+                }
+
+                // The message has been read with the new layer
+                if (Arrays.equals(ready, event.getData())) {
+                    answer(event.getIdentifier(), ready);
+                    success = true;
+                }
+            }
+        }, timeout);
+
+        return watchdog.start() && success;
+    }
+
+    @Override
+    protected boolean doClientToServerExchange() throws Exception {
+        // The first ready message may reach the server before it changes its layer
+        for (int i = 0; (i < ATTEMPTS) && !success; i++) {
+            boolean[] isConnectionLost = new boolean[1];
+
+            send(ready, Math.max(1, timeout / ATTEMPTS), args -> {
+                if (!args.isTimeout()) {
+                    success = Arrays.equals(ready, args.response());
+                } else {
+                    isConnectionLost[0] = args.isConnectionLost();
+                }
+            });
+
+            if (isConnectionLost[0]) {
+                return false;
+            }
+        }
+
+        return success;
+    }
+}
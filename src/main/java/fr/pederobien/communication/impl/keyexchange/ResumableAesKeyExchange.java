@@ -0,0 +1,147 @@
+package fr.pederobien.communication.impl.keyexchange;
+
+import fr.pederobien.communication.impl.keyexchange.SessionCache.Session;
+import fr.pederobien.communication.impl.layer.AesLayer;
+import fr.pederobien.communication.impl.layer.CertifiedLayer;
+import fr.pederobien.communication.interfaces.IToken;
+import fr.pederobien.communication.interfaces.layer.ICertificate;
+import fr.pederobien.communication.interfaces.layer.IFramer;
+import fr.pederobien.communication.interfaces.layer.ILayer;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+import java.util.function.Supplier;
+
+public class ResumableAesKeyExchange {
+    private final ICertificate certificate;
+    private final int rsaKeySize;
+    private final int aesKeySize;
+    private final int timeout;
+    private final Supplier<IFramer> framer;
+    private final SessionCache cache;
+    private final ILayer initialisation;
+    private ILayer layer;
+    private SecretKey secretKey;
+    private byte[] iv;
+    private long expiration;
+    private boolean isResumed;
+
+    /**
+     * Creates the steps of a safe AES key exchange that can be skipped when the
+     * client presents the ticket of a previous session. Otherwise, an RSA key
+     * exchange is performed in order to securely perform an AES key exchange.
+     * Finally, the server issues a new ticket to the client. An object must be
+     * created for each connection, the cache is shared by all connections.
+     *
+     * @param certificate The certificate to sign/authenticate the data during the
+     *                    key exchange and before performing the AES encryption.
+     * @param rsaKeySize  This is an algorithm-specific metric, such as modulus
+     *                    length, specified in number of bits.
+     * @param aesKeySize  This is an algorithm-specific metric, specified in number
+     *                    of bits.
+     * @param timeout     The maximum time, in ms, to wait for remote response
+     *                    during the key exchange.
+     * @param framer      Creates the framer of the AES layer.
+     * @param cache       The cache in which sessions are stored.
+     */
+    public ResumableAesKeyExchange(ICertificate certificate, int rsaKeySize, int aesKeySize, int timeout,
+            Supplier<IFramer> framer, SessionCache cache) {
+        this.certificate = certificate;
+        this.rsaKeySize = rsaKeySize;
+        this.aesKeySize = aesKeySize;
+        this.timeout = timeout;
+        this.framer = framer;
+        this.cache = cache;
+
+        initialisation = new CertifiedLayer(certificate);
+        layer = initialisation;
+    }
+
+    /**
+     * @return The layer to use before the first step.
+     */
+    public ILayer getInitialisationLayer() {
+        return initialisation;
+    }
+
+    /**
+     * @return True if the last initialisation resumed a previous session.
+     */
+    public boolean isResumed() {
+        return isResumed;
+    }
+
+    /**
+     * First step: the client presents its ticket, if any.
+     *
+     * @param token The token to perform the exchange.
+     * @return An AES layer if the session has been resumed, the initialisation
+     * layer if a full key exchange is needed, null if the exchange failed.
+     */
+    public ILayer resume(IToken token) {
+        ResumptionExchange exchange = new ResumptionExchange(token, cache, timeout);
+        if (!exchange.exchange()) {
+            return null;
+        }
+
+        Session session = exchange.getSession();
+        if (session != null) {
+            secretKey = session.secretKey();
+            iv = exchange.getIv();
+            expiration = session.expiration();
+            layer = new AesLayer(certificate, secretKey, new IvParameterSpec(iv), framer.get());
+            isResumed = true;
+        }
+
+        return layer;
+    }
+
+    /**
+     * Second step: RSA key exchange, skipped if the session has been resumed.
+     *
+     * @param token The token to perform the exchange.
+     * @return The layer to use for the next step, null if the exchange failed.
+     */
+    public ILayer exchangeRsaKey(IToken token) {
+        if (!isResumed) {
+            layer = new RsaKeyExchange(token, rsaKeySize, timeout).exchange();
+        }
+
+        return layer;
+    }
+
+    /**
+     * Third step: AES key exchange, skipped if the session has been resumed.
+     *
+     * @param token The token to perform the exchange.
+     * @return The layer to use for the next step, null if the exchange failed.
+     */
+    public ILayer exchangeAesKey(IToken token) {
+        if (!isResumed) {
+            AesKeyExchange exchange = new AesKeyExchange(token, certificate, aesKeySize, timeout, framer);
+            layer = exchange.exchange();
+
+            if (layer != null) {
+                secretKey = exchange.getSecretKey();
+                iv = ((IvParameterSpec) exchange.getIvParameterSpec()).getIV();
+            }
+        }
+
+        return layer;
+    }
+
+    /**
+     * Last step: the server issues a ticket for the next connection of the client.
+     * The ticket of a resumed session expires with the session in which the key
+     * has been negotiated, the key is then eventually renewed. A failure does not
+     * prevent the connection to be used, the client will just perform a full key
+     * exchange when reconnecting.
+     *
+     * @param token The token to perform the exchange.
+     * @return The AES layer.
+     */
+    public ILayer issueTicket(IToken token) {
+        new TicketExchange(token, cache, secretKey, iv, expiration, timeout).exchange();
+        return layer;
+    }
+}
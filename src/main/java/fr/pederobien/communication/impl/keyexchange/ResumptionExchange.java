@@ -0,0 +1,104 @@
+package fr.pederobien.communication.impl.keyexchange;
+
+import fr.pederobien.communication.event.MessageEvent;
+import fr.pederobien.communication.impl.keyexchange.SessionCache.Session;
+import fr.pederobien.communication.interfaces.IToken;
+import fr.pederobien.utils.Watchdog;
+import fr.pederobien.utils.Watchdog.WatchdogStakeholder;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+public class ResumptionExchange extends Exchange {
+    private static final byte[] NO_TICKET_PATTERN = "NO_TICKET_PATTERN".getBytes();
+    private static final byte[] RESUME_PATTERN = "RESUME_PATTERN".getBytes();
+    private final SessionCache cache;
+    private final int timeout;
+    private Session session;
+    private byte[] iv;
+    private WatchdogStakeholder watchdog;
+
+    /**
+     * Creates an exchange in which the client presents the ticket of a previous
+     * session. If the server still knows the ticket, both sides restore the secret
+     * key of the session in one round trip. The server generates a new IV so that
+     * the resumed session does not encrypt with the same key and IV as the
+     * previous one.
+     *
+     * @param token   The token used to send/receive data from the remote.
+     * @param cache   The cache in which sessions are stored.
+     * @param timeout The maximum time, in ms, to wait for remote response.
+     */
+    public ResumptionExchange(IToken token, SessionCache cache, int timeout) {
+        super(token);
+        this.cache = cache;
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return The resumed session, or null if the session has not been resumed.
+     */
+    public Session getSession() {
+        return session;
+    }
+
+    /**
+     * @return The IV to use for the resumed session.
+     */
+    public byte[] getIv() {
+        return iv;
+    }
+
+    @Override
+    protected boolean doServerToClientExchange() throws Exception {
+        watchdog = Watchdog.create(() -> {
+
+            // Waiting for the client ticket
+            MessageEvent event = receive();
+
+            // Connection with the remote has been lost
+            if (event.getData() == null) {
+                watchdog.cancel();
+                return;
+            }
+
+            Session resumed = Arrays.equals(NO_TICKET_PATTERN, event.getData()) ? null : cache.resume(event.getData());
+            if (resumed == null) {
+                answer(event.getIdentifier(), NO_TICKET_PATTERN);
+                return;
+            }
+
+            iv = new byte[resumed.iv().length];
+            new SecureRandom().nextBytes(iv);
+
+            answer(event.getIdentifier(), ByteBuffer.allocate(RESUME_PATTERN.length + iv.length).put(RESUME_PATTERN).put(iv).array());
+            session = resumed;
+        }, timeout);
+
+        return watchdog.start();
+    }
+
+    @Override
+    protected boolean doClientToServerExchange() throws Exception {
+        Session resumed = cache.take();
+        boolean[] isAnswered = new boolean[1];
+
+        send(resumed == null ? NO_TICKET_PATTERN : resumed.ticket(), timeout, args -> {
+            if (args.isTimeout()) {
+                return;
+            }
+
+            isAnswered[0] = true;
+
+            byte[] response = args.response();
+            if (resumed != null && response.length > RESUME_PATTERN.length
+                    && Arrays.equals(RESUME_PATTERN, 0, RESUME_PATTERN.length, response, 0, RESUME_PATTERN.length)) {
+                iv = Arrays.copyOfRange(response, RESUME_PATTERN.length, response.length);
+                session = resumed;
+            }
+        });
+
+        return isAnswered[0];
+    }
+}
@@ -4,8 +4,13 @@ import fr.pederobien.communication.impl.layer.RsaLayer;
 import fr.pederobien.communication.interfaces.IToken;
 import fr.pederobien.communication.interfaces.layer.ILayer;
 
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.function.BiFunction;
+
 public class RsaKeyExchange {
     private final AsymmetricKeyExchange keyExchange;
+    private final BiFunction<PrivateKey, PublicKey, ILayer> layer;
 
     /**
      * Creates a key exchange associated to the RSA algorithm.
@@ -15,9 +20,25 @@ public class RsaKeyExchange {
      *                specified in number of bits.
      * @param timeout The maximum time, in ms, to wait for remote response during the
      *                key exchange.
+     * @param layer   Creates the layer from the local private key and the remote
+     *                public key once the exchange succeed.
      */
-    public RsaKeyExchange(IToken token, int keySize, int timeout) {
+    public RsaKeyExchange(IToken token, int keySize, int timeout, BiFunction<PrivateKey, PublicKey, ILayer> layer) {
         keyExchange = new AsymmetricKeyExchange(token, new RsaKeyManager(keySize), timeout);
+        this.layer = layer;
+    }
+
+    /**
+     * Creates a key exchange associated to the RSA algorithm.
+     *
+     * @param token   The token to perform key exchange.
+     * @param keySize This is an algorithm-specific metric, such as modulus length,
+     *                specified in number of bits.
+     * @param timeout The maximum time, in ms, to wait for remote response during the
+     *                key exchange.
+     */
+    public RsaKeyExchange(IToken token, int keySize, int timeout) {
+        this(token, keySize, timeout, RsaLayer::new);
     }
 
     /**
@@ -30,6 +51,6 @@ public class RsaKeyExchange {
             return null;
         }
 
-        return new RsaLayer(keyExchange.getPrivateKey(), keyExchange.getRemoteKey());
+        return layer.apply(keyExchange.getPrivateKey(), keyExchange.getRemoteKey());
     }
 }
@@ -0,0 +1,165 @@
+package fr.pederobien.communication.impl.keyexchange;
+
+import javax.crypto.SecretKey;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class SessionCache {
+    private static final int TICKET_LENGTH = 32;
+    private final int maxSize;
+    private final long ttl;
+    private final LinkedHashMap<String, Session> sessions;
+    private final SecureRandom random;
+
+    /**
+     * Creates a cache of sessions that can be resumed without performing the whole
+     * key exchange again. On server side, it stores the sessions associated to the
+     * tickets issued to the clients. On client side, it stores the tickets issued
+     * by the server, the same cache must then be shared by all the connections to
+     * the same server.
+     *
+     * @param maxSize The maximum number of sessions, the oldest session is evicted
+     *                when a new session is added.
+     * @param ttl     The time, in ms, during which a session can be resumed.
+     */
+    public SessionCache(int maxSize, long ttl) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+
+        sessions = new LinkedHashMap<String, Session>();
+        random = new SecureRandom();
+    }
+
+    /**
+     * Creates a cache of at most 1000 sessions that can be resumed during 10
+     * minutes.
+     */
+    public SessionCache() {
+        this(1000, 10 * 60 * 1000);
+    }
+
+    /**
+     * Server side, creates a new session with a random ticket to send to the
+     * client.
+     *
+     * @param secretKey The secret key negotiated with the client.
+     * @param iv        The IV negotiated with the client.
+     * @return The created session.
+     */
+    public synchronized Session issue(SecretKey secretKey, byte[] iv) {
+        return issue(secretKey, iv, System.currentTimeMillis() + ttl);
+    }
+
+    /**
+     * Server side, creates a new session with a random ticket to send to the
+     * client, for a secret key negotiated during a previous session. The new
+     * session expires when the previous session would have expired, so that the
+     * client eventually performs a full key exchange.
+     *
+     * @param secretKey  The secret key negotiated with the client.
+     * @param iv         The IV negotiated with the client.
+     * @param expiration The time after which the session cannot be resumed.
+     * @return The created session.
+     */
+    public synchronized Session issue(SecretKey secretKey, byte[] iv, long expiration) {
+        byte[] ticket = new byte[TICKET_LENGTH];
+        random.nextBytes(ticket);
+
+        Session session = new Session(ticket, secretKey, iv, expiration);
+        put(session);
+        return session;
+    }
+
+    /**
+     * Server side, removes the session associated to the given ticket. A ticket can
+     * then be used only once.
+     *
+     * @param ticket The ticket sent by the client.
+     * @return The session associated to the ticket, or null if no session is
+     * associated to the ticket or if the session has expired.
+     */
+    public synchronized Session resume(byte[] ticket) {
+        evictExpired();
+
+        Session session = sessions.remove(HexFormat.of().formatHex(ticket));
+        return isExpired(session) ? null : session;
+    }
+
+    /**
+     * Client side, stores the ticket issued by the server.
+     *
+     * @param ticket    The ticket issued by the server.
+     * @param secretKey The secret key negotiated with the server.
+     * @param iv        The IV negotiated with the server.
+     */
+    public synchronized void store(byte[] ticket, SecretKey secretKey, byte[] iv) {
+        put(new Session(ticket, secretKey, iv, System.currentTimeMillis() + ttl));
+    }
+
+    /**
+     * Client side, removes the most recent session. A ticket can then be used only
+     * once.
+     *
+     * @return The most recent session, or null if no session can be resumed.
+     */
+    public synchronized Session take() {
+        evictExpired();
+
+        Map.Entry<String, Session> entry = sessions.pollLastEntry();
+        return entry == null || isExpired(entry.getValue()) ? null : entry.getValue();
+    }
+
+    /**
+     * @return The number of sessions that can be resumed.
+     */
+    public synchronized int size() {
+        evictExpired();
+        return sessions.size();
+    }
+
+    /**
+     * Add the given session to this cache and evict the oldest sessions if the
+     * maximum size is exceeded.
+     *
+     * @param session The session to add.
+     */
+    private void put(Session session) {
+        evictExpired();
+
+        sessions.put(HexFormat.of().formatHex(session.ticket()), session);
+        while (sessions.size() > maxSize) {
+            sessions.pollFirstEntry();
+        }
+    }
+
+    /**
+     * Remove the sessions that cannot be resumed anymore.
+     */
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+
+        // Re-issued sessions keep their original expiration, sessions are then not sorted by expiration
+        sessions.values().removeIf(session -> session.expiration() <= now);
+    }
+
+    /**
+     * @param session The session to check, may be null.
+     * @return True if the session is not null and cannot be resumed anymore.
+     */
+    private boolean isExpired(Session session) {
+        return session != null && session.expiration() <= System.currentTimeMillis();
+    }
+
+    /**
+     * A session that can be resumed.
+     *
+     * @param ticket     The ticket identifying the session.
+     * @param secretKey  The secret key negotiated during the key exchange.
+     * @param iv         The IV negotiated during the key exchange.
+     * @param expiration The time after which the session cannot be resumed.
+     */
+    public record Session(byte[] ticket, SecretKey secretKey, byte[] iv, long expiration) {
+    }
+}
@@ -52,16 +52,13 @@ public class SymmetricKeyExchange extends Exchange {
             }
         });
 
-        // Adding delay to let the client be ready for next initialisation step
-        try {
-            Thread.sleep(500);
-        } catch (Exception e) {
-            // Do nothing
-        }
-
         return success;
     }
 
+    /**
+     * The client waits at most the timeout for the server to send its key, then the
+     * timeout for the server to acknowledge the answer.
+     */
     @Override
     protected boolean doClientToServerExchange() throws Exception {
         watchdog = Watchdog.create(() -> {
@@ -80,7 +77,7 @@ public class SymmetricKeyExchange extends Exchange {
                 // Sending back the remote secret key
                 clientToServer_sendBackSecretKey(event.getIdentifier(), event.getData());
             }
-        }, 10000);
+        }, 2 * timeout);
         return watchdog.start();
     }
 
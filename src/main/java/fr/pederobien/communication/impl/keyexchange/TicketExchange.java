@@ -0,0 +1,92 @@
+package fr.pederobien.communication.impl.keyexchange;
+
+import fr.pederobien.communication.event.MessageEvent;
+import fr.pederobien.communication.impl.keyexchange.SessionCache.Session;
+import fr.pederobien.communication.interfaces.IToken;
+import fr.pederobien.utils.Watchdog;
+import fr.pederobien.utils.Watchdog.WatchdogStakeholder;
+
+import javax.crypto.SecretKey;
+import java.util.Arrays;
+
+public class TicketExchange extends Exchange {
+    private final SessionCache cache;
+    private final SecretKey secretKey;
+    private final byte[] iv;
+    private final long expiration;
+    private final int timeout;
+    private boolean success;
+    private WatchdogStakeholder watchdog;
+
+    /**
+     * Creates an exchange in which the server issues a ticket to the client. The
+     * client presents the ticket when reconnecting in order to resume the session.
+     *
+     * @param token      The token used to send/receive data from the remote.
+     * @param cache      The cache in which sessions are stored.
+     * @param secretKey  The secret key negotiated for this session.
+     * @param iv         The IV negotiated for this session.
+     * @param expiration The time after which the session cannot be resumed, or 0
+     *                   if the secret key has just been negotiated.
+     * @param timeout    The maximum time, in ms, to wait for remote response.
+     */
+    public TicketExchange(IToken token, SessionCache cache, SecretKey secretKey, byte[] iv, long expiration, int timeout) {
+        super(token);
+        this.cache = cache;
+        this.secretKey = secretKey;
+        this.iv = iv;
+        this.expiration = expiration;
+        this.timeout = timeout;
+
+        success = false;
+    }
+
+    /**
+     * Creates an exchange in which the server issues a ticket to the client for a
+     * secret key that has just been negotiated.
+     *
+     * @param token     The token used to send/receive data from the remote.
+     * @param cache     The cache in which sessions are stored.
+     * @param secretKey The secret key negotiated for this session.
+     * @param iv        The IV negotiated for this session.
+     * @param timeout   The maximum time, in ms, to wait for remote response.
+     */
+    public TicketExchange(IToken token, SessionCache cache, SecretKey secretKey, byte[] iv, int timeout) {
+        this(token, cache, secretKey, iv, 0, timeout);
+    }
+
+    @Override
+    protected boolean doServerToClientExchange() throws Exception {
+        // A resumed session keeps the expiration of the session in which the key has been negotiated
+        Session session = expiration == 0 ? cache.issue(secretKey, iv) : cache.issue(secretKey, iv, expiration);
+
+        send(session.ticket(), timeout, args -> {
+            if (!args.isTimeout()) {
+                success = Arrays.equals(SUCCESS_PATTERN, args.response());
+            }
+        });
+
+        return success;
+    }
+
+    @Override
+    protected boolean doClientToServerExchange() throws Exception {
+        watchdog = Watchdog.create(() -> {
+
+            // Waiting for the ticket
+            MessageEvent event = receive();
+
+            // Connection with the remote has been lost
+            if (event.getData() == null) {
+                watchdog.cancel();
+                return;
+            }
+
+            cache.store(event.getData(), secretKey, iv);
+            answer(event.getIdentifier(), SUCCESS_PATTERN);
+            success = true;
+        }, 2 * timeout);
+
+        return watchdog.start() && success;
+    }
+}
@@ -0,0 +1,43 @@
+package fr.pederobien.communication.impl.keyexchange;
+
+import java.security.KeyFactory;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.function.Function;
+
+public class X25519KeyManager extends AsymmetricKeyManager {
+    private KeyPairGenerator keyGenerator;
+    private Function<byte[], PublicKey> keyParser;
+
+    /**
+     * Creates a key manager associated to the X25519 elliptic curve. Generating a
+     * key pair is much faster than with RSA.
+     */
+    public X25519KeyManager() {
+        try {
+            keyGenerator = KeyPairGenerator.getInstance("X25519");
+
+            keyParser = data -> {
+                try {
+                    return KeyFactory.getInstance("X25519").generatePublic(new X509EncodedKeySpec(data));
+                } catch (Exception e) {
+                    return null;
+                }
+            };
+        } catch (NoSuchAlgorithmException e) {
+            // Do nothing
+        }
+    }
+
+    @Override
+    protected KeyPairGenerator getKeyGenerator() {
+        return keyGenerator;
+    }
+
+    @Override
+    protected Function<byte[], PublicKey> getKeyParser() {
+        return keyParser;
+    }
+}
@@ -0,0 +1,153 @@
+package fr.pederobien.communication.impl.layer;
+
+import fr.pederobien.communication.interfaces.connection.IConnection.Mode;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AesGcmCipher {
+    private static final int NONCE_LENGTH = 12;
+    private static final int TAG_LENGTH = 128;
+
+    /**
+     * Number of counters, below the highest counter received, still accepted when
+     * the transport does not preserve the order of the messages.
+     */
+    private static final int REPLAY_WINDOW = 64;
+
+    private final SecretKey secretKey;
+    private final int localDirection;
+    private final AtomicLong counter;
+    private final Cipher encrypt;
+    private final Cipher decrypt;
+
+    // Guarded by decrypt
+    private long highestRemote;
+    private long receivedMask;
+
+    /**
+     * Creates a cipher for authenticated encryption with AES-GCM. Each message is
+     * encrypted with its own nonce: 4 bytes for the direction of the communication
+     * followed by an 8 bytes counter. Both sides share the same key but never the
+     * same nonce. A message whose counter has already been received, or is too
+     * old to be checked, is rejected so that a message cannot be replayed.
+     *
+     * @param secretKey The secret key shared with the remote.
+     * @param mode      The direction of the communication, used to avoid the
+     *                  remote to use the same nonces.
+     */
+    public AesGcmCipher(SecretKey secretKey, Mode mode) {
+        this.secretKey = secretKey;
+
+        localDirection = mode.ordinal() + 1;
+        counter = new AtomicLong(0);
+
+        try {
+            encrypt = Cipher.getInstance("AES/GCM/NoPadding");
+            decrypt = Cipher.getInstance("AES/GCM/NoPadding");
+        } catch (Exception e) {
+            throw new IllegalStateException("AES-GCM not supported", e);
+        }
+    }
+
+    /**
+     * Encrypt and authenticate the given bytes array.
+     *
+     * @param data The bytes array to encrypt.
+     * @return The nonce followed by the encrypted bytes and the authentication tag.
+     */
+    public byte[] encrypt(byte[] data) throws Exception {
+        long value = counter.incrementAndGet();
+        if (value == Long.MAX_VALUE) {
+            throw new IllegalStateException("No more nonce available for this key");
+        }
+
+        byte[] nonce = ByteBuffer.allocate(NONCE_LENGTH).putInt(localDirection).putLong(value).array();
+
+        synchronized (encrypt) {
+            encrypt.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(TAG_LENGTH, nonce));
+
+            byte[] output = new byte[NONCE_LENGTH + encrypt.getOutputSize(data.length)];
+            System.arraycopy(nonce, 0, output, 0, NONCE_LENGTH);
+            encrypt.doFinal(data, 0, data.length, output, NONCE_LENGTH);
+            return output;
+        }
+    }
+
+    /**
+     * Authenticate and decrypt the given bytes array.
+     *
+     * @param data The nonce followed by the encrypted bytes and the authentication
+     *             tag.
+     * @return The decrypted bytes array, or null if the data has been corrupted,
+     * reflected or replayed.
+     */
+    public byte[] decrypt(byte[] data) {
+        if (data.length < NONCE_LENGTH) {
+            return null;
+        }
+
+        ByteBuffer nonce = ByteBuffer.wrap(data, 0, NONCE_LENGTH);
+
+        // A message encrypted with the local direction has been reflected
+        if (nonce.getInt() == localDirection) {
+            return null;
+        }
+
+        long value = nonce.getLong();
+
+        try {
+            synchronized (decrypt) {
+                if (!isFresh(value)) {
+                    return null;
+                }
+
+                decrypt.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(TAG_LENGTH, data, 0, NONCE_LENGTH));
+                byte[] decrypted = decrypt.doFinal(data, NONCE_LENGTH, data.length - NONCE_LENGTH);
+
+                // Only an authenticated message can move the replay window
+                markReceived(value);
+                return decrypted;
+            }
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param value The counter of a message received from the remote.
+     * @return True if no message with this counter has been received yet and the
+     * counter is still in the replay window.
+     */
+    private boolean isFresh(long value) {
+        if (value <= 0) {
+            return false;
+        }
+
+        if (value > highestRemote) {
+            return true;
+        }
+
+        long offset = highestRemote - value;
+        return offset < REPLAY_WINDOW && (receivedMask & (1L << offset)) == 0;
+    }
+
+    /**
+     * Register the counter of an authenticated message received from the remote.
+     *
+     * @param value The counter of the message.
+     */
+    private void markReceived(long value) {
+        if (value > highestRemote) {
+            long shift = value - highestRemote;
+            receivedMask = shift < REPLAY_WINDOW ? receivedMask << shift : 0;
+            highestRemote = value;
+        }
+
+        // Bit i stands for the counter highestRemote - i
+        receivedMask |= 1L << (highestRemote - value);
+    }
+}
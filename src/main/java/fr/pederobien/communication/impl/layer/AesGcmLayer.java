@@ -0,0 +1,95 @@
+package fr.pederobien.communication.impl.layer;
+
+import fr.pederobien.communication.impl.connection.HeaderMessage;
+import fr.pederobien.communication.interfaces.connection.IConnection.Mode;
+import fr.pederobien.communication.interfaces.connection.IHeaderMessage;
+import fr.pederobien.communication.interfaces.layer.IFramer;
+import fr.pederobien.communication.interfaces.layer.ILayer;
+import fr.pederobien.utils.ByteWrapper;
+import fr.pederobien.utils.ReadableByteWrapper;
+
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AesGcmLayer implements ILayer {
+    private final AesGcmCipher cipher;
+    private final IFramer framer;
+
+    /**
+     * Creates an AES-GCM layer for authenticated symmetric encryption. One single
+     * pass ensures both confidentiality and integrity of a message, no certificate
+     * is needed. The unpacking of a message that cannot be authenticated, or
+     * that has already been received, fails.
+     *
+     * @param secretKey The secret key shared with the remote.
+     * @param mode      The direction of the communication.
+     * @param framer    The framer used to find the messages in the raw data. It
+     *                  must be binary safe.
+     */
+    public AesGcmLayer(SecretKey secretKey, Mode mode, IFramer framer) {
+        if (!framer.isBinarySafe()) {
+            throw new IllegalArgumentException("The framer of an AES-GCM layer must be binary safe");
+        }
+
+        this.framer = framer;
+
+        cipher = new AesGcmCipher(secretKey, mode);
+    }
+
+    /**
+     * Creates an AES-GCM layer for authenticated symmetric encryption. Each
+     * message is preceded by its length.
+     *
+     * @param secretKey The secret key shared with the remote.
+     * @param mode      The direction of the communication.
+     */
+    public AesGcmLayer(SecretKey secretKey, Mode mode) {
+        this(secretKey, mode, new LengthPrefixFramer());
+    }
+
+    @Override
+    public byte[] pack(IHeaderMessage message) throws Exception {
+        ByteWrapper wrapper = ByteWrapper.create();
+        wrapper.putInt(message.getIdentifier());
+        wrapper.putInt(message.getRequestID());
+        wrapper.put(message.getBytes());
+
+        return framer.pack(cipher.encrypt(wrapper.get()));
+    }
+
+    @Override
+    public List<IHeaderMessage> unpack(byte[] raw) throws Exception {
+        List<IHeaderMessage> requests = new ArrayList<IHeaderMessage>();
+
+        for (byte[] encrypted : framer.unpack(raw)) {
+            byte[] message = cipher.decrypt(encrypted);
+
+            // Message corrupted or replayed, notifying the connection to increment its unstable counter
+            if (message == null)
+                throw new GeneralSecurityException("Message authentication failed");
+
+            // Structure of a message:
+            // bytes 0 -> 3: ID
+            // bytes 4 -> 7: requestID
+            // byte 8 -> end: payload
+
+            ReadableByteWrapper wrapper = ReadableByteWrapper.wrap(message);
+
+            // bytes 0 -> 3: ID
+            int ID = wrapper.nextInt();
+
+            // bytes 4 -> 7: requestID
+            int requestID = wrapper.nextInt();
+
+            // byte 8 -> end: payload
+            byte[] payload = wrapper.next(-1);
+
+            // Creating a header message
+            requests.add(new HeaderMessage(ID, requestID, payload));
+        }
+
+        return requests;
+    }
+}
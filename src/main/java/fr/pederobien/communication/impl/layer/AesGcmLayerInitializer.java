@@ -0,0 +1,51 @@
+package fr.pederobien.communication.impl.layer;
+
+import fr.pederobien.communication.impl.keyexchange.AesGcmKeyExchange;
+import fr.pederobien.communication.impl.keyexchange.RsaKeyExchange;
+import fr.pederobien.communication.interfaces.layer.ICertificate;
+
+public class AesGcmLayerInitializer extends LayerInitializer {
+
+    /**
+     * Creates a safe AES-GCM key exchange. This initializer perform first an RSA
+     * key exchange in order to securely perform an AES key exchange. Once
+     * initialized, messages are encrypted and authenticated in one single pass.
+     *
+     * @param certificate The certificate to sign/authenticate the public key during
+     *                    RSA key exchange.
+     * @param rsaKeySize  This is an algorithm-specific metric, such as modulus
+     *                    length, specified in number of bits.
+     * @param aesKeySize  This is an algorithm-specific metric, specified in number
+     *                    of bits.
+     * @param timeout     The maximum time, in ms, to wait for remote response
+     *                    during the key exchange.
+     */
+    public AesGcmLayerInitializer(ICertificate certificate, int rsaKeySize, int aesKeySize, int timeout) {
+        super(timeout, new CertifiedLayer(certificate), token -> new RsaKeyExchange(token, rsaKeySize, timeout).exchange(),
+                token -> new AesGcmKeyExchange(token, aesKeySize, timeout).exchange());
+    }
+
+    /**
+     * Creates a safe AES-GCM key exchange. This initializer perform first an RSA
+     * key exchange in order to securely perform an AES key exchange (256 bits).
+     *
+     * @param certificate The certificate to sign/authenticate the public key during
+     *                    RSA key exchange.
+     * @param timeout     The maximum time, in ms, to wait for remote response
+     *                    during the key exchange.
+     */
+    public AesGcmLayerInitializer(ICertificate certificate, int timeout) {
+        this(certificate, 2048, 256, timeout);
+    }
+
+    /**
+     * Creates a safe AES-GCM key exchange. This initializer perform first an RSA
+     * key exchange in order to securely perform an AES key exchange (256 bits).
+     *
+     * @param certificate The certificate to sign/authenticate the public key during
+     *                    RSA key exchange.
+     */
+    public AesGcmLayerInitializer(ICertificate certificate) {
+        this(certificate, 2000);
+    }
+}
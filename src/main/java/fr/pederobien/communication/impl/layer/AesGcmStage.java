@@ -0,0 +1,41 @@
+package fr.pederobien.communication.impl.layer;
+
+import fr.pederobien.communication.interfaces.connection.IConnection.Mode;
+import fr.pederobien.communication.interfaces.layer.IStage;
+
+import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+
+public class AesGcmStage implements IStage {
+    private final AesGcmCipher cipher;
+
+    /**
+     * Creates a stage that encrypts and authenticates the data with AES-GCM. The
+     * unpacking of data that has been corrupted, reflected or replayed fails.
+     *
+     * @param secretKey The secret key shared with the remote.
+     * @param mode      The direction of the communication, used to avoid the
+     *                  remote to use the same nonces.
+     */
+    public AesGcmStage(SecretKey secretKey, Mode mode) {
+        cipher = new AesGcmCipher(secretKey, mode);
+    }
+
+    @Override
+    public void pack(ByteBuffer data, IOutput output) throws Exception {
+        output.accept(ByteBuffer.wrap(cipher.encrypt(LayerPipeline.toArray(data))));
+    }
+
+    @Override
+    public void unpack(ByteBuffer data, IOutput output) throws Exception {
+        byte[] decrypted = cipher.decrypt(LayerPipeline.toArray(data));
+
+        // Message corrupted or replayed, notifying the connection to increment its unstable counter
+        if (decrypted == null) {
+            throw new GeneralSecurityException("Message authentication failed");
+        }
+
+        output.accept(ByteBuffer.wrap(decrypted));
+    }
+}
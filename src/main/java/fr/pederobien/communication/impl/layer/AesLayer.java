@@ -2,6 +2,7 @@ package fr.pederobien.communication.impl.layer;
 
 import fr.pederobien.communication.interfaces.connection.IHeaderMessage;
 import fr.pederobien.communication.interfaces.layer.ICertificate;
+import fr.pederobien.communication.interfaces.layer.IFramer;
 import fr.pederobien.communication.interfaces.layer.ILayer;
 
 import javax.crypto.Cipher;
@@ -12,24 +13,51 @@ import java.util.List;
 
 public class AesLayer implements ILayer {
     private final CertifiedLayer certifiedLayer;
-    private final SecretKey secretKey;
-    private final AlgorithmParameterSpec parameterSpec;
+    private final boolean isBinarySafe;
+    private final Cipher encrypt;
+    private final Cipher decrypt;
 
     /**
-     * Creates an AES layer for symmetric encryption.
+     * Creates an AES layer for symmetric encryption. The ciphers are created and
+     * initialized once for all the messages.
      *
+     * @param certificate   The certificate to sign or authenticate a message.
      * @param secretKey     The secret key to encode/decode.
      * @param parameterSpec The IV parameter spec.
+     * @param framer        The framer used to find the messages in the raw data. If
+     *                      the framer is binary safe, the encrypted bytes are sent
+     *                      as is, otherwise they are encoded in Base64.
      */
-    public AesLayer(ICertificate certificate, SecretKey secretKey, AlgorithmParameterSpec parameterSpec) {
-        this.certifiedLayer = new CertifiedLayer(certificate);
-        this.secretKey = secretKey;
-        this.parameterSpec = parameterSpec;
+    public AesLayer(ICertificate certificate, SecretKey secretKey, AlgorithmParameterSpec parameterSpec, IFramer framer) {
+        this.certifiedLayer = new CertifiedLayer(certificate, framer);
+        this.isBinarySafe = framer.isBinarySafe();
+
+        try {
+            encrypt = Cipher.getInstance("AES/CBC/PKCS5Padding");
+            encrypt.init(Cipher.ENCRYPT_MODE, secretKey, parameterSpec);
+
+            decrypt = Cipher.getInstance("AES/CBC/PKCS5Padding");
+            decrypt.init(Cipher.DECRYPT_MODE, secretKey, parameterSpec);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid AES secret key or parameter spec", e);
+        }
 
         certifiedLayer.setPostSigning(this::cipher);
         certifiedLayer.setPreAuthentication(this::decipher);
     }
 
+    /**
+     * Creates an AES layer for symmetric encryption. Messages are encapsulated
+     * within two delimiter words and the encrypted bytes are encoded in Base64.
+     *
+     * @param certificate   The certificate to sign or authenticate a message.
+     * @param secretKey     The secret key to encode/decode.
+     * @param parameterSpec The IV parameter spec.
+     */
+    public AesLayer(ICertificate certificate, SecretKey secretKey, AlgorithmParameterSpec parameterSpec) {
+        this(certificate, secretKey, parameterSpec, new Encapsulater("(~@=", "#.?)"));
+    }
+
     @Override
     public byte[] pack(IHeaderMessage message) throws Exception {
         return certifiedLayer.pack(message);
@@ -41,32 +69,40 @@ public class AesLayer implements ILayer {
     }
 
     /**
-     * Encode the given bytes array using the public key of the remote.
+     * Encode the given bytes array using the secret key.
      *
      * @param data The bytes array to encode.
      * @return A bytes array corresponding to the encoded result.
      */
     private byte[] cipher(byte[] data) {
         try {
-            Cipher encrypt = Cipher.getInstance("AES/CBC/PKCS5Padding");
-            encrypt.init(Cipher.ENCRYPT_MODE, secretKey, parameterSpec);
-            return Base64.getEncoder().encode(encrypt.doFinal(data));
+            byte[] encrypted;
+
+            // A cipher is reset to its initialized state after doFinal
+            synchronized (encrypt) {
+                encrypted = encrypt.doFinal(data);
+            }
+
+            return isBinarySafe ? encrypted : Base64.getEncoder().encode(encrypted);
         } catch (Exception e) {
             throw new IllegalArgumentException("Invalid data to be ciphered");
         }
     }
 
     /**
-     * Decode the given bytes array using the private key.
+     * Decode the given bytes array using the secret key.
      *
      * @param data The bytes array to decode.
      * @return A bytes array corresponding to the decoded result.
      */
     private byte[] decipher(byte[] data) {
         try {
-            Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
-            cipher.init(Cipher.DECRYPT_MODE, secretKey, parameterSpec);
-            return cipher.doFinal(Base64.getDecoder().decode(data));
+            byte[] encrypted = isBinarySafe ? data : Base64.getDecoder().decode(data);
+
+            // A cipher is reset to its initialized state after doFinal
+            synchronized (decrypt) {
+                return decrypt.doFinal(encrypted);
+            }
         } catch (Exception e) {
             throw new IllegalArgumentException("Invalid data to be deciphered");
         }
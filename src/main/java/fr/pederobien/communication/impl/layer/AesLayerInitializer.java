@@ -2,9 +2,30 @@ package fr.pederobien.communication.impl.layer;
 
 import fr.pederobien.communication.impl.keyexchange.AesKeyExchange;
 import fr.pederobien.communication.interfaces.layer.ICertificate;
+import fr.pederobien.communication.interfaces.layer.IFramer;
+
+import java.util.function.Supplier;
 
 public class AesLayerInitializer extends LayerInitializer {
 
+    /**
+     * Creates a layer initializer in order to perform secret key exchange before
+     * using an AES layer.
+     *
+     * @param certificate The certificate used to sign/authenticate the secret key
+     *                    received from the remote as well as the data to send to
+     *                    the remote.
+     * @param keySize     The size, in bits, of the AES key.
+     * @param timeout     The maximum time, in ms, to wait for remote response
+     *                    during the key exchange.
+     * @param framer      Creates the framer of the AES layer. With a binary safe
+     *                    framer, the encrypted bytes are not encoded in Base64.
+     */
+    public AesLayerInitializer(ICertificate certificate, int keySize, int timeout, Supplier<IFramer> framer) {
+        super(timeout, new CertifiedLayer(certificate),
+                token -> new AesKeyExchange(token, certificate, keySize, timeout, framer).exchange());
+    }
+
     /**
      * Creates a layer initializer in order to perform secret key exchange before
      * using an AES layer.
@@ -17,8 +38,7 @@ public class AesLayerInitializer extends LayerInitializer {
      *                    during the key exchange.
      */
     public AesLayerInitializer(ICertificate certificate, int keySize, int timeout) {
-        super(new CertifiedLayer(certificate),
-                token -> new AesKeyExchange(token, certificate, keySize, timeout).exchange());
+        this(certificate, keySize, timeout, () -> new Encapsulater("(~@=", "#.?)"));
     }
 
     /**
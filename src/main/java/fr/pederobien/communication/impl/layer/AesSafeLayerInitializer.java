@@ -1,11 +1,79 @@
 package fr.pederobien.communication.impl.layer;
 
 import fr.pederobien.communication.impl.keyexchange.AesKeyExchange;
+import fr.pederobien.communication.impl.keyexchange.ResumableAesKeyExchange;
 import fr.pederobien.communication.impl.keyexchange.RsaKeyExchange;
+import fr.pederobien.communication.impl.keyexchange.SessionCache;
 import fr.pederobien.communication.interfaces.layer.ICertificate;
+import fr.pederobien.communication.interfaces.layer.IFramer;
+
+import java.util.function.Supplier;
 
 public class AesSafeLayerInitializer extends LayerInitializer {
 
+    /**
+     * Creates a safe AES key exchange. This initializer perform first an RSA key
+     * exchange in order to securely perform an AES key exchange.
+     *
+     * @param certificate The sign/authenticate the public key during RSA key
+     *                    exchange and to sign/authenticate data before performing
+     *                    the AES encryption.
+     * @param rsaKeySize  This is an algorithm-specific metric, such as modulus
+     *                    length, specified in number of bits.
+     * @param aesKeySize  This is an algorithm-specific metric, specified in number
+     *                    of bits.
+     * @param timeout     The maximum time, in ms, to wait for remote response
+     *                    during the key exchange.
+     * @param framer      Creates the framer of the AES layer. With a binary safe
+     *                    framer, the encrypted bytes are not encoded in Base64.
+     */
+    public AesSafeLayerInitializer(ICertificate certificate, int rsaKeySize, int aesKeySize, int timeout, Supplier<IFramer> framer) {
+        super(timeout, new CertifiedLayer(certificate), token -> new RsaKeyExchange(token, rsaKeySize, timeout).exchange(),
+                token -> new AesKeyExchange(token, certificate, aesKeySize, timeout, framer).exchange());
+    }
+
+    /**
+     * Creates a safe AES key exchange that can be resumed. If the client presents
+     * the ticket of a previous session, the secret key of that session is restored
+     * in one round trip. Otherwise, this initializer performs first an RSA key
+     * exchange in order to securely perform an AES key exchange, then the server
+     * issues a ticket to the client.
+     *
+     * @param certificate The sign/authenticate the public key during RSA key
+     *                    exchange and to sign/authenticate data before performing
+     *                    the AES encryption.
+     * @param rsaKeySize  This is an algorithm-specific metric, such as modulus
+     *                    length, specified in number of bits.
+     * @param aesKeySize  This is an algorithm-specific metric, specified in number
+     *                    of bits.
+     * @param timeout     The maximum time, in ms, to wait for remote response
+     *                    during the key exchange.
+     * @param framer      Creates the framer of the AES layer. With a binary safe
+     *                    framer, the encrypted bytes are not encoded in Base64.
+     * @param cache       The cache in which sessions are stored, shared by all the
+     *                    connections of a server or all the connections of a
+     *                    client to the same server.
+     */
+    public AesSafeLayerInitializer(ICertificate certificate, int rsaKeySize, int aesKeySize, int timeout, Supplier<IFramer> framer, SessionCache cache) {
+        this(new ResumableAesKeyExchange(certificate, rsaKeySize, aesKeySize, timeout, framer, cache), timeout);
+    }
+
+    /**
+     * Creates a safe AES key exchange that can be resumed. If the client presents
+     * the ticket of a previous session, the secret key of that session is restored
+     * in one round trip.
+     *
+     * @param certificate The sign/authenticate the public key during RSA key
+     *                    exchange and to sign/authenticate data before performing
+     *                    the AES encryption.
+     * @param cache       The cache in which sessions are stored, shared by all the
+     *                    connections of a server or all the connections of a
+     *                    client to the same server.
+     */
+    public AesSafeLayerInitializer(ICertificate certificate, SessionCache cache) {
+        this(certificate, 2048, 128, 2000, () -> new Encapsulater("(~@=", "#.?)"), cache);
+    }
+
     /**
      * Creates a safe AES key exchange. This initializer perform first an RSA key
      * exchange in order to securely perform an AES key exchange.
@@ -21,8 +89,7 @@ public class AesSafeLayerInitializer extends LayerInitializer {
      *                    during the key exchange.
      */
     public AesSafeLayerInitializer(ICertificate certificate, int rsaKeySize, int aesKeySize, int timeout) {
-        super(new CertifiedLayer(certificate), token -> new RsaKeyExchange(token, rsaKeySize, timeout).exchange(),
-                token -> new AesKeyExchange(token, certificate, aesKeySize, timeout).exchange());
+        this(certificate, rsaKeySize, aesKeySize, timeout, () -> new Encapsulater("(~@=", "#.?)"));
     }
 
     /**
@@ -50,4 +117,17 @@ public class AesSafeLayerInitializer extends LayerInitializer {
     public AesSafeLayerInitializer(ICertificate certificate) {
         this(certificate, 2000);
     }
+
+    /**
+     * Creates a safe AES key exchange whose steps can be skipped if a previous
+     * session is resumed.
+     *
+     * @param exchange The steps of the key exchange.
+     * @param timeout  The maximum time, in ms, to wait for the remote to use the
+     *                 layer returned by a step.
+     */
+    private AesSafeLayerInitializer(ResumableAesKeyExchange exchange, int timeout) {
+        super(timeout, exchange.getInitialisationLayer(), exchange::resume, exchange::exchangeRsaKey,
+                exchange::exchangeAesKey, exchange::issueTicket);
+    }
 }
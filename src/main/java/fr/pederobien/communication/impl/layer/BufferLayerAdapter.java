@@ -0,0 +1,50 @@
+package fr.pederobien.communication.impl.layer;
+
+import fr.pederobien.communication.impl.connection.BufferHeaderMessage;
+import fr.pederobien.communication.interfaces.connection.IBufferHeaderMessage;
+import fr.pederobien.communication.interfaces.connection.IHeaderMessage;
+import fr.pederobien.communication.interfaces.layer.IBufferLayer;
+import fr.pederobien.communication.interfaces.layer.ILayer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BufferLayerAdapter implements IBufferLayer {
+    private final ILayer layer;
+
+    /**
+     * Creates a buffer oriented layer that delegates to an existing layer. The
+     * bytes are copied from and to buffers, this adapter is only meant to keep
+     * existing layers usable where a buffer oriented layer is expected.
+     *
+     * @param layer The layer to adapt.
+     */
+    public BufferLayerAdapter(ILayer layer) {
+        this.layer = layer;
+    }
+
+    @Override
+    public ByteBuffer pack(IHeaderMessage message, ByteBuffer output) throws Exception {
+        byte[] packed = layer.pack(message);
+
+        // Nothing written in a too small buffer, no need to copy the packed bytes
+        if (output.position() == 0 && output.remaining() < packed.length) {
+            return ByteBuffer.wrap(packed).position(packed.length);
+        }
+
+        return LayerPipeline.ensureRemaining(output, packed.length).put(packed);
+    }
+
+    @Override
+    public List<IBufferHeaderMessage> unpack(ByteBuffer raw) throws Exception {
+        List<IBufferHeaderMessage> messages = new ArrayList<IBufferHeaderMessage>();
+
+        // The bytes are copied only if the buffer is a view on a part of its array
+        for (IHeaderMessage message : layer.unpack(LayerPipeline.toArray(raw))) {
+            messages.add(new BufferHeaderMessage(message.getIdentifier(), message.getRequestID(), message.getBytes()));
+        }
+
+        return messages;
+    }
+}
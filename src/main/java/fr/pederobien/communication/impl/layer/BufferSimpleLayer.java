@@ -0,0 +1,266 @@
+package fr.pederobien.communication.impl.layer;
+
+import fr.pederobien.communication.impl.connection.BufferHeaderMessage;
+import fr.pederobien.communication.interfaces.connection.IBufferHeaderMessage;
+import fr.pederobien.communication.interfaces.connection.IHeaderMessage;
+import fr.pederobien.communication.interfaces.layer.IBufferLayer;
+import fr.pederobien.communication.interfaces.layer.ILayer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BufferSimpleLayer implements IBufferLayer, ILayer {
+    private static final int HEADER_LENGTH = 12;
+
+    private final int maxFrameLength;
+    private final byte[] prefix;
+    private int prefixLength;
+    private byte[] frame;
+    private int frameLength;
+
+    /**
+     * Creates a layer that writes messages directly into buffers. Each message is
+     * preceded by its length, as a variable length integer, and received payloads
+     * are views on the received buffer whenever the message is not split over two
+     * receptions.
+     *
+     * @param maxFrameLength The maximum length of a message, a bigger message is
+     *                       considered as corrupted.
+     */
+    public BufferSimpleLayer(int maxFrameLength) {
+        this.maxFrameLength = maxFrameLength;
+
+        prefix = new byte[5];
+    }
+
+    /**
+     * Creates a layer that writes messages directly into buffers. The maximum
+     * length of a message is 16 MB.
+     */
+    public BufferSimpleLayer() {
+        this(16 * 1024 * 1024);
+    }
+
+    @Override
+    public ByteBuffer pack(IHeaderMessage message, ByteBuffer output) {
+        int payloadLength = payloadLength(message);
+        ByteBuffer buffer = LayerPipeline.ensureRemaining(output, getPackedSize(message));
+
+        // Structure of a message:
+        // varint: length of the following bytes
+        // bytes 0 -> 3: ID
+        // bytes 4 -> 7: requestID
+        // byte 8 -> 11: length
+        // byte 12 -> 12 + length: payload
+        putVarint(buffer, HEADER_LENGTH + payloadLength);
+        buffer.putInt(message.getIdentifier());
+        buffer.putInt(message.getRequestID());
+        buffer.putInt(payloadLength);
+
+        if (message instanceof IBufferHeaderMessage bufferMessage) {
+            buffer.put(bufferMessage.getBuffer());
+        } else {
+            buffer.put(message.getBytes());
+        }
+
+        return buffer;
+    }
+
+    @Override
+    public List<IBufferHeaderMessage> unpack(ByteBuffer raw) throws Exception {
+        List<IBufferHeaderMessage> messages = new ArrayList<IBufferHeaderMessage>();
+
+        // Completing the message started by a previous reception
+        while (raw.hasRemaining() && (prefixLength > 0 || frame != null)) {
+            if (frame == null) {
+                readPrefix(raw.get());
+            } else {
+                int length = Math.min(raw.remaining(), frame.length - frameLength);
+                raw.get(frame, frameLength, length);
+                frameLength += length;
+            }
+
+            if (frame != null && frameLength == frame.length) {
+                messages.add(decode(ByteBuffer.wrap(frame)));
+                frame = null;
+            }
+        }
+
+        // Messages fully contained in the received buffer
+        while (raw.hasRemaining()) {
+            int start = raw.position();
+            int length = nextVarint(raw);
+
+            // Length prefix not complete
+            if (length == -1) {
+                raw.position(start);
+                while (raw.hasRemaining()) {
+                    readPrefix(raw.get());
+                }
+                break;
+            }
+
+            checkLength(length);
+
+            // Last message not complete, it is the only one to be copied
+            if (raw.remaining() < length) {
+                frame = new byte[length];
+                frameLength = raw.remaining();
+                raw.get(frame, 0, frameLength);
+                break;
+            }
+
+            messages.add(decode(raw.slice(raw.position(), length)));
+            raw.position(raw.position() + length);
+        }
+
+        return messages;
+    }
+
+    @Override
+    public byte[] pack(IHeaderMessage message) throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(getPackedSize(message));
+        pack(message, buffer);
+        return buffer.array();
+    }
+
+    @Override
+    public List<IHeaderMessage> unpack(byte[] raw) throws Exception {
+        return new ArrayList<IHeaderMessage>(unpack(ByteBuffer.wrap(raw)));
+    }
+
+    /**
+     * @param message The message to pack.
+     * @return The number of bytes written by {@link #pack(IHeaderMessage, ByteBuffer)}
+     * for the given message.
+     */
+    private int getPackedSize(IHeaderMessage message) {
+        int length = HEADER_LENGTH + payloadLength(message);
+        return sizeOf(length) + length;
+    }
+
+    /**
+     * Creates a message whose payload is a view on the given frame.
+     *
+     * @param frame The bytes of one message, without the length prefix.
+     * @return The created message.
+     */
+    private IBufferHeaderMessage decode(ByteBuffer frame) {
+        int start = frame.position();
+
+        // bytes 0 -> 3: ID
+        int ID = frame.getInt(start);
+
+        // bytes 4 -> 7: requestID
+        int requestID = frame.getInt(start + 4);
+
+        // byte 8 -> 11: length
+        int length = frame.getInt(start + 8);
+
+        if (length < 0 || length > frame.remaining() - HEADER_LENGTH) {
+            throw new IllegalStateException("Malformed message");
+        }
+
+        // bytes 12 -> 12 + length: payload
+        return new BufferHeaderMessage(ID, requestID, frame.slice(start + HEADER_LENGTH, length));
+    }
+
+    /**
+     * Append one byte to the length prefix of the message split over two
+     * receptions. Once the prefix is complete, the message is allocated.
+     *
+     * @param current The byte to append.
+     */
+    private void readPrefix(byte current) {
+        prefix[prefixLength++] = current;
+
+        if ((current & 0x80) == 0) {
+            int length = nextVarint(ByteBuffer.wrap(prefix, 0, prefixLength));
+            prefixLength = 0;
+
+            checkLength(length);
+            frame = new byte[length];
+            frameLength = 0;
+        } else if (prefixLength == prefix.length) {
+            prefixLength = 0;
+            throw new IllegalStateException("Malformed message length");
+        }
+    }
+
+    /**
+     * Check the length of a message read from the length prefix.
+     *
+     * @param length The length to check.
+     */
+    private void checkLength(int length) {
+        if (length < HEADER_LENGTH || length > maxFrameLength) {
+            prefixLength = 0;
+            frame = null;
+            throw new IllegalStateException(String.format("Malformed message length: %s bytes", length));
+        }
+    }
+
+    /**
+     * Read a variable length integer from the given buffer.
+     *
+     * @param buffer The buffer to read.
+     * @return The value, or -1 if the buffer does not contain the whole integer.
+     */
+    private int nextVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35 && buffer.hasRemaining(); shift += 7) {
+            byte current = buffer.get();
+            value |= (current & 0x7F) << shift;
+
+            if ((current & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        if (buffer.hasRemaining()) {
+            throw new IllegalStateException("Malformed message length");
+        }
+
+        return -1;
+    }
+
+    /**
+     * Write the given value as a variable length integer, 7 bits per byte.
+     *
+     * @param buffer The buffer in which the value is written.
+     * @param value  The positive value to write.
+     */
+    private void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * @param value A positive value.
+     * @return The number of bytes needed to write the given value as a variable
+     * length integer.
+     */
+    private int sizeOf(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * @param message The message to send.
+     * @return The length of the payload, without copying it if possible.
+     */
+    private int payloadLength(IHeaderMessage message) {
+        if (message instanceof IBufferHeaderMessage bufferMessage) {
+            return bufferMessage.getBuffer().remaining();
+        }
+        return message.getBytes().length;
+    }
+}
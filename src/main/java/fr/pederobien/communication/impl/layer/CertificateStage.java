@@ -0,0 +1,35 @@
+package fr.pederobien.communication.impl.layer;
+
+import fr.pederobien.communication.interfaces.layer.ICertificate;
+import fr.pederobien.communication.interfaces.layer.IStage;
+
+import java.nio.ByteBuffer;
+
+public class CertificateStage implements IStage {
+    private final ICertificate certificate;
+
+    /**
+     * Creates a stage that signs the data to send and authenticates the data
+     * received from the remote. Data whose signature is wrong is dropped.
+     *
+     * @param certificate The certificate to sign or authenticate the data.
+     */
+    public CertificateStage(ICertificate certificate) {
+        this.certificate = certificate;
+    }
+
+    @Override
+    public void pack(ByteBuffer data, IOutput output) throws Exception {
+        output.accept(ByteBuffer.wrap(certificate.sign(LayerPipeline.toArray(data))));
+    }
+
+    @Override
+    public void unpack(ByteBuffer data, IOutput output) throws Exception {
+        byte[] message = certificate.authenticate(LayerPipeline.toArray(data));
+
+        // Message corrupted
+        if (message != null) {
+            output.accept(ByteBuffer.wrap(message));
+        }
+    }
+}
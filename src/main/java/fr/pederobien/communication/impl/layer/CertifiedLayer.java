@@ -3,6 +3,7 @@ package fr.pederobien.communication.impl.layer;
 import fr.pederobien.communication.impl.connection.HeaderMessage;
 import fr.pederobien.communication.interfaces.connection.IHeaderMessage;
 import fr.pederobien.communication.interfaces.layer.ICertificate;
+import fr.pederobien.communication.interfaces.layer.IFramer;
 import fr.pederobien.communication.interfaces.layer.ILayer;
 import fr.pederobien.utils.ByteWrapper;
 import fr.pederobien.utils.ReadableByteWrapper;
@@ -13,7 +14,7 @@ import java.util.function.Function;
 
 public class CertifiedLayer implements ILayer {
     private final ICertificate certificate;
-    private final Encapsulater encapsulater;
+    private final IFramer framer;
     private Function<byte[], byte[]> preSigning, postSigning;
     private Function<byte[], byte[]> preAuthentication, postAuthentication;
 
@@ -21,16 +22,26 @@ public class CertifiedLayer implements ILayer {
      * Creates a layer that sign each message using the given certificate.
      *
      * @param certificate The certificate to sign or authenticate a message.
+     * @param framer      The framer used to find the messages in the raw data.
      */
-    public CertifiedLayer(ICertificate certificate) {
+    public CertifiedLayer(ICertificate certificate, IFramer framer) {
         this.certificate = certificate;
+        this.framer = framer;
 
         preSigning = data -> data;
         postSigning = data -> data;
         preAuthentication = data -> data;
         postAuthentication = data -> data;
+    }
 
-        encapsulater = new Encapsulater("(~@=", "#.?)");
+    /**
+     * Creates a layer that sign each message using the given certificate. Messages
+     * are encapsulated within two delimiter words.
+     *
+     * @param certificate The certificate to sign or authenticate a message.
+     */
+    public CertifiedLayer(ICertificate certificate) {
+        this(certificate, new Encapsulater("(~@=", "#.?)"));
     }
 
     /**
@@ -77,14 +88,14 @@ public class CertifiedLayer implements ILayer {
         wrapper.putInt(message.getBytes().length);
         wrapper.put(message.getBytes());
 
-        return encapsulater.pack(postSigning.apply(certificate.sign(preSigning.apply(wrapper.get()))));
+        return framer.pack(postSigning.apply(certificate.sign(preSigning.apply(wrapper.get()))));
     }
 
     @Override
     public List<IHeaderMessage> unpack(byte[] raw) throws Exception {
         List<IHeaderMessage> requests = new ArrayList<IHeaderMessage>();
 
-        List<byte[]> signedMessages = encapsulater.unpack(raw);
+        List<byte[]> signedMessages = framer.unpack(raw);
         for (byte[] signed : signedMessages) {
 
             byte[] message = postAuthentication.apply(certificate.authenticate(preAuthentication.apply(signed)));
@@ -0,0 +1,90 @@
+package fr.pederobien.communication.impl.layer;
+
+import fr.pederobien.communication.impl.connection.HeaderMessage;
+import fr.pederobien.communication.interfaces.connection.IHeaderMessage;
+import fr.pederobien.communication.interfaces.layer.ILayer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+public class CompressionLayer implements ILayer {
+    private final ILayer layer;
+    private final int threshold;
+    private final int level;
+    private final CompressionStage stage;
+
+    /**
+     * Creates a layer that compresses the payload of a message before giving it to
+     * the underlying layer. Only payloads whose size is greater than or equal to
+     * the threshold are compressed, a payload is sent as is if its compressed form
+     * is not smaller.
+     *
+     * @param layer     The layer that packs/unpacks the compressed payloads.
+     * @param threshold The minimum size, in bytes, of a payload to compress.
+     * @param level     The compression level, from 0 to 9.
+     * @param maxLength The maximum size, in bytes, of an inflated payload.
+     */
+    public CompressionLayer(ILayer layer, int threshold, int level, int maxLength) {
+        this.layer = layer;
+        this.threshold = threshold;
+        this.level = level;
+
+        stage = new CompressionStage(threshold, level, maxLength);
+    }
+
+    /**
+     * Creates a layer that compresses the payload of a message before giving it to
+     * the underlying layer. Only payloads whose size is greater than or equal to
+     * the threshold are compressed with the fastest compression level.
+     *
+     * @param layer     The layer that packs/unpacks the compressed payloads.
+     * @param threshold The minimum size, in bytes, of a payload to compress.
+     */
+    public CompressionLayer(ILayer layer, int threshold) {
+        this(layer, threshold, Deflater.BEST_SPEED, 16 * 1024 * 1024);
+    }
+
+    /**
+     * Creates a layer that compresses the payload of a message, whose size is
+     * greater than or equal to 256 bytes, before giving it to the underlying layer.
+     *
+     * @param layer The layer that packs/unpacks the compressed payloads.
+     */
+    public CompressionLayer(ILayer layer) {
+        this(layer, 256);
+    }
+
+    @Override
+    public byte[] pack(IHeaderMessage message) throws Exception {
+        List<ByteBuffer> output = new ArrayList<ByteBuffer>(1);
+        stage.pack(ByteBuffer.wrap(message.getBytes()), output::add);
+
+        byte[] bytes = LayerPipeline.toArray(output.getFirst());
+        return layer.pack(new HeaderMessage(message.getIdentifier(), message.getRequestID(), bytes));
+    }
+
+    @Override
+    public List<IHeaderMessage> unpack(byte[] raw) throws Exception {
+        List<IHeaderMessage> requests = new ArrayList<IHeaderMessage>();
+
+        for (IHeaderMessage message : layer.unpack(raw)) {
+            List<ByteBuffer> output = new ArrayList<ByteBuffer>(1);
+            stage.unpack(ByteBuffer.wrap(message.getBytes()), output::add);
+
+            for (ByteBuffer payload : output) {
+                requests.add(new HeaderMessage(message.getIdentifier(), message.getRequestID(), LayerPipeline.toArray(payload)));
+            }
+        }
+
+        return requests;
+    }
+
+    @Override
+    public Object getShareKey() {
+        // The compressed payload depends on the threshold and on the level
+        Object layerKey = layer.getShareKey();
+        return layerKey == null ? null : List.of(CompressionLayer.class, threshold, level, layerKey);
+    }
+}
@@ -0,0 +1,97 @@
+package fr.pederobien.communication.impl.layer;
+
+import fr.pederobien.communication.impl.keyexchange.ReadyExchange;
+import fr.pederobien.communication.interfaces.IToken;
+import fr.pederobien.communication.interfaces.layer.ILayer;
+import fr.pederobien.communication.interfaces.layer.ILayerInitializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CompressionLayerInitializer implements ILayerInitializer {
+    private final ILayerInitializer initializer;
+    private final int threshold;
+    private final int timeout;
+    private final List<Long> durations;
+    private ILayer layer;
+
+    /**
+     * Creates a layer initializer that compresses the payloads before giving them
+     * to the layer of the given initializer. Payloads are compressed before being
+     * encrypted. Messages exchanged during the initialisation are not compressed.
+     *
+     * @param initializer The initializer of the layer to which compressed payloads
+     *                    are given.
+     * @param threshold   The minimum size, in bytes, of a payload to compress.
+     * @param timeout     The maximum time, in ms, to wait for the remote to
+     *                    compress the payloads.
+     */
+    public CompressionLayerInitializer(ILayerInitializer initializer, int threshold, int timeout) {
+        this.initializer = initializer;
+        this.threshold = threshold;
+        this.timeout = timeout;
+
+        durations = new ArrayList<Long>();
+    }
+
+    /**
+     * Creates a layer initializer that compresses the payloads before giving them
+     * to the layer of the given initializer. Both sides acknowledge they compress
+     * the payloads within 2000 ms.
+     *
+     * @param initializer The initializer of the layer to which compressed payloads
+     *                    are given.
+     * @param threshold   The minimum size, in bytes, of a payload to compress.
+     */
+    public CompressionLayerInitializer(ILayerInitializer initializer, int threshold) {
+        this(initializer, threshold, 2000);
+    }
+
+    /**
+     * Creates a layer initializer that compresses the payloads, whose size is
+     * greater than or equal to 256 bytes, before giving them to the layer of the
+     * given initializer.
+     *
+     * @param initializer The initializer of the layer to which compressed payloads
+     *                    are given.
+     */
+    public CompressionLayerInitializer(ILayerInitializer initializer) {
+        this(initializer, 256);
+    }
+
+    /**
+     * Creates a layer initializer that compresses the payloads, whose size is
+     * greater than or equal to 256 bytes, before giving them to a
+     * {@link SimpleLayer}.
+     */
+    public CompressionLayerInitializer() {
+        this(new LayerInitializer());
+    }
+
+    @Override
+    public boolean initialize(IToken token) throws Exception {
+        if (!initializer.initialize(token)) {
+            return false;
+        }
+
+        long start = System.currentTimeMillis();
+        layer = new CompressionLayer(initializer.getLayer(), threshold);
+
+        // Waiting for the remote to compress the payloads
+        boolean success = new ReadyExchange(token, -1, timeout).exchange();
+
+        durations.addAll(initializer.getStepDurations());
+        durations.add(System.currentTimeMillis() - start);
+        return success;
+    }
+
+    @Override
+    public ILayer getLayer() {
+        return layer == null ? initializer.getLayer() : layer;
+    }
+
+    @Override
+    public List<Long> getStepDurations() {
+        return durations;
+    }
+}
@@ -0,0 +1,152 @@
+package fr.pederobien.communication.impl.layer;
+
+import fr.pederobien.communication.interfaces.layer.IStage;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public class CompressionStage implements IStage {
+    private static final byte RAW = 0;
+    private static final byte DEFLATED = 1;
+    private final int threshold;
+    private final int maxLength;
+    private final Deflater deflater;
+    private final Inflater inflater;
+
+    /**
+     * Creates a stage that compresses the data whose size is greater than or equal
+     * to the threshold. A flag tells the remote whether the data is compressed,
+     * data is sent as is if its compressed form is not smaller.
+     *
+     * @param threshold The minimum size, in bytes, of the data to compress.
+     * @param level     The compression level, from 0 to 9.
+     * @param maxLength The maximum size, in bytes, of inflated data.
+     */
+    public CompressionStage(int threshold, int level, int maxLength) {
+        this.threshold = threshold;
+        this.maxLength = maxLength;
+
+        deflater = new Deflater(level);
+        inflater = new Inflater();
+    }
+
+    /**
+     * Creates a stage that compresses, with the fastest compression level, the
+     * data whose size is greater than or equal to the threshold.
+     *
+     * @param threshold The minimum size, in bytes, of the data to compress.
+     */
+    public CompressionStage(int threshold) {
+        this(threshold, Deflater.BEST_SPEED, 16 * 1024 * 1024);
+    }
+
+    @Override
+    public void pack(ByteBuffer data, IOutput output) throws Exception {
+        ByteBuffer deflated = data.remaining() < threshold ? null : deflate(data);
+        if (deflated != null) {
+            output.accept(deflated);
+            return;
+        }
+
+        // Structure of raw data:
+        // byte 0: flag
+        // bytes 1 -> end: data
+        ByteBuffer raw = ByteBuffer.allocate(1 + data.remaining());
+        raw.put(RAW).put(data).flip();
+        output.accept(raw);
+    }
+
+    @Override
+    public void unpack(ByteBuffer data, IOutput output) throws Exception {
+        // Data corrupted
+        if (!data.hasRemaining()) {
+            return;
+        }
+
+        // Raw data, no need to copy it
+        if (data.get() != DEFLATED) {
+            output.accept(data.slice());
+            return;
+        }
+
+        output.accept(inflate(data));
+    }
+
+    /**
+     * Compresses the given data.
+     *
+     * @param data The bytes to compress.
+     * @return The flag, the data length and the compressed bytes, or null if the
+     * compressed bytes are not smaller than the data.
+     */
+    private ByteBuffer deflate(ByteBuffer data) {
+        int length = data.remaining();
+
+        // Not enough room for the flag and the data length
+        if (length <= 5) {
+            return null;
+        }
+
+        synchronized (deflater) {
+            deflater.reset();
+            deflater.setInput(data.duplicate());
+            deflater.finish();
+
+            // Structure of compressed data:
+            // byte 0: flag
+            // bytes 1 -> 4: length of the inflated data
+            // bytes 5 -> end: deflated data
+            byte[] bytes = new byte[length];
+            bytes[0] = DEFLATED;
+            ByteBuffer.wrap(bytes, 1, 4).putInt(length);
+
+            // Output larger than the data is useless
+            int offset = 5;
+            while (!deflater.finished() && offset < bytes.length) {
+                offset += deflater.deflate(bytes, offset, bytes.length - offset);
+            }
+
+            return deflater.finished() ? ByteBuffer.wrap(bytes, 0, offset) : null;
+        }
+    }
+
+    /**
+     * Decompresses the given data.
+     *
+     * @param data The data length followed by the compressed bytes.
+     * @return The inflated data.
+     */
+    private ByteBuffer inflate(ByteBuffer data) throws DataFormatException {
+        if (data.remaining() < 4) {
+            throw new DataFormatException("Truncated deflated data");
+        }
+
+        int length = data.getInt();
+        if (length < 0 || length > maxLength) {
+            throw new DataFormatException(String.format("Invalid inflated length %s", length));
+        }
+
+        synchronized (inflater) {
+            inflater.reset();
+            inflater.setInput(data);
+
+            byte[] bytes = new byte[length];
+            int offset = 0;
+            while (offset < length && !inflater.finished()) {
+                int inflated = inflater.inflate(bytes, offset, length - offset);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated deflated data");
+                }
+                offset += inflated;
+            }
+
+            if (offset != length) {
+                throw new DataFormatException("Invalid deflated data length");
+            }
+
+            return ByteBuffer.wrap(bytes);
+        }
+    }
+}
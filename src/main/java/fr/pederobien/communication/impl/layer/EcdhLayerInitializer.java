@@ -0,0 +1,34 @@
+package fr.pederobien.communication.impl.layer;
+
+import fr.pederobien.communication.impl.keyexchange.EcdhKeyExchange;
+import fr.pederobien.communication.interfaces.layer.ICertificate;
+
+public class EcdhLayerInitializer extends LayerInitializer {
+
+    /**
+     * Creates an elliptic-curve key agreement. This initializer performs one X25519
+     * key exchange, signed using the certificate, and derives a 256 bits AES key
+     * from the shared secret. Once initialized, messages are encrypted and
+     * authenticated with AES-GCM.
+     *
+     * @param certificate The certificate to sign/authenticate the public keys
+     *                    during the key agreement.
+     * @param timeout     The maximum time, in ms, to wait for remote response
+     *                    during the key agreement.
+     */
+    public EcdhLayerInitializer(ICertificate certificate, int timeout) {
+        super(timeout, new CertifiedLayer(certificate), token -> new EcdhKeyExchange(token, timeout).exchange());
+    }
+
+    /**
+     * Creates an elliptic-curve key agreement. This initializer performs one X25519
+     * key exchange, signed using the certificate, and derives a 256 bits AES key
+     * from the shared secret.
+     *
+     * @param certificate The certificate to sign/authenticate the public keys
+     *                    during the key agreement.
+     */
+    public EcdhLayerInitializer(ICertificate certificate) {
+        this(certificate, 2000);
+    }
+}
@@ -1,12 +1,14 @@
 package fr.pederobien.communication.impl.layer;
 
+import fr.pederobien.communication.interfaces.layer.IFramer;
 import fr.pederobien.utils.ByteWrapper;
 import fr.pederobien.utils.ReadableByteWrapper;
 
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
 
-public class Encapsulater {
+public class Encapsulater implements IFramer {
     private final byte[] beginWord, endWord;
     private byte[] remaining;
 
@@ -31,6 +33,7 @@ public class Encapsulater {
      * @return A bytes array that contains the begin-word, the data and the
      * end-word.
      */
+    @Override
     public byte[] pack(byte[] data) {
         ByteWrapper wrapper = ByteWrapper.create();
         wrapper.put(beginWord);
@@ -46,6 +49,7 @@ public class Encapsulater {
      * @return A list of bytes array. Each bytes array where encapsulated within a
      * begin-word and an end-word.
      */
+    @Override
     public List<byte[]> unpack(byte[] raw) throws Exception {
         byte[] toParse;
 
@@ -91,6 +95,12 @@ public class Encapsulater {
         return messages;
     }
 
+    @Override
+    public boolean isBinarySafe() {
+        // The data must not contain the begin-word or the end-word
+        return false;
+    }
+
     /**
      * Extract a bytes array from the given bytes array.
      *
@@ -104,4 +114,9 @@ public class Encapsulater {
         System.arraycopy(buffer, start, data, 0, length);
         return data;
     }
+
+    @Override
+    public Object getShareKey() {
+        return List.of(Encapsulater.class, HexFormat.of().formatHex(beginWord), HexFormat.of().formatHex(endWord));
+    }
 }
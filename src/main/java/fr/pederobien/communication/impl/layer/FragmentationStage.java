@@ -0,0 +1,100 @@
+package fr.pederobien.communication.impl.layer;
+
+import fr.pederobien.communication.interfaces.layer.IStage;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FragmentationStage implements IStage {
+    private final int maximum;
+    private final Reassembler reassembler;
+    private final AtomicInteger identifier;
+
+    /**
+     * Creates a stage that splits the data into fragments whose size does not
+     * exceed the given maximum, and that gathers back the fragments received from
+     * the remote.
+     *
+     * @param maximum     The maximum size of the payload of a fragment, strictly
+     *                    positive.
+     * @param reassembler The object that gathers the fragments of a data.
+     */
+    public FragmentationStage(int maximum, Reassembler reassembler) {
+        if (maximum <= 0) {
+            throw new IllegalArgumentException("The maximum size of a fragment must be strictly positive");
+        }
+
+        this.maximum = maximum;
+        this.reassembler = reassembler;
+
+        identifier = new AtomicInteger(0);
+    }
+
+    /**
+     * Creates a stage that splits the data into fragments whose size does not
+     * exceed the given maximum.
+     *
+     * @param maximum The maximum size of the payload of a fragment, strictly
+     *                positive.
+     */
+    public FragmentationStage(int maximum) {
+        this(maximum, new Reassembler());
+    }
+
+    @Override
+    public void pack(ByteBuffer data, IOutput output) throws Exception {
+        int ID = identifier.incrementAndGet();
+        int total = Math.max(1, (data.remaining() + maximum - 1) / maximum);
+
+        for (int current = 0; current < total; current++) {
+            int length = Math.min(maximum, data.remaining());
+
+            // Structure of a fragment:
+            // bytes 0 -> 3: ID
+            // bytes 4 -> 7: total
+            // bytes 8 -> 11: current
+            // bytes 12 -> end: payload
+            ByteBuffer fragment = ByteBuffer.allocate(12 + length);
+            fragment.putInt(ID).putInt(total).putInt(current);
+            fragment.put(data.slice(data.position(), length)).flip();
+            data.position(data.position() + length);
+
+            output.accept(fragment);
+        }
+    }
+
+    @Override
+    public void unpack(ByteBuffer data, IOutput output) throws Exception {
+        // Fragment corrupted
+        if (data.remaining() < 12) {
+            return;
+        }
+
+        // bytes 0 -> 3: ID
+        int ID = data.getInt();
+
+        // bytes 4 -> 7: total
+        int total = data.getInt();
+
+        // bytes 8 -> 11: current
+        int current = data.getInt();
+
+        // Data not split, no need to copy it
+        if (total == 1 && current == 0) {
+            output.accept(data.slice());
+            return;
+        }
+
+        byte[] bytes = reassembler.add(ID, total, current, LayerPipeline.toArray(data));
+        if (bytes != null) {
+            output.accept(ByteBuffer.wrap(bytes));
+        }
+    }
+
+    /**
+     * @return The object that gathers the fragments received from the remote.
+     */
+    public Reassembler getReassembler() {
+        return reassembler;
+    }
+}
@@ -0,0 +1,39 @@
+package fr.pederobien.communication.impl.layer;
+
+import fr.pederobien.communication.interfaces.layer.IFramer;
+import fr.pederobien.communication.interfaces.layer.IStage;
+
+import java.nio.ByteBuffer;
+
+public class FramerStage implements IStage {
+    private final IFramer framer;
+
+    /**
+     * Creates a stage that frames the data to send and finds back the frames in
+     * the bytes received from the remote.
+     *
+     * @param framer The framer used to find the messages in the raw data.
+     */
+    public FramerStage(IFramer framer) {
+        this.framer = framer;
+    }
+
+    /**
+     * Creates a stage that frames the data with a length prefix.
+     */
+    public FramerStage() {
+        this(new LengthPrefixFramer());
+    }
+
+    @Override
+    public void pack(ByteBuffer data, IOutput output) throws Exception {
+        output.accept(ByteBuffer.wrap(framer.pack(LayerPipeline.toArray(data))));
+    }
+
+    @Override
+    public void unpack(ByteBuffer data, IOutput output) throws Exception {
+        for (byte[] frame : framer.unpack(LayerPipeline.toArray(data))) {
+            output.accept(ByteBuffer.wrap(frame));
+        }
+    }
+}
@@ -1,27 +1,51 @@
 package fr.pederobien.communication.impl.layer;
 
+import fr.pederobien.communication.impl.keyexchange.ReadyExchange;
 import fr.pederobien.communication.interfaces.IToken;
 import fr.pederobien.communication.interfaces.layer.ILayer;
 import fr.pederobien.communication.interfaces.layer.ILayerInitializer;
 import fr.pederobien.communication.interfaces.layer.IStep;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class LayerInitializer implements ILayerInitializer {
+    private final int timeout;
     private final IStep[] steps;
+    private final List<Long> durations;
     private ILayerInitializer impl;
 
     /**
-     * Creates a layer initializer.
+     * Creates a layer initializer. Each time a step changes the layer, both sides
+     * acknowledge they use the new layer before performing the next step.
      *
+     * @param timeout        The maximum time, in ms, to wait for the remote to use
+     *                       the layer returned by a step.
      * @param initialisation The layer to use for initialisation.
      * @param steps          A sequence to perform additional steps during
      *                       initialisation.
      */
-    public LayerInitializer(ILayer initialisation, IStep... steps) {
+    public LayerInitializer(int timeout, ILayer initialisation, IStep... steps) {
+        this.timeout = timeout;
         this.steps = steps;
 
+        durations = new ArrayList<Long>();
         impl = new NotInitializedState(initialisation);
     }
 
+    /**
+     * Creates a layer initializer. Each time a step changes the layer, both sides
+     * acknowledge they use the new layer, within 2000 ms, before performing the
+     * next step.
+     *
+     * @param initialisation The layer to use for initialisation.
+     * @param steps          A sequence to perform additional steps during
+     *                       initialisation.
+     */
+    public LayerInitializer(ILayer initialisation, IStep... steps) {
+        this(2000, initialisation, steps);
+    }
+
     /**
      * Creates a layer initializer using a simple layer as layer to perform
      * initialisation.
@@ -60,7 +84,12 @@ public class LayerInitializer implements ILayerInitializer {
         return impl.getLayer();
     }
 
-    private record InitializedState(ILayer initialized) implements ILayerInitializer {
+    @Override
+    public List<Long> getStepDurations() {
+        return durations;
+    }
+
+    private record InitializedState(ILayer initialized, List<Long> durations) implements ILayerInitializer {
 
         @Override
         public boolean initialize(IToken token) throws Exception {
@@ -71,6 +100,11 @@ public class LayerInitializer implements ILayerInitializer {
         public ILayer getLayer() {
             return initialized;
         }
+
+        @Override
+        public List<Long> getStepDurations() {
+            return durations;
+        }
     }
 
     private class NotInitializedState implements ILayerInitializer {
@@ -83,14 +117,24 @@ public class LayerInitializer implements ILayerInitializer {
         @Override
         public boolean initialize(IToken token) throws Exception {
             for (int i = 0; (i < steps.length) && (layer != null); i++) {
+                long start = System.currentTimeMillis();
+                ILayer previous = layer;
+
                 layer = steps[i].apply(token);
+
+                // Waiting for the remote to use the new layer
+                if (layer != null && layer != previous && !new ReadyExchange(token, i, timeout).exchange()) {
+                    layer = null;
+                }
+
+                durations.add(System.currentTimeMillis() - start);
             }
 
             if (layer == null) {
                 return false;
             }
 
-            impl = new InitializedState(layer);
+            impl = new InitializedState(layer, durations);
             return true;
         }
 
@@ -98,5 +142,10 @@ public class LayerInitializer implements ILayerInitializer {
         public ILayer getLayer() {
             return layer;
         }
+
+        @Override
+        public List<Long> getStepDurations() {
+            return durations;
+        }
     }
 }
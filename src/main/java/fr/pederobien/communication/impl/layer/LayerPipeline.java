@@ -0,0 +1,248 @@
+package fr.pederobien.communication.impl.layer;
+
+import fr.pederobien.communication.impl.connection.HeaderMessage;
+import fr.pederobien.communication.interfaces.connection.IConnection.Mode;
+import fr.pederobien.communication.interfaces.connection.IHeaderMessage;
+import fr.pederobien.communication.interfaces.layer.ICertificate;
+import fr.pederobien.communication.interfaces.layer.IFramer;
+import fr.pederobien.communication.interfaces.layer.ILayer;
+import fr.pederobien.communication.interfaces.layer.IStage;
+
+import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LayerPipeline implements ILayer {
+    private final IStage[] stages;
+
+    /**
+     * Creates a layer that pushes the messages through a sequence of stages. When
+     * sending a message, the stages are executed from the first to the last one,
+     * when receiving data, from the last to the first one. The last stage is then
+     * the closest to the network and must be a framing stage in order to find the
+     * messages in the bytes received from the remote.
+     *
+     * @param stages The stages of the pipeline, from the message to the network.
+     */
+    public LayerPipeline(IStage... stages) {
+        if (stages.length == 0 || !(stages[stages.length - 1] instanceof FramerStage)) {
+            throw new IllegalArgumentException("The last stage of a pipeline must be a framing stage");
+        }
+
+        this.stages = stages;
+    }
+
+    /**
+     * @return A builder to declare the stages of a pipeline, from the message to
+     * the network.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public byte[] pack(IHeaderMessage message) throws Exception {
+        // Structure of a message given to the first stage:
+        // bytes 0 -> 3: ID
+        // bytes 4 -> 7: requestID
+        // bytes 8 -> end: payload
+        byte[] payload = message.getBytes();
+        ByteBuffer data = ByteBuffer.allocate(8 + payload.length);
+        data.putInt(message.getIdentifier()).putInt(message.getRequestID()).put(payload).flip();
+
+        List<ByteBuffer> output = new ArrayList<ByteBuffer>();
+        pack(0, data, output);
+
+        // Most of the time, there is only one buffer to send
+        if (output.size() == 1) {
+            return toArray(output.getFirst());
+        }
+
+        int length = 0;
+        for (ByteBuffer buffer : output) {
+            length += buffer.remaining();
+        }
+
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        for (ByteBuffer buffer : output) {
+            bytes.put(buffer);
+        }
+
+        return bytes.array();
+    }
+
+    @Override
+    public List<IHeaderMessage> unpack(byte[] raw) throws Exception {
+        List<IHeaderMessage> requests = new ArrayList<IHeaderMessage>();
+        unpack(stages.length - 1, ByteBuffer.wrap(raw), requests);
+        return requests;
+    }
+
+    /**
+     * Push the data to send to the stage at the given index.
+     *
+     * @param index  The index of the stage to execute.
+     * @param data   The output of the previous stage.
+     * @param output The list in which the output of the last stage is added.
+     */
+    private void pack(int index, ByteBuffer data, List<ByteBuffer> output) throws Exception {
+        if (index == stages.length) {
+            output.add(data);
+            return;
+        }
+
+        stages[index].pack(data, next -> pack(index + 1, next, output));
+    }
+
+    /**
+     * Push the received data to the stage at the given index.
+     *
+     * @param index    The index of the stage to execute.
+     * @param data     The output of the next stage.
+     * @param requests The list in which the messages extracted from the output of
+     *                 the first stage are added.
+     */
+    private void unpack(int index, ByteBuffer data, List<IHeaderMessage> requests) throws Exception {
+        if (index >= 0) {
+            stages[index].unpack(data, previous -> unpack(index - 1, previous, requests));
+            return;
+        }
+
+        // Message corrupted
+        if (data.remaining() < 8) {
+            return;
+        }
+
+        // bytes 0 -> 3: ID
+        int ID = data.getInt();
+
+        // bytes 4 -> 7: requestID
+        int requestID = data.getInt();
+
+        // bytes 8 -> end: payload
+        requests.add(new HeaderMessage(ID, requestID, toArray(data)));
+    }
+
+    /**
+     * Get the bytes between the position and the limit of the given buffer. The
+     * bytes are copied only if the buffer is a view on a part of its array.
+     *
+     * @param buffer The buffer whose bytes are returned.
+     * @return The bytes array of the buffer.
+     */
+    static byte[] toArray(ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0 && buffer.remaining() == buffer.array().length) {
+            return buffer.array();
+        }
+
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Get a buffer whose remaining space is at least the given length. If the
+     * given buffer is too small, a bigger buffer is allocated and the bytes before
+     * the position of the given buffer are copied into it.
+     *
+     * @param buffer The buffer in which bytes are about to be written.
+     * @param length The number of bytes about to be written.
+     * @return The given buffer, or a bigger buffer whose position is just after
+     * the copied bytes.
+     */
+    static ByteBuffer ensureRemaining(ByteBuffer buffer, int length) {
+        if (buffer.remaining() >= length) {
+            return buffer;
+        }
+
+        int capacity = Math.max(buffer.position() + length, 2 * buffer.capacity());
+        ByteBuffer bigger = buffer.isDirect() ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+        return bigger.put(buffer.duplicate().flip());
+    }
+
+    public static class Builder {
+        private final List<IStage> stages;
+
+        /**
+         * Creates a builder to declare the stages of a pipeline.
+         */
+        private Builder() {
+            stages = new ArrayList<IStage>();
+        }
+
+        /**
+         * Append a stage to the pipeline, it is executed after the previously
+         * declared stages when sending a message.
+         *
+         * @param stage The stage to append.
+         * @return This builder.
+         */
+        public Builder add(IStage stage) {
+            stages.add(stage);
+            return this;
+        }
+
+        /**
+         * Append a stage that splits the data into fragments whose size does not
+         * exceed the given maximum.
+         *
+         * @param maximum The maximum size of a fragment, strictly positive.
+         * @return This builder.
+         */
+        public Builder fragment(int maximum) {
+            return add(new FragmentationStage(maximum));
+        }
+
+        /**
+         * Append a stage that compresses the data whose size is greater than or
+         * equal to the given threshold.
+         *
+         * @param threshold The minimum size, in bytes, of the data to compress.
+         * @return This builder.
+         */
+        public Builder compress(int threshold) {
+            return add(new CompressionStage(threshold));
+        }
+
+        /**
+         * Append a stage that encrypts and authenticates the data with AES-GCM.
+         *
+         * @param secretKey The secret key shared with the remote.
+         * @param mode      The direction of the communication.
+         * @return This builder.
+         */
+        public Builder encrypt(SecretKey secretKey, Mode mode) {
+            return add(new AesGcmStage(secretKey, mode));
+        }
+
+        /**
+         * Append a stage that signs the data using the given certificate.
+         *
+         * @param certificate The certificate to sign or authenticate the data.
+         * @return This builder.
+         */
+        public Builder sign(ICertificate certificate) {
+            return add(new CertificateStage(certificate));
+        }
+
+        /**
+         * Append a stage that frames the data in order to find it back in the bytes
+         * received from the remote.
+         *
+         * @param framer The framer to use.
+         * @return This builder.
+         */
+        public Builder frame(IFramer framer) {
+            return add(new FramerStage(framer));
+        }
+
+        /**
+         * @return A layer that executes the declared stages in order. The last
+         * declared stage must be a framing stage.
+         */
+        public LayerPipeline build() {
+            return new LayerPipeline(stages.toArray(new IStage[0]));
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package fr.pederobien.communication.impl.layer;
+
+import fr.pederobien.communication.interfaces.layer.IFramer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class LengthPrefixFramer implements IFramer {
+    private final int maxFrameLength;
+    private byte[] buffer;
+    private int start, end;
+
+    /**
+     * Creates a framer that writes the length of the data, as a variable length
+     * integer, before the data itself. Unlike delimiter words, the payload can
+     * contain any byte and the received bytes are parsed only once.
+     *
+     * @param maxFrameLength The maximum length of a frame, a bigger frame is
+     *                       considered as corrupted.
+     */
+    public LengthPrefixFramer(int maxFrameLength) {
+        this.maxFrameLength = maxFrameLength;
+
+        buffer = new byte[1024];
+        start = 0;
+        end = 0;
+    }
+
+    /**
+     * Creates a framer that writes the length of the data, as a variable length
+     * integer, before the data itself. The maximum length of a frame is 16 MB.
+     */
+    public LengthPrefixFramer() {
+        this(16 * 1024 * 1024);
+    }
+
+    @Override
+    public byte[] pack(byte[] data) {
+        int prefix = sizeOf(data.length);
+        byte[] frame = new byte[prefix + data.length];
+
+        // 7 bits per byte, the most significant bit indicates if another byte follows
+        int value = data.length;
+        int index = 0;
+        while ((value & ~0x7F) != 0) {
+            frame[index++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        frame[index] = (byte) value;
+
+        System.arraycopy(data, 0, frame, prefix, data.length);
+        return frame;
+    }
+
+    @Override
+    public List<byte[]> unpack(byte[] raw) throws Exception {
+        append(raw);
+
+        List<byte[]> frames = new ArrayList<byte[]>();
+        while (true) {
+            int index = start;
+            int length = 0;
+            int shift = 0;
+            boolean isPrefixComplete = false;
+
+            // Reading the length prefix
+            while (index < end) {
+                byte current = buffer[index++];
+                length |= (current & 0x7F) << shift;
+
+                if ((current & 0x80) == 0) {
+                    isPrefixComplete = true;
+                    break;
+                }
+
+                shift += 7;
+                if (shift > 28) {
+                    reset();
+                    throw new IllegalStateException("Malformed frame length");
+                }
+            }
+
+            if (!isPrefixComplete) {
+                break;
+            }
+
+            if (length < 0 || length > maxFrameLength) {
+                reset();
+                throw new IllegalStateException(String.format("Frame too long: %s bytes", length));
+            }
+
+            // Last frame not complete
+            if (end - index < length) {
+                break;
+            }
+
+            frames.add(Arrays.copyOfRange(buffer, index, index + length));
+            start = index + length;
+        }
+
+        if (start == end) {
+            start = 0;
+            end = 0;
+        }
+
+        return frames;
+    }
+
+    @Override
+    public Object getShareKey() {
+        // The maximum length is only checked when unpacking
+        return LengthPrefixFramer.class;
+    }
+
+    @Override
+    public boolean isBinarySafe() {
+        return true;
+    }
+
+    /**
+     * Append the given bytes after the bytes not parsed yet. The bytes of the
+     * frames already extracted are overwritten first.
+     *
+     * @param raw The bytes to append.
+     */
+    private void append(byte[] raw) {
+        if (buffer.length - end < raw.length) {
+            int remaining = end - start;
+
+            // Moving the remaining bytes at the beginning
+            byte[] destination = buffer;
+            if (buffer.length < remaining + raw.length) {
+                destination = new byte[Math.max(buffer.length * 2, remaining + raw.length)];
+            }
+
+            System.arraycopy(buffer, start, destination, 0, remaining);
+            buffer = destination;
+            start = 0;
+            end = remaining;
+        }
+
+        System.arraycopy(raw, 0, buffer, end, raw.length);
+        end += raw.length;
+    }
+
+    /**
+     * Forget the bytes not parsed yet.
+     */
+    private void reset() {
+        start = 0;
+        end = 0;
+    }
+
+    /**
+     * @param value A positive value.
+     * @return The number of bytes needed to write the given value as a variable
+     * length integer.
+     */
+    private int sizeOf(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
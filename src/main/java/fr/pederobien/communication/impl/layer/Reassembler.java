@@ -0,0 +1,280 @@
+package fr.pederobien.communication.impl.layer;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class Reassembler {
+    /**
+     * Estimated size, in bytes, of a reference in the array of fragments of a
+     * partial message.
+     */
+    private static final int REFERENCE_SIZE = 8;
+
+    /**
+     * Maximum number of identifiers of completed messages remembered in order to
+     * drop their late duplicated fragments.
+     */
+    private static final int MAX_COMPLETED_IDS = 1024;
+
+    private final long maxAge;
+    private final long maxBytes;
+    private final int maxFragments;
+    private final Map<Integer, Partial> partials;
+    private final LinkedHashMap<Integer, Long> completedIDs;
+    private long pendingBytes;
+    private long completed;
+    private long evicted;
+    private long duplicated;
+
+    /**
+     * Creates a reassembler that gathers the fragments of a message whatever the order in which they are
+     * received. A partial message is evicted when its first fragment has been received for more than the
+     * given age, or when the bytes of all partial messages exceed the given limit, the oldest partial
+     * messages are evicted first. The array that references the fragments of a partial message is counted
+     * in its bytes.
+     *
+     * @param maxAge       The maximum time, in ms, to wait for the missing fragments of a message.
+     * @param maxBytes     The maximum number of bytes all the partial messages can hold.
+     * @param maxFragments The maximum number of fragments of a message, beyond which a fragment is
+     *                     considered as corrupted.
+     */
+    public Reassembler(long maxAge, long maxBytes, int maxFragments) {
+        this.maxAge = maxAge;
+        this.maxBytes = maxBytes;
+        this.maxFragments = maxFragments;
+
+        partials = new LinkedHashMap<Integer, Partial>();
+        completedIDs = new LinkedHashMap<Integer, Long>();
+    }
+
+    /**
+     * Creates a reassembler that gathers the fragments of a message, made of at most 8192 fragments,
+     * whatever the order in which they are received.
+     *
+     * @param maxAge   The maximum time, in ms, to wait for the missing fragments of a message.
+     * @param maxBytes The maximum number of bytes all the partial messages can hold.
+     */
+    public Reassembler(long maxAge, long maxBytes) {
+        this(maxAge, maxBytes, 8192);
+    }
+
+    /**
+     * Creates a reassembler that waits at most 10 seconds for the missing fragments of a message, made of
+     * at most 8192 fragments, and that holds at most 4 MB of partial messages.
+     */
+    public Reassembler() {
+        this(10000, 4 * 1024 * 1024);
+    }
+
+    /**
+     * Register the fragment of a message. The fragment is placed according to its index, the message is
+     * complete once all its fragments have been received.
+     *
+     * @param ID      The identifier of the message.
+     * @param total   The number of fragments of the message.
+     * @param current The index of the fragment.
+     * @param payload The payload of the fragment.
+     * @return The bytes of the message if all its fragments have been received, null otherwise.
+     */
+    public synchronized byte[] add(int ID, int total, int current, byte[] payload) {
+        long now = System.currentTimeMillis();
+
+        // Removing partial messages whose fragments have been lost
+        evictOlderThan(now - maxAge);
+
+        // Corrupted fragment
+        if (total <= 0 || total > maxFragments || current < 0 || current >= total || payload.length > maxBytes) {
+            return null;
+        }
+
+        // Late fragment of a message already received entirely
+        if (completedIDs.containsKey(ID)) {
+            duplicated++;
+            return null;
+        }
+
+        Partial partial = partials.get(ID);
+
+        // Identifier reused for another message
+        if (partial != null && partial.fragments.length != total) {
+            remove(ID);
+            evicted++;
+            partial = null;
+        }
+
+        if (partial == null) {
+            partial = new Partial(total, now);
+            partials.put(ID, partial);
+            pendingBytes += partial.length;
+        }
+
+        // Fragment already received
+        if (partial.fragments[current] != null) {
+            duplicated++;
+            return null;
+        }
+
+        partial.fragments[current] = payload;
+        partial.received++;
+        partial.length += payload.length;
+        pendingBytes += payload.length;
+
+        // Message received entirely
+        if (partial.received == total) {
+            remove(ID);
+            completed++;
+
+            completedIDs.put(ID, now);
+            if (completedIDs.size() > MAX_COMPLETED_IDS) {
+                completedIDs.pollFirstEntry();
+            }
+
+            return partial.concatenate();
+        }
+
+        // Too many bytes waiting for missing fragments
+        evictWhileAbove(maxBytes);
+        return null;
+    }
+
+    /**
+     * Remove all the partial messages.
+     */
+    public synchronized void clear() {
+        partials.clear();
+        completedIDs.clear();
+        pendingBytes = 0;
+    }
+
+    /**
+     * @return The number of messages waiting for missing fragments.
+     */
+    public synchronized int getPendingCount() {
+        return partials.size();
+    }
+
+    /**
+     * @return The number of bytes held by the messages waiting for missing fragments.
+     */
+    public synchronized long getPendingBytes() {
+        return pendingBytes;
+    }
+
+    /**
+     * @return The number of messages received entirely since the creation of this reassembler.
+     */
+    public synchronized long getCompletedCount() {
+        return completed;
+    }
+
+    /**
+     * @return The number of partial messages that have been evicted before being received entirely.
+     */
+    public synchronized long getEvictedCount() {
+        return evicted;
+    }
+
+    /**
+     * @return The number of fragments that have been received more than once.
+     */
+    public synchronized long getDuplicatedCount() {
+        return duplicated;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("pending=%s, bytes=%s, completed=%s, evicted=%s, duplicated=%s", partials.size(),
+                pendingBytes, completed, evicted, duplicated);
+    }
+
+    /**
+     * Evict the partial messages whose first fragment has been received before the given time.
+     *
+     * @param time The time before which a partial message is evicted.
+     */
+    private void evictOlderThan(long time) {
+        // Identifiers of completed messages can be reused once no late fragment is expected anymore
+        Iterator<Long> completions = completedIDs.values().iterator();
+        while (completions.hasNext() && completions.next() < time) {
+            completions.remove();
+        }
+
+        Iterator<Partial> iterator = partials.values().iterator();
+        while (iterator.hasNext()) {
+            Partial partial = iterator.next();
+
+            // Partial messages are sorted from the oldest to the newest
+            if (partial.creation >= time) {
+                break;
+            }
+
+            pendingBytes -= partial.length;
+            evicted++;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Evict the oldest partial messages until the bytes held by the partial messages does not exceed the
+     * given limit.
+     *
+     * @param limit The maximum number of bytes the partial messages can hold.
+     */
+    private void evictWhileAbove(long limit) {
+        Iterator<Partial> iterator = partials.values().iterator();
+        while (pendingBytes > limit && iterator.hasNext()) {
+            Partial partial = iterator.next();
+            pendingBytes -= partial.length;
+            evicted++;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Remove the partial message associated to the given identifier.
+     *
+     * @param ID The identifier of the message.
+     */
+    private void remove(int ID) {
+        Partial partial = partials.remove(ID);
+        if (partial != null) {
+            pendingBytes -= partial.length;
+        }
+    }
+
+    private static class Partial {
+        private final byte[][] fragments;
+        private final long creation;
+        private int received;
+
+        // Bytes of the received fragments and of the array that references them
+        private int length;
+
+        /**
+         * Creates a message waiting for its fragments.
+         *
+         * @param total    The number of fragments of the message.
+         * @param creation The time at which the first fragment has been received.
+         */
+        private Partial(int total, long creation) {
+            this.creation = creation;
+
+            fragments = new byte[total][];
+            length = total * REFERENCE_SIZE;
+        }
+
+        /**
+         * @return The bytes of the message, fragments are concatenated according to their index.
+         */
+        private byte[] concatenate() {
+            byte[] bytes = new byte[length - fragments.length * REFERENCE_SIZE];
+            int offset = 0;
+            for (byte[] fragment : fragments) {
+                System.arraycopy(fragment, 0, bytes, offset, fragment.length);
+                offset += fragment.length;
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package fr.pederobien.communication.impl.layer;
+
+import fr.pederobien.communication.impl.connection.HeaderMessage;
+import fr.pederobien.communication.interfaces.connection.IConnection.Mode;
+import fr.pederobien.communication.interfaces.connection.IHeaderMessage;
+import fr.pederobien.communication.interfaces.layer.IFramer;
+import fr.pederobien.communication.interfaces.layer.ILayer;
+import fr.pederobien.utils.ByteWrapper;
+import fr.pederobien.utils.ReadableByteWrapper;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class RsaHybridLayer implements ILayer {
+    private static final String RSA_TRANSFORMATION = "RSA/ECB/OAEPWithSHA-256AndMGF1Padding";
+
+    private final Mode mode;
+    private final Cipher unwrap;
+    private final IFramer framer;
+    private final byte[] wrappedKey;
+    private final AesGcmCipher localCipher;
+    private byte[] remoteWrappedKey;
+    private AesGcmCipher remoteCipher;
+
+    /**
+     * Creates a hybrid RSA layer. RSA is only used to encrypt an AES session key
+     * generated by this layer, the messages themselves are encrypted and
+     * authenticated with AES-GCM. The encrypted session key is sent with each
+     * message and the session key of the remote is decrypted only once.
+     *
+     * @param privateKey The private key to decode the session key of the remote.
+     * @param remoteKey  The remote public key to encode the local session key.
+     * @param mode       The direction of the communication.
+     */
+    public RsaHybridLayer(PrivateKey privateKey, PublicKey remoteKey, Mode mode) {
+        this.mode = mode;
+
+        framer = new LengthPrefixFramer();
+
+        try {
+            KeyGenerator generator = KeyGenerator.getInstance("AES");
+            generator.init(256);
+            SecretKey sessionKey = generator.generateKey();
+
+            Cipher wrap = Cipher.getInstance(RSA_TRANSFORMATION);
+            wrap.init(Cipher.ENCRYPT_MODE, remoteKey);
+            wrappedKey = wrap.doFinal(sessionKey.getEncoded());
+
+            unwrap = Cipher.getInstance(RSA_TRANSFORMATION);
+            unwrap.init(Cipher.DECRYPT_MODE, privateKey);
+
+            localCipher = new AesGcmCipher(sessionKey, mode);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid RSA key", e);
+        }
+    }
+
+    @Override
+    public byte[] pack(IHeaderMessage message) throws Exception {
+        ByteWrapper wrapper = ByteWrapper.create();
+        wrapper.putInt(message.getIdentifier());
+        wrapper.putInt(message.getRequestID());
+        wrapper.put(message.getBytes());
+
+        // Structure of a frame:
+        // bytes 0 -> 3: length of the encrypted session key
+        // bytes 4 -> 4 + length: encrypted session key
+        // bytes 4 + length -> end: encrypted message
+        ByteWrapper frame = ByteWrapper.create();
+        frame.putInt(wrappedKey.length);
+        frame.put(wrappedKey);
+        frame.put(localCipher.encrypt(wrapper.get()));
+
+        return framer.pack(frame.get());
+    }
+
+    @Override
+    public List<IHeaderMessage> unpack(byte[] raw) throws Exception {
+        List<IHeaderMessage> requests = new ArrayList<IHeaderMessage>();
+
+        for (byte[] frame : framer.unpack(raw)) {
+            ReadableByteWrapper readable = ReadableByteWrapper.wrap(frame);
+
+            // bytes 0 -> 3: length of the encrypted session key
+            int length = readable.nextInt();
+            if (length <= 0 || length > frame.length - 4)
+                continue;
+
+            // bytes 4 -> 4 + length: encrypted session key
+            AesGcmCipher cipher = getRemoteCipher(readable.next(length));
+
+            // bytes 4 + length -> end: encrypted message
+            byte[] message = cipher == null ? null : cipher.decrypt(readable.next(-1));
+
+            // Message corrupted
+            if (message == null)
+                continue;
+
+            ReadableByteWrapper wrapper = ReadableByteWrapper.wrap(message);
+
+            // bytes 0 -> 3: ID
+            int ID = wrapper.nextInt();
+
+            // bytes 4 -> 7: requestID
+            int requestID = wrapper.nextInt();
+
+            // byte 8 -> end: payload
+            requests.add(new HeaderMessage(ID, requestID, wrapper.next(-1)));
+        }
+
+        return requests;
+    }
+
+    /**
+     * Get the cipher associated to the session key of the remote. The session key
+     * is decrypted only when it differs from the previous one.
+     *
+     * @param wrapped The session key encrypted with the local public key.
+     * @return The cipher to decrypt the messages of the remote, or null if the
+     * session key cannot be decrypted.
+     */
+    private AesGcmCipher getRemoteCipher(byte[] wrapped) {
+        if (remoteCipher != null && Arrays.equals(remoteWrappedKey, wrapped)) {
+            return remoteCipher;
+        }
+
+        try {
+            byte[] key;
+            synchronized (unwrap) {
+                key = unwrap.doFinal(wrapped);
+            }
+
+            remoteCipher = new AesGcmCipher(new SecretKeySpec(key, "AES"), mode);
+            remoteWrappedKey = wrapped;
+            return remoteCipher;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
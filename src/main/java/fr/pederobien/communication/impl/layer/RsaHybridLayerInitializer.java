@@ -0,0 +1,48 @@
+package fr.pederobien.communication.impl.layer;
+
+import fr.pederobien.communication.impl.keyexchange.RsaKeyExchange;
+import fr.pederobien.communication.interfaces.layer.ICertificate;
+
+public class RsaHybridLayerInitializer extends LayerInitializer {
+
+    /**
+     * Creates a layer initializer in order to perform public key exchange before
+     * using a hybrid RSA layer: RSA only encrypts a session key, the messages are
+     * encrypted with AES-GCM.
+     *
+     * @param certificate The certificate used to sign/authenticate the remote key
+     *                    received from the remote.
+     * @param keySize     The key size. This is an algorithm-specific metric, such as
+     *                    modulus length, specified in number of bits.
+     * @param timeout     The maximum time, in ms, to wait for remote response
+     *                    during the key exchange.
+     */
+    public RsaHybridLayerInitializer(ICertificate certificate, int keySize, int timeout) {
+        super(timeout, new CertifiedLayer(certificate), token -> new RsaKeyExchange(token, keySize, timeout,
+                (privateKey, remoteKey) -> new RsaHybridLayer(privateKey, remoteKey, token.getMode())).exchange());
+    }
+
+    /**
+     * Creates a layer initializer in order to perform public key exchange before
+     * using a hybrid RSA layer.
+     *
+     * @param certificate The certificate used to sign/authenticate the remote key
+     *                    received from the remote.
+     * @param timeout     The maximum time, in ms, to wait for remote response
+     *                    during the key exchange.
+     */
+    public RsaHybridLayerInitializer(ICertificate certificate, int timeout) {
+        this(certificate, 2048, timeout);
+    }
+
+    /**
+     * Creates a layer initializer in order to perform public key exchange before
+     * using a hybrid RSA layer.
+     *
+     * @param certificate The certificate used to sign/authenticate the remote key
+     *                    received from the remote.
+     */
+    public RsaHybridLayerInitializer(ICertificate certificate) {
+        this(certificate, 2000);
+    }
+}
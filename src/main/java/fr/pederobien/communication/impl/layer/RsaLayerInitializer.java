@@ -17,7 +17,7 @@ public class RsaLayerInitializer extends LayerInitializer {
      *                    during the key exchange.
      */
     public RsaLayerInitializer(ICertificate certificate, int keySize, int timeout) {
-        super(new CertifiedLayer(certificate), token -> new RsaKeyExchange(token, keySize, timeout).exchange());
+        super(timeout, new CertifiedLayer(certificate), token -> new RsaKeyExchange(token, keySize, timeout).exchange());
     }
 
     /**
@@ -2,6 +2,7 @@ package fr.pederobien.communication.impl.layer;
 
 import fr.pederobien.communication.impl.connection.HeaderMessage;
 import fr.pederobien.communication.interfaces.connection.IHeaderMessage;
+import fr.pederobien.communication.interfaces.layer.IFramer;
 import fr.pederobien.communication.interfaces.layer.ILayer;
 import fr.pederobien.utils.ByteWrapper;
 import fr.pederobien.utils.ReadableByteWrapper;
@@ -10,14 +11,24 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class SimpleLayer implements ILayer {
-    private final Encapsulater encapsulater;
+    private final IFramer framer;
 
     /**
      * Creates a layer in order to extract several responses from raw data received
      * from the remote.
+     *
+     * @param framer The framer used to find the messages in the raw data.
+     */
+    public SimpleLayer(IFramer framer) {
+        this.framer = framer;
+    }
+
+    /**
+     * Creates a layer in order to extract several responses from raw data received
+     * from the remote. Messages are encapsulated within two delimiter words.
      */
     public SimpleLayer() {
-        encapsulater = new Encapsulater("(~@=", "#.?)");
+        this(new Encapsulater("(~@=", "#.?)"));
     }
 
     @Override
@@ -27,14 +38,14 @@ public class SimpleLayer implements ILayer {
         wrapper.putInt(message.getRequestID());
         wrapper.putInt(message.getBytes().length);
         wrapper.put(message.getBytes());
-        return encapsulater.pack(wrapper.get());
+        return framer.pack(wrapper.get());
     }
 
     @Override
     public List<IHeaderMessage> unpack(byte[] raw) throws Exception {
         List<IHeaderMessage> requests = new ArrayList<IHeaderMessage>();
 
-        List<byte[]> messages = encapsulater.unpack(raw);
+        List<byte[]> messages = framer.unpack(raw);
         for (byte[] message : messages) {
             // Structure of a message:
             // bytes 0 -> 3: ID
@@ -62,4 +73,10 @@ public class SimpleLayer implements ILayer {
 
         return requests;
     }
+
+    @Override
+    public Object getShareKey() {
+        Object framerKey = framer.getShareKey();
+        return framerKey == null ? null : List.of(SimpleLayer.class, framerKey);
+    }
 }
@@ -10,18 +10,28 @@ import java.util.Map;
 
 public class Splitter {
     private final int maximum;
-    private final Map<Integer, ByteWrapper> remaining;
+    private final Reassembler reassembler;
 
     /**
      * Creates a splitter. If the size of a data is greater than the maximum value,
      * the data is split into different packet.
      *
-     * @param maximum The maximum size of a packet.
+     * @param maximum     The maximum size of a packet.
+     * @param reassembler The object that gathers the packets of a split data.
      */
-    public Splitter(int maximum) {
+    public Splitter(int maximum, Reassembler reassembler) {
         this.maximum = maximum;
+        this.reassembler = reassembler;
+    }
 
-        remaining = new HashMap<Integer, ByteWrapper>();
+    /**
+     * Creates a splitter. If the size of a data is greater than the maximum value,
+     * the data is split into different packet.
+     *
+     * @param maximum The maximum size of a packet.
+     */
+    public Splitter(int maximum) {
+        this(maximum, new Reassembler());
     }
 
     /**
@@ -99,9 +109,9 @@ public class Splitter {
             if (total == 1)
                 requests.put(ID, payload);
             else {
-                ReadableByteWrapper wrapper = registerRequest(ID, total, current, payload);
-                if (wrapper != null)
-                    requests.put(ID, wrapper.get());
+                byte[] request = reassembler.add(ID, total, current, payload);
+                if (request != null)
+                    requests.put(ID, request);
             }
         }
 
@@ -109,34 +119,10 @@ public class Splitter {
     }
 
     /**
-     * If a request is already registered for the given ID, the payload is added at
-     * the end of the previous payload. When the value of current correspond to
-     * total - 1, all the packets have been received. The request has been received
-     * entirely and can be used. If no request has been received for the given ID,
-     * the payload will be stored until a new packet is received.
-     *
-     * @param ID      The identifier of this request.
-     * @param total   The number of packets to receive in order to receive a full
-     *                request.
-     * @param current The current packet number.
-     * @param payload The payload of the request.
-     * @return A byte wrapper if the message has been received entirely.
+     * @return The object that gathers the packets of a split data, it gives
+     * information about the packets waiting for the missing ones.
      */
-    private ReadableByteWrapper registerRequest(int ID, int total, int current, byte[] payload) {
-        ByteWrapper wrapper = remaining.get(ID);
-
-        // No request is registered
-        if (wrapper == null)
-            remaining.put(ID, ByteWrapper.wrap(payload));
-        else {
-            wrapper.put(payload);
-
-            // Request received entirely
-            if (current == total - 1) {
-                return wrapper.getAsReadableWrapper();
-            }
-        }
-
-        return null;
+    public Reassembler getReassembler() {
+        return reassembler;
     }
 }
@@ -0,0 +1,106 @@
+package fr.pederobien.communication.impl.server;
+
+import fr.pederobien.communication.interfaces.connection.IConnection;
+import fr.pederobien.communication.interfaces.server.IConnectionRegistry;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+public class ConnectionRegistry<T> implements IConnectionRegistry<T> {
+    private final Map<IConnection, T> endPoints;
+    private final Map<T, IConnection> connections;
+
+    /**
+     * Creates a registry of the connections with the clients of a server.
+     * Connections can be added, removed and found from any thread in constant
+     * time, and iterated without locking the registry.
+     */
+    public ConnectionRegistry() {
+        endPoints = new ConcurrentHashMap<IConnection, T>();
+        connections = new ConcurrentHashMap<T, IConnection>();
+    }
+
+    /**
+     * Register the connection with a client. If a connection with a client with
+     * the same end-point is already registered, it is replaced.
+     *
+     * @param endPoint   The end-point of the client.
+     * @param connection The connection with the client.
+     * @return The previous connection with a client with the same end-point, or
+     * null.
+     */
+    public IConnection add(T endPoint, IConnection connection) {
+        endPoints.put(connection, endPoint);
+
+        IConnection previous = connections.put(endPoint, connection);
+        if (previous != null && previous != connection) {
+            endPoints.remove(previous);
+        }
+
+        return previous;
+    }
+
+    /**
+     * Unregister the given connection.
+     *
+     * @param connection The connection to unregister.
+     * @return True if the connection was registered, false otherwise.
+     */
+    public boolean remove(IConnection connection) {
+        T endPoint = endPoints.remove(connection);
+        if (endPoint == null) {
+            return false;
+        }
+
+        // Does not remove a more recent connection with the same end-point
+        connections.remove(endPoint, connection);
+        return true;
+    }
+
+    /**
+     * Unregister all the connections.
+     */
+    public void clear() {
+        endPoints.clear();
+        connections.clear();
+    }
+
+    @Override
+    public IConnection get(Object endPoint) {
+        return connections.get(endPoint);
+    }
+
+    @Override
+    public T getEndPoint(IConnection connection) {
+        return endPoints.get(connection);
+    }
+
+    @Override
+    public boolean contains(IConnection connection) {
+        return endPoints.containsKey(connection);
+    }
+
+    @Override
+    public int size() {
+        return endPoints.size();
+    }
+
+    @Override
+    public void forEach(BiConsumer<T, IConnection> action) {
+        endPoints.forEach((connection, endPoint) -> action.accept(endPoint, connection));
+    }
+
+    @Override
+    public Iterator<IConnection> iterator() {
+        // The registry is only modified by the server, removing through the iterator is not supported
+        return Collections.unmodifiableSet(endPoints.keySet()).iterator();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s connections", size());
+    }
+}
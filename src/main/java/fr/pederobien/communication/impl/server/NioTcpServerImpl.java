@@ -0,0 +1,111 @@
+package fr.pederobien.communication.impl.server;
+
+import fr.pederobien.communication.impl.EthernetEndPoint;
+import fr.pederobien.communication.impl.connection.NioTcpConnectionImpl;
+import fr.pederobien.communication.impl.connection.SelectorLoop;
+import fr.pederobien.communication.impl.connection.SelectorLoopGroup;
+import fr.pederobien.communication.interfaces.IEthernetEndPoint;
+import fr.pederobien.communication.interfaces.connection.IBufferPool;
+import fr.pederobien.communication.interfaces.server.IClientInfo;
+import fr.pederobien.communication.interfaces.server.IServerConfig;
+import fr.pederobien.communication.interfaces.server.IServerImpl;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public class NioTcpServerImpl implements IServerImpl<IEthernetEndPoint>, SelectorLoop.IHandler {
+    private final SelectorLoopGroup group;
+    private final BlockingQueue<SocketChannel> accepted;
+    private ServerSocketChannel serverChannel;
+    private IBufferPool pool;
+
+    /**
+     * Creates a non-blocking TCP implementation for a server. The server channel
+     * and the client channels are served by the loops of the given group.
+     *
+     * @param group The event loops that serve the channels.
+     */
+    public NioTcpServerImpl(SelectorLoopGroup group) {
+        this.group = group;
+
+        accepted = new LinkedBlockingQueue<SocketChannel>();
+    }
+
+    /**
+     * Creates a non-blocking TCP implementation for a server using the default
+     * event loops.
+     */
+    public NioTcpServerImpl() {
+        this(SelectorLoopGroup.getDefault());
+    }
+
+    @Override
+    public void open(IServerConfig<IEthernetEndPoint> config) throws Exception {
+        String address = config.getPoint().getAddress();
+        int port = config.getPoint().getPort();
+        pool = config.getBufferPool();
+
+        serverChannel = ServerSocketChannel.open();
+
+        // Case 1: Any address
+        if (address.equals("*")) {
+            serverChannel.bind(new InetSocketAddress(port), 50);
+        }
+        // Case 2: Specific hostname
+        else {
+            serverChannel.bind(new InetSocketAddress(InetAddress.getByName(address), port), 50);
+        }
+
+        serverChannel.configureBlocking(false);
+        group.next().register(serverChannel, SelectionKey.OP_ACCEPT, this);
+
+        // In case the port number from config is 0, the port number is defined by the host machine
+        config.getPoint().setPort(serverChannel.socket().getLocalPort());
+    }
+
+    @Override
+    public void close() throws Exception {
+        serverChannel.close();
+
+        // Closing the channels accepted but not handled
+        SocketChannel channel;
+        while ((channel = accepted.poll()) != null) {
+            channel.close();
+        }
+    }
+
+    @Override
+    public IClientInfo<IEthernetEndPoint> waitForClient() throws Exception {
+        // Waiting for a new client
+        SocketChannel channel = accepted.take();
+
+        String address = channel.socket().getInetAddress().getHostName();
+        int port = channel.socket().getPort();
+
+        // Creating remote end point
+        EthernetEndPoint endPoint = new EthernetEndPoint(address, port);
+
+        return new ClientInfo<IEthernetEndPoint>(endPoint, new NioTcpConnectionImpl(channel, group.next(), pool));
+    }
+
+    @Override
+    public void onSelected(SelectionKey key) throws IOException {
+        if (key.isAcceptable()) {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                accepted.add(channel);
+            }
+        }
+    }
+
+    @Override
+    public void onClosed() {
+        // Server channel closed, nothing to do
+    }
+}
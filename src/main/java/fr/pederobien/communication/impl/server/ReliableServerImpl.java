@@ -0,0 +1,37 @@
+package fr.pederobien.communication.impl.server;
+
+import fr.pederobien.communication.impl.connection.ReliableConnectionImpl;
+import fr.pederobien.communication.interfaces.server.IClientInfo;
+import fr.pederobien.communication.interfaces.server.IServerConfig;
+import fr.pederobien.communication.interfaces.server.IServerImpl;
+
+public class ReliableServerImpl<T> implements IServerImpl<T> {
+    private final IServerImpl<T> impl;
+
+    /**
+     * Creates a server implementation whose connections add sequencing,
+     * acknowledgements and retransmissions to the connections of the given
+     * implementation. The clients must use a {@link fr.pederobien.communication.impl.client.ReliableClientImpl}.
+     *
+     * @param impl The implementation of an unreliable server, such as UDP.
+     */
+    public ReliableServerImpl(IServerImpl<T> impl) {
+        this.impl = impl;
+    }
+
+    @Override
+    public void open(IServerConfig<T> config) throws Exception {
+        impl.open(config);
+    }
+
+    @Override
+    public void close() throws Exception {
+        impl.close();
+    }
+
+    @Override
+    public IClientInfo<T> waitForClient() throws Exception {
+        IClientInfo<T> info = impl.waitForClient();
+        return new ClientInfo<T>(info.getEndPoint(), new ReliableConnectionImpl(info.getImpl()));
+    }
+}
@@ -0,0 +1,141 @@
+package fr.pederobien.communication.impl.server;
+
+import fr.pederobien.communication.interfaces.server.IServerConfig.OverflowPolicy;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class RingQueue<T> {
+    private final Object[] elements;
+    private final OverflowPolicy policy;
+    private final ReentrantLock lock;
+    private final Condition notEmpty;
+    private int head;
+    private int size;
+    private long dropped;
+    private boolean isClosed;
+
+    /**
+     * Creates a bounded queue backed by a circular array. When the queue is full,
+     * an element is dropped according to the given policy, adding an element then
+     * never blocks.
+     *
+     * @param capacity The maximum number of elements in the queue.
+     * @param policy   The element dropped when the queue is full.
+     */
+    public RingQueue(int capacity, OverflowPolicy policy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be strictly positive");
+        }
+
+        this.policy = policy;
+
+        elements = new Object[capacity];
+        lock = new ReentrantLock();
+        notEmpty = lock.newCondition();
+    }
+
+    /**
+     * Add the given element at the tail of this queue. If the queue is full, the
+     * oldest element or the given element is dropped according to the overflow
+     * policy. Nothing happens if the queue is closed.
+     *
+     * @param element The element to add.
+     * @return True if no element has been dropped, false otherwise.
+     */
+    public boolean offer(T element) {
+        lock.lock();
+        try {
+            if (isClosed) {
+                return false;
+            }
+
+            if (size == elements.length) {
+                dropped++;
+
+                if (policy == OverflowPolicy.DROP_NEWEST) {
+                    return false;
+                }
+
+                // Overwriting the oldest element
+                elements[head] = element;
+                head = (head + 1) % elements.length;
+                return false;
+            }
+
+            elements[(head + size) % elements.length] = element;
+            size++;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Block until an element is available and remove it from the head of this
+     * queue.
+     *
+     * @return The element at the head of this queue, or null if the queue has been
+     * closed.
+     */
+    @SuppressWarnings("unchecked")
+    public T take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (size == 0 && !isClosed) {
+                notEmpty.await();
+            }
+
+            if (size == 0) {
+                return null;
+            }
+
+            T element = (T) elements[head];
+            elements[head] = null;
+            head = (head + 1) % elements.length;
+            size--;
+            return element;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Close this queue. The elements already in the queue can still be taken,
+     * then the threads waiting for an element are released.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            isClosed = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of elements in this queue.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of elements dropped because this queue was full.
+     */
+    public long getDropped() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package fr.pederobien.communication.impl.server;
 
-import fr.pederobien.communication.event.ServerUnstableEvent;
+import fr.pederobien.communication.impl.connection.SharedMessage;
 import fr.pederobien.communication.impl.server.state.Context;
 import fr.pederobien.communication.impl.server.state.IContext;
+import fr.pederobien.communication.interfaces.connection.IConnection;
+import fr.pederobien.communication.interfaces.connection.IMessage;
+import fr.pederobien.communication.interfaces.connection.ISharedMessage;
+import fr.pederobien.communication.interfaces.server.IConnectionRegistry;
+import fr.pederobien.communication.interfaces.server.IHandshakeMetrics;
 import fr.pederobien.communication.interfaces.server.IServer;
 import fr.pederobien.communication.interfaces.server.IServerConfig;
 import fr.pederobien.communication.interfaces.server.IServerImpl;
-import fr.pederobien.utils.event.EventHandler;
-import fr.pederobien.utils.event.EventManager;
-import fr.pederobien.utils.event.IEventListener;
+import fr.pederobien.communication.interfaces.server.IServerListener;
 
-public class Server<T> implements IServer, IEventListener {
+import java.util.function.Predicate;
+
+public class Server<T> implements IServer {
     private final IContext context;
 
     /**
@@ -22,8 +27,6 @@ public class Server<T> implements IServer, IEventListener {
      */
     public Server(IServerConfig<T> config, IServerImpl<T> impl) {
         context = new Context<T>(this, config, impl);
-
-        EventManager.registerListener(this);
     }
 
     @Override
@@ -42,16 +45,46 @@ public class Server<T> implements IServer, IEventListener {
     }
 
     @Override
-    public String toString() {
-        return context.getName();
+    public IHandshakeMetrics getHandshakeMetrics() {
+        return context.getHandshakeMetrics();
+    }
+
+    @Override
+    public IConnectionRegistry<?> getConnections() {
+        return context.getConnections();
     }
 
-    @EventHandler
-    private void onUnstableServer(ServerUnstableEvent event) {
-        if (event.getServer() != this) {
-            return;
+    @Override
+    public int broadcast(IMessage message, Predicate<IConnection> filter) {
+        ISharedMessage shared = new SharedMessage(message);
+
+        int count = 0;
+        for (IConnection connection : context.getConnections()) {
+            if (connection.isEnabled() && filter.test(connection)) {
+                try {
+                    connection.send(shared);
+                    count++;
+                } catch (Exception e) {
+                    // The connection has been disposed in the meantime
+                }
+            }
         }
 
-        event.getServer().close();
+        return count;
+    }
+
+    @Override
+    public void addListener(IServerListener listener) {
+        context.addListener(listener);
+    }
+
+    @Override
+    public void removeListener(IServerListener listener) {
+        context.removeListener(listener);
+    }
+
+    @Override
+    public String toString() {
+        return context.getName();
     }
 }
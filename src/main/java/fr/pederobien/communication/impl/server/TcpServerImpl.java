@@ -3,6 +3,7 @@ package fr.pederobien.communication.impl.server;
 import fr.pederobien.communication.impl.EthernetEndPoint;
 import fr.pederobien.communication.impl.connection.TcpConnectionImpl;
 import fr.pederobien.communication.interfaces.IEthernetEndPoint;
+import fr.pederobien.communication.interfaces.connection.IBufferPool;
 import fr.pederobien.communication.interfaces.server.IClientInfo;
 import fr.pederobien.communication.interfaces.server.IServerConfig;
 import fr.pederobien.communication.interfaces.server.IServerImpl;
@@ -13,6 +14,7 @@ import java.net.Socket;
 
 public class TcpServerImpl implements IServerImpl<IEthernetEndPoint> {
     private ServerSocket serverSocket;
+    private IBufferPool pool;
 
     /**
      * Creates a TCP implementation for a server.
@@ -25,6 +27,7 @@ public class TcpServerImpl implements IServerImpl<IEthernetEndPoint> {
     public void open(IServerConfig<IEthernetEndPoint> config) throws Exception {
         String address = config.getPoint().getAddress();
         int port = config.getPoint().getPort();
+        pool = config.getBufferPool();
 
         // Note: The port number does not matter, if the value is out of range, the socket will throw an exception
         // if the value is 0, the host machine will choose an ephemeral (ie first free) port.
@@ -59,6 +62,6 @@ public class TcpServerImpl implements IServerImpl<IEthernetEndPoint> {
         // Creating remote end point
         EthernetEndPoint endPoint = new EthernetEndPoint(address, port);
 
-        return new ClientInfo<IEthernetEndPoint>(endPoint, new TcpConnectionImpl(socket));
+        return new ClientInfo<IEthernetEndPoint>(endPoint, new TcpConnectionImpl(socket, pool));
     }
 }
@@ -9,16 +9,47 @@ import fr.pederobien.communication.interfaces.server.IServerConfig;
 import fr.pederobien.communication.interfaces.server.IServerImpl;
 
 public class UdpServerImpl implements IServerImpl<IEthernetEndPoint> {
+    private final int workers;
     private UdpServerSocket serverSocket;
 
+    /**
+     * Creates a UDP implementation for a server. Datagrams are received in
+     * parallel by several sockets bound to the same port if the platform supports
+     * it, by one socket otherwise.
+     *
+     * @param workers The number of sockets receiving datagrams in parallel.
+     */
+    public UdpServerImpl(int workers) {
+        this.workers = workers;
+    }
+
+    /**
+     * Creates a UDP implementation for a server with as many receiving sockets as
+     * available processors.
+     */
+    public UdpServerImpl() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
     @Override
     public void open(IServerConfig<IEthernetEndPoint> config) throws Exception {
-        serverSocket = new UdpServerSocket(config.getName(), config.getPoint().getAddress(), config.getPoint().getPort());
+        String address = config.getPoint().getAddress();
+        int port = config.getPoint().getPort();
+        serverSocket = new UdpServerSocket(config.getName(), address, port, workers, config.getBufferPool(),
+                config.getReceptionQueueCapacity(), config.getOverflowPolicy());
 
         // In case the port number from config is 0, the port number is defined by the host machine
         config.getPoint().setPort(serverSocket.getLocalPort());
     }
 
+    /**
+     * @return The number of datagrams dropped because the reception queue of their
+     * client was full, or 0 if the server has never been opened.
+     */
+    public long getDroppedPackets() {
+        return serverSocket == null ? 0 : serverSocket.getDroppedPackets();
+    }
+
     @Override
     public void close() throws Exception {
         serverSocket.close();
@@ -1,57 +1,124 @@
 package fr.pederobien.communication.impl.server;
 
+import fr.pederobien.communication.impl.connection.BufferPool;
+import fr.pederobien.communication.interfaces.connection.IBufferPool;
 import fr.pederobien.communication.interfaces.connection.IUdpSocket;
+import fr.pederobien.communication.interfaces.server.IServerConfig.OverflowPolicy;
 import fr.pederobien.utils.BlockingQueueTask;
 
+import java.io.IOException;
 import java.net.*;
-import java.util.HashMap;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
 import java.util.Map;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
 
 public class UdpServerSocket {
-    private final DatagramSocket socket;
+    /**
+     * Maximum size of the payload of a UDP datagram.
+     */
+    private static final int MAX_DATAGRAM_SIZE = 65536;
+
+    private final DatagramChannel[] channels;
+    private final Thread[] receivingThreads;
+    private final IBufferPool pool;
     private final BlockingQueueTask<DatagramPacket> sendingQueue;
-    private final BlockingQueueTask<DatagramPacket> notifyingQueue;
-    private final Thread receivingThread;
-    private final NewClientWaiter clientWaiter;
+    private final Demultiplexer demultiplexer;
     private final int localPort;
 
     /**
-     * Creates a socket to communicate through UDP with the remote.
+     * Creates a socket to communicate through UDP with the remote. If the
+     * platform supports SO_REUSEPORT, several channels are bound to the same port
+     * and the system spreads the clients over them, each channel being served by
+     * its own receiving thread. The datagrams of a client are always received by
+     * the same channel, so their order is kept. As without SO_REUSEPORT, the
+     * creation fails if the port is already used by another socket.
      *
-     * @param name    The name of this socket.
-     * @param address The address of this socket.
-     * @param port    The port number of this socket.
+     * @param name     The name of this socket.
+     * @param address  The address of this socket.
+     * @param port     The port number of this socket.
+     * @param workers  The number of channels receiving datagrams in parallel.
+     * @param pool     The pool that provides the buffers in which datagrams are
+     *                 received.
+     * @param capacity The maximum number of datagrams waiting to be processed per
+     *                 client.
+     * @param policy   The datagram dropped when the queue of a client is full.
      */
-    public UdpServerSocket(String name, String address, int port) throws Exception {
+    public UdpServerSocket(String name, String address, int port, int workers, IBufferPool pool, int capacity,
+            OverflowPolicy policy) throws Exception {
+        this.pool = pool;
+
         // Note: The port number does not matter, if the value is out of range, the socket will throw an exception
         // if the value is 0, the host machine will choose an ephemeral (ie first free) port.
+        InetSocketAddress local;
 
         // Case 1: Any address
         if (address.equals("*")) {
-            socket = new DatagramSocket(port);
+            local = new InetSocketAddress(port);
         }
         // Case 2: Specific hostname
         else {
-            socket = new DatagramSocket(port, InetAddress.getByName(address));
+            local = new InetSocketAddress(InetAddress.getByName(address), port);
+        }
+
+        boolean isReusePort = workers > 1 && isReusePortSupported();
+        channels = new DatagramChannel[isReusePort ? workers : 1];
+
+        // Another socket must not already use the port, otherwise the system would spread the clients over both
+        if (isReusePort) {
+            local = reserve(local);
+        }
+
+        try {
+            for (int i = 0; i < channels.length; i++) {
+                DatagramChannel channel = DatagramChannel.open();
+                channels[i] = channel;
+
+                if (isReusePort) {
+                    channel.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+                }
+
+                // The next channels are bound to the port chosen for the first one
+                channel.bind(local);
+                local = (InetSocketAddress) channel.getLocalAddress();
+            }
+        } catch (Exception e) {
+            closeChannels();
+            throw e;
         }
 
-        localPort = socket.getLocalPort();
+        localPort = local.getPort();
 
         sendingQueue = new BlockingQueueTask<DatagramPacket>(name + "_send", this::sending);
-        notifyingQueue = new BlockingQueueTask<DatagramPacket>(name + "_notify", this::notifying);
-        receivingThread = new Thread(this::receiving, name + "_receive");
-        clientWaiter = new NewClientWaiter(this);
+        demultiplexer = new Demultiplexer(this, capacity, policy);
 
         // Starting thread waiting for sending data to the remote
         sendingQueue.start();
 
-        // Starting thread looping for receiving data from the remote.
-        receivingThread.setDaemon(true);
-        receivingThread.start();
+        // Starting threads looping for receiving data from the remote.
+        receivingThreads = new Thread[channels.length];
+        for (int i = 0; i < channels.length; i++) {
+            DatagramChannel channel = channels[i];
+            receivingThreads[i] = new Thread(() -> receiving(channel), String.format("%s_receive_%s", name, i));
+            receivingThreads[i].setDaemon(true);
+            receivingThreads[i].start();
+        }
+    }
 
-        // Starting thread waiting for packet reception
-        notifyingQueue.start();
+    /**
+     * Creates a socket to communicate through UDP with the remote. Datagrams are
+     * received by one thread, at most 1024 datagrams wait to be processed per
+     * client and the oldest datagram is dropped when this limit is reached.
+     *
+     * @param name    The name of this socket.
+     * @param address The address of this socket.
+     * @param port    The port number of this socket.
+     */
+    public UdpServerSocket(String name, String address, int port) throws Exception {
+        this(name, address, port, 1, BufferPool.getDefault(), 1024, OverflowPolicy.DROP_OLDEST);
     }
 
     /**
@@ -66,11 +133,37 @@ public class UdpServerSocket {
         return localPort;
     }
 
+    /**
+     * @return The number of channels receiving datagrams in parallel.
+     */
+    public int getWorkers() {
+        return channels.length;
+    }
+
+    /**
+     * @return The number of datagrams dropped because the queue of their remote was
+     * full.
+     */
+    public long getDroppedPackets() {
+        return demultiplexer.getDropped();
+    }
+
+    /**
+     * @param address The address of the remote.
+     * @return The number of datagrams of the given remote dropped because its queue
+     * was full.
+     */
+    public long getDroppedPackets(InetSocketAddress address) {
+        return demultiplexer.getDropped(address);
+    }
+
     /**
      * Close this socket.
      */
     public void close() {
-        socket.close();
+        closeChannels();
+        sendingQueue.dispose();
+        demultiplexer.close();
     }
 
     /**
@@ -79,7 +172,7 @@ public class UdpServerSocket {
      * @return The socket bound to the remote.
      */
     public IUdpSocket accept() throws InterruptedException {
-        return clientWaiter.waitForNewClient();
+        return demultiplexer.waitForNewClient();
     }
 
     /**
@@ -99,10 +192,11 @@ public class UdpServerSocket {
      * Connection specific implementation to receive bytes from the remote.
      *
      * @param address The address
-     * @return The packet received from the remote.
+     * @return The packet received from the remote, or null if the remote has been
+     * unregistered.
      */
     protected DatagramPacket receive(InetSocketAddress address) {
-        return clientWaiter.get(address).waitForReception();
+        return demultiplexer.take(address);
     }
 
     /**
@@ -111,107 +205,121 @@ public class UdpServerSocket {
      * @param address The remote address of the waiter.
      */
     protected void unregister(InetSocketAddress address) {
-        clientWaiter.unregister(address);
+        demultiplexer.unregister(address);
     }
 
     /**
-     * Send the packet to the remote.
+     * Bind a socket, without SO_REUSEPORT, to the given address in order to check
+     * that no other socket already uses the port, then release it. The channels of
+     * this socket are then the only ones bound to the port, unless another program
+     * of the same user binds a socket with SO_REUSEPORT to the same port.
      *
-     * @param packet The packet to send.
+     * @param local The address to which the channels are bound, its port may be 0.
+     * @return The address with the port chosen by the system.
+     * @throws IOException If the port is already in use.
      */
-    private void sending(DatagramPacket packet) {
-        try {
-            socket.send(packet);
-        } catch (Exception e) {
-            // TODO: unstable counter
+    private static InetSocketAddress reserve(InetSocketAddress local) throws IOException {
+        try (DatagramChannel channel = DatagramChannel.open()) {
+            channel.bind(local);
+            return (InetSocketAddress) channel.getLocalAddress();
         }
     }
 
     /**
-     * Block until data has been received from the remote.
+     * Close the channels opened by this socket.
      */
-    private void receiving() {
-        try {
-            byte[] buffer = new byte[2048];
-            while (true) {
-                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
-                socket.receive(packet);
+    private void closeChannels() {
+        for (DatagramChannel channel : channels) {
+            if (channel == null) {
+                continue;
+            }
 
-                // Handling the received in a dedicated task
-                notifyingQueue.add(packet);
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Do nothing
             }
-        } catch (Exception e) {
-            // Server has been closed
         }
     }
 
     /**
-     * If no waiter is registered for the packet address then a new waiter is
-     * created, else the existing waiter will be notified that data has been
-     * received.
-     *
-     * @param packet The packet received from the network.
+     * @return True if several sockets can be bound to the same port.
      */
-    private void notifying(DatagramPacket packet) {
-        clientWaiter.onDataReceived(packet);
+    private static boolean isReusePortSupported() {
+        try (DatagramChannel channel = DatagramChannel.open()) {
+            return channel.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        } catch (IOException e) {
+            return false;
+        }
     }
 
-    private static class Waiter {
-        private final Semaphore semaphore;
-        private DatagramPacket packet;
-
-        /**
-         * Creates an object that will wait until data has been received
-         */
-        public Waiter() {
-            semaphore = new Semaphore(0);
+    /**
+     * Send the packet to the remote.
+     *
+     * @param packet The packet to send.
+     */
+    private void sending(DatagramPacket packet) {
+        try {
+            // All the channels are bound to the same port, the remote cannot make the difference
+            channels[0].send(ByteBuffer.wrap(packet.getData(), packet.getOffset(), packet.getLength()), packet.getSocketAddress());
+        } catch (Exception e) {
+            // TODO: unstable counter
         }
+    }
 
-        /**
-         * Block until data has been received for this object.
-         *
-         * @return The packet received from the remote.
-         */
-        public DatagramPacket waitForReception() {
-            try {
-                semaphore.acquire();
-            } catch (InterruptedException e) {
-                return null;
-            }
+    /**
+     * Block until data has been received from the remote.
+     *
+     * @param channel The channel from which datagrams are received.
+     */
+    private void receiving(DatagramChannel channel) {
+        ByteBuffer buffer = pool.acquire(MAX_DATAGRAM_SIZE);
 
-            return packet;
-        }
+        try {
+            while (true) {
+                buffer.clear();
+                SocketAddress address = channel.receive(buffer);
+                buffer.flip();
 
-        /**
-         * Set the datagram packet received from the remote and notify for further
-         * processing.
-         *
-         * @param packet The datagram packet received from the remote.
-         */
-        public void notifyForReception(DatagramPacket packet) {
-            this.packet = packet;
-            semaphore.release();
+                // Each packet has its own bytes array, the buffer is reused for the next datagram
+                byte[] data = new byte[buffer.remaining()];
+                buffer.get(data);
+
+                demultiplexer.onDataReceived(new DatagramPacket(data, data.length, address));
+            }
+        } catch (Exception e) {
+            // Server has been closed
+        } finally {
+            pool.release(buffer);
         }
     }
 
-    private static class NewClientWaiter {
+    private static class Demultiplexer {
         private final UdpServerSocket serverSocket;
-        private final Object lock;
-        private final Map<SocketAddress, Waiter> waiters;
-        private final Semaphore semaphore;
-        private IUdpSocket socket;
+        private final int capacity;
+        private final OverflowPolicy policy;
+        private final Map<SocketAddress, RingQueue<DatagramPacket>> queues;
+        private final BlockingQueue<IUdpSocket> sockets;
+        private final LongAdder dropped;
 
         /**
-         * Creates an object waiting for new UDP client to be connected.
+         * Creates an object that dispatches the received datagrams to the queue of
+         * their remote and waits for new UDP clients to be connected.
          *
-         * @param serverSocket The server socket on which UDP will be connected.
+         * @param serverSocket The server socket on which UDP clients will be
+         *                     connected.
+         * @param capacity     The maximum number of datagrams waiting to be processed
+         *                     per client.
+         * @param policy       The datagram dropped when the queue of a client is full.
          */
-        public NewClientWaiter(UdpServerSocket serverSocket) {
+        public Demultiplexer(UdpServerSocket serverSocket, int capacity, OverflowPolicy policy) {
             this.serverSocket = serverSocket;
+            this.capacity = capacity;
+            this.policy = policy;
 
-            lock = new Object();
-            waiters = new HashMap<SocketAddress, Waiter>();
-            semaphore = new Semaphore(0);
+            queues = new ConcurrentHashMap<SocketAddress, RingQueue<DatagramPacket>>();
+            sockets = new LinkedBlockingQueue<IUdpSocket>();
+            dropped = new LongAdder();
         }
 
         /**
@@ -220,56 +328,91 @@ public class UdpServerSocket {
          * @return The socket connected with the remote.
          */
         public IUdpSocket waitForNewClient() throws InterruptedException {
-            semaphore.acquire();
-            return socket;
+            return sockets.take();
         }
 
         /**
-         * If no waiter is registered for the packet address then a new waiter is
-         * created, else the existing waiter will be notified that data has been
-         * received.
+         * If no queue is registered for the packet address then a new queue is
+         * created and the packet is used to signal a new client, else the packet is
+         * added to the existing queue. This method can be called by several receiving
+         * threads at the same time.
          *
          * @param packet The packet received from the network.
          */
         public void onDataReceived(DatagramPacket packet) {
-            Waiter waiter = null;
-            synchronized (lock) {
-                waiter = waiters.get(packet.getSocketAddress());
+            RingQueue<DatagramPacket> queue = queues.get(packet.getSocketAddress());
+
+            if (queue == null) {
+                RingQueue<DatagramPacket> created = new RingQueue<DatagramPacket>(capacity, policy);
+                if (queues.putIfAbsent(packet.getSocketAddress(), created) == null) {
+                    sockets.add(new UdpSocket(serverSocket, (InetSocketAddress) packet.getSocketAddress()));
+                    return;
+                }
+
+                queue = queues.get(packet.getSocketAddress());
             }
 
-            if (waiter == null) {
-                waiter = new Waiter();
-                waiters.put(packet.getSocketAddress(), waiter);
-                socket = new UdpSocket(serverSocket, (InetSocketAddress) packet.getSocketAddress());
-                semaphore.release();
-            } else {
-                waiter.notifyForReception(packet);
+            if (queue != null && !queue.offer(packet)) {
+                dropped.increment();
             }
         }
 
         /**
-         * Get the waiter associated to the given address.
+         * Block until a datagram has been received from the given address.
          *
          * @param address The address of the remote.
-         * @return The waiter associated to the remote address.
+         * @return The datagram received from the remote, or null if the remote has
+         * been unregistered.
          */
-        public Waiter get(SocketAddress address) {
-            Waiter waiter = null;
-            synchronized (lock) {
-                waiter = waiters.get(address);
+        public DatagramPacket take(SocketAddress address) {
+            RingQueue<DatagramPacket> queue = queues.get(address);
+            if (queue == null) {
+                return null;
             }
 
-            return waiter;
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                return null;
+            }
         }
 
         /**
-         * Remove the waiter associated to the given address.
+         * @return The number of datagrams dropped since the creation of the server.
+         */
+        public long getDropped() {
+            return dropped.sum();
+        }
+
+        /**
+         * @param address The address of the remote.
+         * @return The number of datagrams of the given remote dropped because its queue
+         * was full, or 0 if the remote is not registered.
+         */
+        public long getDropped(SocketAddress address) {
+            RingQueue<DatagramPacket> queue = queues.get(address);
+            return queue == null ? 0 : queue.getDropped();
+        }
+
+        /**
+         * Remove the queue associated to the given address and release the thread
+         * waiting for a datagram.
          *
-         * @param address The remote address of the waiter.
+         * @param address The remote address of the queue.
          */
         public void unregister(SocketAddress address) {
-            synchronized (lock) {
-                waiters.remove(address);
+            RingQueue<DatagramPacket> queue = queues.remove(address);
+            if (queue != null) {
+                queue.close();
+            }
+        }
+
+        /**
+         * Release all the threads waiting for a datagram.
+         */
+        public void close() {
+            for (RingQueue<DatagramPacket> queue : queues.values()) {
+                queue.close();
             }
         }
     }
@@ -44,7 +44,7 @@ public class UdpSocket implements IUdpSocket {
         DatagramPacket packet = socket.receive(address);
 
         // Checking if connection has to be closed
-        if (packet.getLength() == CLOSE.length) {
+        if (packet != null && packet.getLength() == CLOSE.length) {
             byte[] data = new byte[CLOSE.length];
             System.arraycopy(packet.getData(), 0, data, 0, CLOSE.length);
 
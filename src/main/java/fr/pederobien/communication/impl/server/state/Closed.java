@@ -1,8 +1,6 @@
 package fr.pederobien.communication.impl.server.state;
 
 import fr.pederobien.communication.event.ServerCloseEvent;
-import fr.pederobien.communication.event.ServerDisposeEvent;
-import fr.pederobien.utils.event.EventManager;
 
 public class Closed<T> extends State<T> {
 
@@ -18,7 +16,7 @@ public class Closed<T> extends State<T> {
                 // Server specific implementation to close the server
                 getContext().getImpl().close();
 
-                EventManager.callEvent(new ServerCloseEvent(getContext().getServer()));
+                getContext().callEvent(new ServerCloseEvent(getContext().getServer()));
                 info("Server closed");
             } catch (Exception e) {
                 e.printStackTrace();
@@ -37,7 +35,6 @@ public class Closed<T> extends State<T> {
     public boolean dispose() {
         info("Disposing server");
 
-        EventManager.callEvent(new ServerDisposeEvent(getContext().getServer()));
         getContext().getCounter().dispose();
         getContext().setState(getContext().getDisposed());
         return true;
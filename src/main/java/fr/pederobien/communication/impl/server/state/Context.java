@@ -1,13 +1,24 @@
 package fr.pederobien.communication.impl.server.state;
 
+import fr.pederobien.communication.event.NewClientEvent;
+import fr.pederobien.communication.event.ServerCloseEvent;
+import fr.pederobien.communication.event.ServerDisposeEvent;
+import fr.pederobien.communication.event.ServerEvent;
+import fr.pederobien.communication.event.ServerOpenEvent;
 import fr.pederobien.communication.event.ServerUnstableEvent;
+import fr.pederobien.communication.impl.server.ConnectionRegistry;
+import fr.pederobien.communication.interfaces.server.IHandshakeMetrics;
 import fr.pederobien.communication.interfaces.server.IServer;
 import fr.pederobien.communication.interfaces.server.IServerConfig;
 import fr.pederobien.communication.interfaces.server.IServerImpl;
+import fr.pederobien.communication.interfaces.server.IServerListener;
 import fr.pederobien.utils.HealedCounter;
 import fr.pederobien.utils.event.EventManager;
 import fr.pederobien.utils.event.Logger;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 public class Context<T> implements IContext {
     private final IServer server;
     private final IServerConfig<T> config;
@@ -15,6 +26,9 @@ public class Context<T> implements IContext {
     private final IState opened;
     private final IState closed;
     private final IState disposed;
+    private final HandshakeExecutor handshakeExecutor;
+    private final ConnectionRegistry<T> connections;
+    private final List<IServerListener> listeners;
     private HealedCounter counter;
     private IState state;
     private boolean firstInit;
@@ -24,11 +38,18 @@ public class Context<T> implements IContext {
         this.config = config;
         this.impl = impl;
 
+        connections = new ConnectionRegistry<T>();
+        listeners = new CopyOnWriteArrayList<IServerListener>();
+
         opened = new Opened<T>(this);
         closed = new Closed<T>(this);
         disposed = new Disposed<T>(this);
         state = closed;
 
+        int concurrency = config.getHandshakeConcurrency();
+        int backlog = config.getHandshakeBacklog();
+        handshakeExecutor = new HandshakeExecutor(getName(), concurrency, backlog, config.getExecutionMode());
+
         firstInit = true;
     }
 
@@ -57,6 +78,55 @@ public class Context<T> implements IContext {
         return String.format("[%s %s]", config.getName(), config.getPoint());
     }
 
+    @Override
+    public IHandshakeMetrics getHandshakeMetrics() {
+        return handshakeExecutor;
+    }
+
+    @Override
+    public ConnectionRegistry<T> getConnections() {
+        return connections;
+    }
+
+    @Override
+    public void addListener(IServerListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(IServerListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Notify the listeners of the server and, if mirrored, the listeners of the
+     * global event bus.
+     *
+     * @param event The event to throw.
+     */
+    public void callEvent(ServerEvent event) {
+        for (IServerListener listener : listeners) {
+            try {
+                switch (event) {
+                    case ServerOpenEvent open -> listener.onOpen(open);
+                    case NewClientEvent newClient -> listener.onNewClient(newClient);
+                    case ServerUnstableEvent unstable -> listener.onUnstable(unstable);
+                    case ServerCloseEvent close -> listener.onClose(close);
+                    case ServerDisposeEvent dispose -> listener.onDispose(dispose);
+                    default -> {
+                        // Do nothing
+                    }
+                }
+            } catch (Exception e) {
+                Logger.warning("%s - Listener failure: %s", getName(), e.getMessage());
+            }
+        }
+
+        if (config.isEventBusMirrored()) {
+            EventManager.callEvent(event);
+        }
+    }
+
     /**
      * @return The server associated to this context.
      */
@@ -99,6 +169,13 @@ public class Context<T> implements IContext {
         return disposed;
     }
 
+    /**
+     * @return The executor that initialises the connections with the clients.
+     */
+    public HandshakeExecutor getHandshakeExecutor() {
+        return handshakeExecutor;
+    }
+
     /**
      * @return The healed-counter associated to this context.
      */
@@ -138,6 +215,7 @@ public class Context<T> implements IContext {
      */
     private void onServerUnstable() {
         Logger.error(String.format("%s - closing server", this));
-        EventManager.callEvent(new ServerUnstableEvent(server));
+        callEvent(new ServerUnstableEvent(server));
+        server.close();
     }
 }
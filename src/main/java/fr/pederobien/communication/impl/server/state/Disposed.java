@@ -1,7 +1,6 @@
 package fr.pederobien.communication.impl.server.state;
 
 import fr.pederobien.communication.event.ServerDisposeEvent;
-import fr.pederobien.utils.event.EventManager;
 
 public class Disposed<T> extends State<T> {
 
@@ -13,7 +12,7 @@ public class Disposed<T> extends State<T> {
     public void setEnabled(boolean isEnabled) {
         if (isEnabled) {
 
-            EventManager.callEvent(new ServerDisposeEvent(getContext().getServer()));
+            getContext().callEvent(new ServerDisposeEvent(getContext().getServer()));
             info("Server disposed");
         }
     }
@@ -0,0 +1,176 @@
+package fr.pederobien.communication.impl.server.state;
+
+import fr.pederobien.communication.interfaces.IConfiguration.ExecutionMode;
+import fr.pederobien.communication.interfaces.connection.IConnection;
+import fr.pederobien.communication.interfaces.server.IHandshakeMetrics;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+public class HandshakeExecutor implements IHandshakeMetrics {
+    private final String name;
+    private final int concurrency;
+    private final int backlog;
+    private final ExecutionMode mode;
+    private final AtomicInteger active;
+    private final AtomicLong completed;
+    private final AtomicLong failed;
+    private final AtomicLong rejected;
+    private volatile ThreadPoolExecutor executor;
+
+    /**
+     * Creates an executor to initialise the connections with the clients
+     * accepted by a server. The thread waiting for clients is then never blocked
+     * by the initialisation of a connection.
+     *
+     * @param name        The name of the server.
+     * @param concurrency The maximum number of connections initialised at the
+     *                    same time.
+     * @param backlog     The maximum number of connections waiting for a thread to
+     *                    be initialised.
+     * @param mode        The kind of thread used to initialise the connections.
+     */
+    public HandshakeExecutor(String name, int concurrency, int backlog, ExecutionMode mode) {
+        this.name = name;
+        this.concurrency = concurrency;
+        this.backlog = backlog;
+        this.mode = mode;
+
+        active = new AtomicInteger(0);
+        completed = new AtomicLong(0);
+        failed = new AtomicLong(0);
+        rejected = new AtomicLong(0);
+    }
+
+    /**
+     * Creates the threads to initialise the connections. Must be called each time
+     * the server is opened.
+     */
+    public synchronized void start() {
+        ArrayBlockingQueue<Runnable> queue = new ArrayBlockingQueue<Runnable>(Math.max(1, backlog));
+        executor = new ThreadPoolExecutor(concurrency, concurrency, 60, TimeUnit.SECONDS, queue, createFactory());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Interrupts the connections being initialised and returns the connections
+     * that were waiting to be initialised.
+     *
+     * @return The list of connections that have not been initialised.
+     */
+    public synchronized List<IConnection> stop() {
+        if (executor == null) {
+            return List.of();
+        }
+
+        List<IConnection> pending = executor.shutdownNow().stream().map(runnable -> ((Handshake) runnable).connection).toList();
+        executor = null;
+        return pending;
+    }
+
+    /**
+     * Initialise asynchronously the given connection.
+     *
+     * @param connection The connection to initialise.
+     * @param onDone     The code to execute once the initialisation is done, with
+     *                   the result of the initialisation.
+     * @return False if the backlog is full, the connection must then be disposed.
+     */
+    public synchronized boolean submit(IConnection connection, BiConsumer<IConnection, Boolean> onDone) {
+        try {
+            if (executor != null) {
+                executor.execute(new Handshake(connection, onDone));
+                return true;
+            }
+        } catch (RejectedExecutionException e) {
+            // Do nothing, the backlog is full
+        }
+
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    @Override
+    public int getQueued() {
+        ThreadPoolExecutor current = executor;
+        return current == null ? 0 : current.getQueue().size();
+    }
+
+    @Override
+    public int getActive() {
+        return active.get();
+    }
+
+    @Override
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    @Override
+    public long getFailed() {
+        return failed.get();
+    }
+
+    @Override
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("queued=%s, active=%s, completed=%s, failed=%s, rejected=%s", getQueued(), getActive(),
+                getCompleted(), getFailed(), getRejected());
+    }
+
+    /**
+     * @return The factory that creates the threads of the executor.
+     */
+    private ThreadFactory createFactory() {
+        String threadName = String.format("%s handshake-", name);
+
+        return switch (mode) {
+            case VIRTUAL -> Thread.ofVirtual().name(threadName, 0).factory();
+            case PLATFORM -> Thread.ofPlatform().name(threadName, 0).daemon(true).factory();
+        };
+    }
+
+    private class Handshake implements Runnable {
+        private final IConnection connection;
+        private final BiConsumer<IConnection, Boolean> onDone;
+
+        /**
+         * Creates a task to initialise a connection.
+         *
+         * @param connection The connection to initialise.
+         * @param onDone     The code to execute once the initialisation is done.
+         */
+        private Handshake(IConnection connection, BiConsumer<IConnection, Boolean> onDone) {
+            this.connection = connection;
+            this.onDone = onDone;
+        }
+
+        @Override
+        public void run() {
+            active.incrementAndGet();
+
+            boolean initialised = false;
+            try {
+                initialised = connection.initialise();
+            } catch (Exception e) {
+                // Do nothing, the initialisation failed
+            } finally {
+                active.decrementAndGet();
+            }
+
+            (initialised ? completed : failed).incrementAndGet();
+            onDone.accept(connection, initialised);
+        }
+    }
+}
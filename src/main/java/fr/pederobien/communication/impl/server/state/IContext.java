@@ -1,5 +1,9 @@
 package fr.pederobien.communication.impl.server.state;
 
+import fr.pederobien.communication.interfaces.server.IConnectionRegistry;
+import fr.pederobien.communication.interfaces.server.IHandshakeMetrics;
+import fr.pederobien.communication.interfaces.server.IServerListener;
+
 public interface IContext {
 
     /**
@@ -27,4 +31,29 @@ public interface IContext {
      * @return The server name.
      */
     String getName();
+
+    /**
+     * @return The metrics about the initialisation of the connections with the
+     * clients.
+     */
+    IHandshakeMetrics getHandshakeMetrics();
+
+    /**
+     * @return The registry of the connections with the clients.
+     */
+    IConnectionRegistry<?> getConnections();
+
+    /**
+     * Register a listener notified of the events of the server.
+     *
+     * @param listener The listener to register.
+     */
+    void addListener(IServerListener listener);
+
+    /**
+     * Unregister a listener from the server.
+     *
+     * @param listener The listener to unregister.
+     */
+    void removeListener(IServerListener listener);
 }
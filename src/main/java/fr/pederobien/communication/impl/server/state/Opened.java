@@ -2,44 +2,42 @@ package fr.pederobien.communication.impl.server.state;
 
 import fr.pederobien.communication.event.*;
 import fr.pederobien.communication.impl.Communication;
+import fr.pederobien.communication.impl.server.ConnectionRegistry;
 import fr.pederobien.communication.interfaces.connection.IConnection;
+import fr.pederobien.communication.interfaces.connection.IConnectionListener;
 import fr.pederobien.communication.interfaces.server.IClientInfo;
-import fr.pederobien.utils.event.EventHandler;
-import fr.pederobien.utils.event.EventManager;
-import fr.pederobien.utils.event.IEventListener;
 import fr.pederobien.utils.event.Logger;
 
-import java.util.ArrayList;
-import java.util.List;
-
-public class Opened<T> extends State<T> implements IEventListener {
-    private final List<IConnection> connections;
+public class Opened<T> extends State<T> implements IConnectionListener {
+    private final ConnectionRegistry<T> connections;
+    private final Object lock;
     private Thread waiter;
-    private boolean closeRequested;
+    private volatile boolean closeRequested;
 
     public Opened(Context<T> context) {
         super(context);
 
-        connections = new ArrayList<IConnection>();
+        connections = context.getConnections();
+        lock = new Object();
     }
 
     @Override
     public void setEnabled(boolean isEnabled) {
         if (isEnabled) {
-            EventManager.registerListener(this);
             try {
 
                 // Server implementation specific to open the server
                 getContext().getImpl().open(getConfig());
 
                 closeRequested = false;
+                getContext().getHandshakeExecutor().start();
 
                 String name = String.format("[%s %s - waitForClient]", getConfig().getName(), getConfig().getPoint());
                 waiter = new Thread(this::waitForClient, name);
                 waiter.setDaemon(true);
                 waiter.start();
 
-                EventManager.callEvent(new ServerOpenEvent(getContext().getServer()));
+                getContext().callEvent(new ServerOpenEvent(getContext().getServer()));
                 info("Server opened");
             } catch (Exception e) {
                 e.printStackTrace();
@@ -53,13 +51,19 @@ public class Opened<T> extends State<T> implements IEventListener {
         closeRequested = true;
         waiter.interrupt();
 
-        EventManager.unregisterListener(this);
-
-        for (IConnection connection : connections) {
+        // Connections accepted but not initialised yet
+        for (IConnection connection : getContext().getHandshakeExecutor().stop()) {
             disposeConnection(connection);
         }
 
-        connections.clear();
+        synchronized (lock) {
+            for (IConnection connection : connections) {
+                disposeConnection(connection);
+            }
+
+            connections.clear();
+        }
+
         getContext().setState(getContext().getClosed());
         return true;
     }
@@ -78,19 +82,12 @@ public class Opened<T> extends State<T> implements IEventListener {
                 }
 
                 IConnection connection = Communication.createConnection(getConfig(), info.getEndPoint(), info.getImpl());
-                boolean initialised = connection.initialise();
-
-                if (closeRequested || !connection.initialise()) {
-                    if (!initialised) {
-                        Logger.warning("%s - Initialisation failure", getContext().getName());
-                    }
 
+                // The connection is initialised by another thread in order to accept other clients
+                T endPoint = info.getEndPoint();
+                if (!getContext().getHandshakeExecutor().submit(connection, (c, initialised) -> onInitialised(endPoint, c, initialised))) {
+                    Logger.warning("%s - Too many pending handshakes, client rejected", getContext().getName());
                     disposeConnection(connection);
-                } else {
-                    connections.add(connection);
-
-                    // Notifying observers that a client is connected
-                    EventManager.callEvent(new NewClientEvent(getContext().getServer(), connection));
                 }
             } catch (Exception e) {
                 if (getContext().getCounter().increment()) {
@@ -100,23 +97,60 @@ public class Opened<T> extends State<T> implements IEventListener {
         }
     }
 
-    @EventHandler
-    private void onConnectionLost(ConnectionLostEvent event) {
+    /**
+     * Method called by the handshake executor once the initialisation of the
+     * connection is done.
+     *
+     * @param endPoint    The end-point of the client.
+     * @param connection  The initialised connection.
+     * @param initialised True if the connection has been successfully initialised.
+     */
+    private void onInitialised(T endPoint, IConnection connection, boolean initialised) {
+        if (!initialised) {
+            if (!closeRequested) {
+                Logger.warning("%s - Initialisation failure", getContext().getName());
+            }
+
+            disposeConnection(connection);
+            return;
+        }
+
+        synchronized (lock) {
+            if (closeRequested) {
+                disposeConnection(connection);
+                return;
+            }
+
+            // A client cannot be connected twice with the same end-point
+            connection.addListener(this);
+            IConnection previous = connections.add(endPoint, connection);
+            if (previous != null) {
+                disposeConnection(previous);
+            }
+        }
+
+        // Notifying observers that a client is connected
+        getContext().callEvent(new NewClientEvent(getContext().getServer(), connection));
+    }
+
+    @Override
+    public void onLost(ConnectionLostEvent event) {
         if (connections.remove(event.getConnection())) {
             disposeConnection(event.getConnection());
         }
     }
 
-    @EventHandler
-    private void onConnectionUnstable(ConnectionUnstableEvent event) {
+    @Override
+    public void onUnstable(ConnectionUnstableEvent event) {
         if (connections.remove(event.getConnection())) {
             disposeConnection(event.getConnection());
         }
     }
 
-    @EventHandler
-    private void onConnectionDisposed(ConnectionDisposedEvent event) {
+    @Override
+    public void onDisposed(ConnectionDisposedEvent event) {
         connections.remove(event.getConnection());
+        event.getConnection().removeListener(this);
     }
 
     /**
@@ -1,5 +1,7 @@
 package fr.pederobien.communication.interfaces;
 
+import fr.pederobien.communication.interfaces.connection.IBufferPool;
+import fr.pederobien.communication.interfaces.connection.IDispatchExecutor;
 import fr.pederobien.communication.interfaces.connection.IConnection.Mode;
 import fr.pederobien.communication.interfaces.layer.ILayerInitializer;
 
@@ -37,4 +39,90 @@ public interface IConfiguration {
      * decremented.
      */
     int getConnectionHealTime();
+
+    /**
+     * Each connection sends, receives, extracts, dispatches and executes callbacks
+     * asynchronously. The execution mode specifies which kind of thread runs each
+     * of these stages. Whatever the mode, each stage processes its elements one
+     * after the other so that the order of the messages is kept.
+     *
+     * @return The kind of thread used to run the asynchronous stages of a
+     * connection.
+     */
+    ExecutionMode getExecutionMode();
+
+    /**
+     * When several messages are waiting to be sent, they can be packed and written
+     * together to the remote in one single call. The sending batch size is the
+     * maximum number of bytes written at once. A value less or equal to 0 means
+     * each message is written separately. Batching should only be enabled for
+     * stream oriented protocols such as TCP.
+     *
+     * @return The maximum number of bytes of a batch of messages.
+     */
+    int getSendingBatchSize();
+
+    /**
+     * When messages are batched, the batch is written as soon as no more message
+     * waits to be sent. If messages keep coming, the batch latency is the maximum
+     * time, in ms, a message can stay in the batch before being written.
+     *
+     * @return The maximum time, in ms, a message can wait in a batch.
+     */
+    int getSendingBatchLatency();
+
+    /**
+     * Data received from the remote is read into buffers provided by a pool so that
+     * they can be reused from one reception to the other.
+     *
+     * @return The pool that provides the buffers used to read data from the remote.
+     */
+    IBufferPool getBufferPool();
+
+    /**
+     * Events of a connection or a server are delivered directly to the listeners
+     * registered on it. They can also be thrown on the global event bus, in which
+     * case each event is delivered to every listener of the application whatever
+     * the connection or the server it is interested in.
+     *
+     * @return True if the events are also thrown on the global event bus.
+     */
+    boolean isEventBusMirrored();
+
+    /**
+     * By default, each connection dispatches the unexpected messages received from
+     * the remote on its own thread. A dispatch executor can be shared by several
+     * connections so that the number of threads does not depend on the number of
+     * connections.
+     *
+     * @return The executor shared by connections to dispatch the unexpected
+     * messages, or null if each connection has its own dispatching thread.
+     */
+    IDispatchExecutor getDispatchExecutor();
+
+    /**
+     * When a dispatch executor is shared by the connections, the unexpected
+     * messages of a connection are dispatched in the order they have been
+     * received. If they are independent, they can be dispatched in parallel in
+     * order to use several cores for one busy connection. Messages exchanged
+     * during the initialisation of the connection are always dispatched in order.
+     *
+     * @return True if the unexpected messages of a connection are dispatched in
+     * order, false to dispatch them in parallel.
+     */
+    boolean isDispatchOrdered();
+
+    enum ExecutionMode {
+        /**
+         * Each stage of a connection runs on its own platform thread.
+         */
+        PLATFORM,
+
+        /**
+         * Each stage of a connection runs on its own virtual thread. Idle connections
+         * no longer hold an OS thread, which reduces drastically the memory footprint
+         * of a server with many clients.
+         */
+        VIRTUAL
+    }
 }
@@ -0,0 +1,14 @@
+package fr.pederobien.communication.interfaces.connection;
+
+import java.nio.ByteBuffer;
+
+public interface IBufferHeaderMessage extends IHeaderMessage {
+
+    /**
+     * Unlike {@link #getBytes()}, the payload is not copied. The returned buffer is
+     * a read-only view whose position and limit surround the payload.
+     *
+     * @return The payload of the message.
+     */
+    ByteBuffer getBuffer();
+}
@@ -0,0 +1,28 @@
+package fr.pederobien.communication.interfaces.connection;
+
+import java.nio.ByteBuffer;
+
+public interface IBufferPool {
+
+    /**
+     * Get a buffer from this pool whose capacity is at least the given size. If no
+     * buffer is available, a new one is allocated. The returned buffer is cleared.
+     *
+     * @param size The minimum capacity of the buffer.
+     * @return A buffer ready to be written.
+     */
+    ByteBuffer acquire(int size);
+
+    /**
+     * Give back to this pool a buffer returned by {@link #acquire(int)}. The buffer
+     * must not be used anymore by the caller.
+     *
+     * @param buffer The buffer to give back.
+     */
+    void release(ByteBuffer buffer);
+
+    /**
+     * @return True if the buffers of this pool are allocated outside of the heap.
+     */
+    boolean isDirect();
+}
@@ -1,6 +1,9 @@
 package fr.pederobien.communication.interfaces.connection;
 
 import fr.pederobien.communication.interfaces.IMessageHandler;
+import fr.pederobien.communication.interfaces.connection.ICallback.CallbackArgs;
+
+import java.util.concurrent.CompletableFuture;
 
 public interface IConnection {
 
@@ -27,6 +30,28 @@ public interface IConnection {
      */
     void send(IMessage message);
 
+    /**
+     * Send asynchronously a request to the remote. Several requests can wait for
+     * their response at the same time. The callback of the message is not
+     * executed, the response is given by the returned future instead. If this
+     * connection is not enabled, the future is completed immediately as if the
+     * connection with the remote had been lost.
+     *
+     * @param message the message to send to the remote.
+     * @return A future completed once the response has been received or a timeout
+     * occurred.
+     */
+    CompletableFuture<CallbackArgs> sendAsync(IMessage message);
+
+    /**
+     * Send asynchronously a message that is also sent to other remotes. The
+     * message is never sent synchronously, its callback, if any, is executed for
+     * the response of this remote.
+     *
+     * @param message The message shared by several connections.
+     */
+    void send(ISharedMessage message);
+
     /**
      * Send asynchronously a request to the remote.
      *
@@ -61,6 +86,22 @@ public interface IConnection {
      */
     boolean isDisposed();
 
+    /**
+     * Register a listener notified of the events of this connection only. The
+     * listener is notified by the thread that throws the event, it should not
+     * block.
+     *
+     * @param listener The listener to register.
+     */
+    void addListener(IConnectionListener listener);
+
+    /**
+     * Unregister a listener from this connection.
+     *
+     * @param listener The listener to unregister.
+     */
+    void removeListener(IConnectionListener listener);
+
     enum Mode {
         CLIENT_TO_SERVER, SERVER_TO_CLIENT
     }
@@ -0,0 +1,41 @@
+package fr.pederobien.communication.interfaces.connection;
+
+import fr.pederobien.communication.event.ConnectionDisposedEvent;
+import fr.pederobien.communication.event.ConnectionEnableChangedEvent;
+import fr.pederobien.communication.event.ConnectionLostEvent;
+import fr.pederobien.communication.event.ConnectionUnstableEvent;
+
+public interface IConnectionListener {
+
+    /**
+     * Method called when the connection has been enabled or disabled.
+     *
+     * @param event The event that holds the new enable state.
+     */
+    default void onEnableChanged(ConnectionEnableChangedEvent event) {
+    }
+
+    /**
+     * Method called when the connection with the remote has been lost.
+     *
+     * @param event The event that holds the lost connection.
+     */
+    default void onLost(ConnectionLostEvent event) {
+    }
+
+    /**
+     * Method called when too many errors happened on the connection.
+     *
+     * @param event The event that holds the unstable connection.
+     */
+    default void onUnstable(ConnectionUnstableEvent event) {
+    }
+
+    /**
+     * Method called when the connection has been disposed.
+     *
+     * @param event The event that holds the disposed connection.
+     */
+    default void onDisposed(ConnectionDisposedEvent event) {
+    }
+}
@@ -0,0 +1,26 @@
+package fr.pederobien.communication.interfaces.connection;
+
+public interface IDispatchExecutor {
+
+    /**
+     * Execute asynchronously the given task after the tasks previously submitted
+     * with the same key. Tasks submitted with different keys may be executed in
+     * parallel.
+     *
+     * @param key  The key that identifies the lane in which the task is executed.
+     * @param task The task to execute.
+     */
+    void execute(Object key, Runnable task);
+
+    /**
+     * Execute asynchronously the given task, in parallel of any other task.
+     *
+     * @param task The task to execute.
+     */
+    void execute(Runnable task);
+
+    /**
+     * Interrupt the threads of this executor, it cannot be used anymore.
+     */
+    void dispose();
+}
@@ -0,0 +1,21 @@
+package fr.pederobien.communication.interfaces.connection;
+
+import fr.pederobien.communication.interfaces.layer.ILayer;
+
+public interface ISharedMessage extends IHeaderMessage {
+
+    /**
+     * @return The message sent to each remote, whose callback is executed for each
+     * response.
+     */
+    IMessage getMessage();
+
+    /**
+     * Generates the bytes array to send to a remote. If the layer is shareable,
+     * the message is packed only once for all the layers of the same type.
+     *
+     * @param layer The layer of the connection with the remote.
+     * @return The bytes array to send to the remote.
+     */
+    byte[] pack(ILayer layer) throws Exception;
+}
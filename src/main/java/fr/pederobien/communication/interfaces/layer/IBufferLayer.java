@@ -0,0 +1,36 @@
+package fr.pederobien.communication.interfaces.layer;
+
+import fr.pederobien.communication.interfaces.connection.IBufferHeaderMessage;
+import fr.pederobien.communication.interfaces.connection.IHeaderMessage;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+public interface IBufferLayer {
+
+    /**
+     * Write the bytes to send to the remote directly into the given buffer, at its
+     * current position. If the remaining space of the buffer is too small, the
+     * message is written into a bigger buffer that starts with the bytes written
+     * before the position of the given buffer.
+     *
+     * @param message The message that gather the information to send to the remote.
+     * @param output  The buffer in which the message is written.
+     * @return The buffer in which the message has been written, its position is
+     * just after the message.
+     */
+    ByteBuffer pack(IHeaderMessage message, ByteBuffer output) throws Exception;
+
+    /**
+     * When bytes are received from the remote, it is possible the buffer contains
+     * several answers. This method parse the received bytes in order to extract
+     * complete and not complete answers. When possible, the payload of an answer
+     * is a view on the given buffer, which must then not be modified while the
+     * answer is used.
+     *
+     * @param raw The bytes received from the remote, between the position and the
+     *            limit of the buffer.
+     * @return A list that contains all complete answers.
+     */
+    List<IBufferHeaderMessage> unpack(ByteBuffer raw) throws Exception;
+}
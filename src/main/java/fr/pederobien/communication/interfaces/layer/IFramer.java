@@ -0,0 +1,41 @@
+package fr.pederobien.communication.interfaces.layer;
+
+import java.util.List;
+
+public interface IFramer {
+
+    /**
+     * Wrap the given bytes array into a frame that can be found back by the
+     * remote in a stream of bytes.
+     *
+     * @param data The data to frame.
+     * @return A bytes array that contains the frame.
+     */
+    byte[] pack(byte[] data);
+
+    /**
+     * Parse the given bytes array in order to extract the complete frames. The
+     * bytes of an incomplete frame are kept until the next call.
+     *
+     * @param raw The bytes array received from the remote.
+     * @return A list of bytes array, one for each complete frame.
+     */
+    List<byte[]> unpack(byte[] raw) throws Exception;
+
+    /**
+     * @return True if the frames can contain any byte, false if some sequences of
+     * bytes must be avoided in the data to frame.
+     */
+    boolean isBinarySafe();
+
+    /**
+     * A framer can be shared if the frame returned by {@link #pack(byte[])} only
+     * depends on the data and on the configuration of the framer.
+     *
+     * @return A key, equal for the framers that pack data into the same frame, or
+     * null if the frames cannot be shared.
+     */
+    default Object getShareKey() {
+        return null;
+    }
+}
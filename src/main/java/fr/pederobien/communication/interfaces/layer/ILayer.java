@@ -23,4 +23,18 @@ public interface ILayer {
      * @return A list that contains all complete answers.
      */
     List<IHeaderMessage> unpack(byte[] raw) throws Exception;
+
+    /**
+     * A layer is shareable if the bytes returned by {@link #pack(IHeaderMessage)}
+     * only depend on the message and on the configuration of the layer (its type,
+     * its framer, its parameters...), and not on a state specific to a connection
+     * such as a secret key. When a message is sent to several remotes, it is
+     * packed only once for all the layers with equal share keys.
+     *
+     * @return A key, equal for the layers that pack a message into the same bytes,
+     * or null if this layer is not shareable.
+     */
+    default Object getShareKey() {
+        return null;
+    }
 }
@@ -2,6 +2,8 @@ package fr.pederobien.communication.interfaces.layer;
 
 import fr.pederobien.communication.interfaces.IToken;
 
+import java.util.List;
+
 public interface ILayerInitializer {
 
     /**
@@ -17,4 +19,13 @@ public interface ILayerInitializer {
      * @return The layer to use to send/receive data from the remote.
      */
     ILayer getLayer();
+
+    /**
+     * @return The time, in ms, spent by each initialisation step, including the
+     * time to wait for the remote to use the layer returned by the step. Empty if
+     * the durations are not measured.
+     */
+    default List<Long> getStepDurations() {
+        return List.of();
+    }
 }
@@ -0,0 +1,41 @@
+package fr.pederobien.communication.interfaces.layer;
+
+import java.nio.ByteBuffer;
+
+public interface IStage {
+
+    /**
+     * Transform the data to send to the remote and push the result to the next
+     * stage. A stage can push zero, one or several buffers for one input buffer.
+     * When possible, the pushed buffers are views on the input buffer rather than
+     * copies.
+     *
+     * @param data   The bytes to transform, between the position and the limit of
+     *               the buffer.
+     * @param output The output to which the transformed bytes are pushed.
+     */
+    void pack(ByteBuffer data, IOutput output) throws Exception;
+
+    /**
+     * Transform the data received from the remote and push the result to the
+     * previous stage. A stage can push zero buffer if the data is incomplete or
+     * corrupted, or several buffers if the data contains several messages. When
+     * possible, the pushed buffers are views on the input buffer rather than
+     * copies.
+     *
+     * @param data   The bytes to transform, between the position and the limit of
+     *               the buffer.
+     * @param output The output to which the transformed bytes are pushed.
+     */
+    void unpack(ByteBuffer data, IOutput output) throws Exception;
+
+    interface IOutput {
+
+        /**
+         * Push the given bytes to the adjacent stage of the pipeline.
+         *
+         * @param data The bytes, between the position and the limit of the buffer.
+         */
+        void accept(ByteBuffer data) throws Exception;
+    }
+}
@@ -0,0 +1,48 @@
+package fr.pederobien.communication.interfaces.server;
+
+import fr.pederobien.communication.interfaces.connection.IConnection;
+
+import java.util.function.BiConsumer;
+
+public interface IConnectionRegistry<T> extends Iterable<IConnection> {
+
+    /**
+     * Get the connection with the client whose end-point is equal to the given
+     * end-point.
+     *
+     * @param endPoint The end-point of the client.
+     * @return The connection with the client, or null if no client with this
+     * end-point is connected.
+     */
+    IConnection get(Object endPoint);
+
+    /**
+     * Get the end-point of the client associated to the given connection.
+     *
+     * @param connection The connection with the client.
+     * @return The end-point of the client, or null if the connection is not
+     * registered.
+     */
+    T getEndPoint(IConnection connection);
+
+    /**
+     * @param connection The connection to check.
+     * @return True if the given connection is registered, false otherwise.
+     */
+    boolean contains(IConnection connection);
+
+    /**
+     * @return The number of registered connections.
+     */
+    int size();
+
+    /**
+     * Execute the given action for each registered connection. The registry is
+     * not locked, connections added or removed during the iteration may or may
+     * not be visited.
+     *
+     * @param action The action to execute with the end-point of the client and
+     *               the connection.
+     */
+    void forEach(BiConsumer<T, IConnection> action);
+}
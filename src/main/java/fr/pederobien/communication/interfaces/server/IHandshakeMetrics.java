@@ -0,0 +1,33 @@
+package fr.pederobien.communication.interfaces.server;
+
+public interface IHandshakeMetrics {
+
+    /**
+     * @return The number of accepted clients waiting for a thread to initialise
+     * their connection.
+     */
+    int getQueued();
+
+    /**
+     * @return The number of connections being initialised.
+     */
+    int getActive();
+
+    /**
+     * @return The number of connections successfully initialised since the
+     * creation of the server.
+     */
+    long getCompleted();
+
+    /**
+     * @return The number of connections whose initialisation failed since the
+     * creation of the server.
+     */
+    long getFailed();
+
+    /**
+     * @return The number of accepted clients disconnected because the handshake
+     * backlog was full since the creation of the server.
+     */
+    long getRejected();
+}
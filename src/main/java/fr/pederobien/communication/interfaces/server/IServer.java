@@ -1,5 +1,10 @@
 package fr.pederobien.communication.interfaces.server;
 
+import fr.pederobien.communication.interfaces.connection.IConnection;
+import fr.pederobien.communication.interfaces.connection.IMessage;
+
+import java.util.function.Predicate;
+
 public interface IServer {
 
     /**
@@ -22,4 +27,58 @@ public interface IServer {
      * @return true if the has been disposed, false otherwise.
      */
     boolean dispose();
+
+    /**
+     * @return The metrics about the initialisation of the connections with the
+     * clients accepted by this server.
+     */
+    IHandshakeMetrics getHandshakeMetrics();
+
+    /**
+     * @return The registry of the connections with the clients currently
+     * connected to this server.
+     */
+    IConnectionRegistry<?> getConnections();
+
+    /**
+     * Send asynchronously the same message to each client accepted by the given
+     * filter. If the layer of the connection with a client is shareable, the
+     * message is packed only once for all these clients. Otherwise, the message is
+     * packed by each connection in parallel. The message is never sent
+     * synchronously, its callback, if any, is executed for each response.
+     *
+     * @param message The message to send.
+     * @param filter  The filter to select the connections to which the message is
+     *                sent.
+     * @return The number of connections to which the message has been sent.
+     */
+    int broadcast(IMessage message, Predicate<IConnection> filter);
+
+    /**
+     * Send asynchronously the same message to all the clients. If the layer of
+     * the connection with a client is shareable, the message is packed only once
+     * for all these clients.
+     *
+     * @param message The message to send.
+     * @return The number of connections to which the message has been sent.
+     */
+    default int broadcast(IMessage message) {
+        return broadcast(message, connection -> true);
+    }
+
+    /**
+     * Register a listener notified of the events of this server only. The
+     * listener is notified by the thread that throws the event, it should not
+     * block.
+     *
+     * @param listener The listener to register.
+     */
+    void addListener(IServerListener listener);
+
+    /**
+     * Unregister a listener from this server.
+     *
+     * @param listener The listener to unregister.
+     */
+    void removeListener(IServerListener listener);
 }
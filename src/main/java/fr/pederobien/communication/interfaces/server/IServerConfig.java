@@ -44,4 +44,58 @@ public interface IServerConfig<T> extends IConfiguration {
      * decremented.
      */
     int getServerHealTime();
+
+    /**
+     * Once accepted, the connection with a client is initialised by a dedicated
+     * pool of threads so that a slow client does not prevent other clients from
+     * being accepted. The handshake concurrency is the maximum number of
+     * connections initialised at the same time.
+     *
+     * @return The maximum number of connections initialised at the same time.
+     */
+    int getHandshakeConcurrency();
+
+    /**
+     * When the maximum number of connections are being initialised, the accepted
+     * clients wait for a thread to initialise their connection. The handshake
+     * backlog is the maximum number of waiting clients, beyond which an accepted
+     * client is disconnected immediately.
+     *
+     * @return The maximum number of clients waiting for their connection to be
+     * initialised.
+     */
+    int getHandshakeBacklog();
+
+    /**
+     * A UDP server demultiplexes the received datagrams per remote address. The
+     * datagrams of a client wait in a bounded queue for its connection to process
+     * them, so that a bursty client does not exhaust the memory of the server.
+     * This parameter is ignored by the other server implementations.
+     *
+     * @return The maximum number of datagrams waiting to be processed per client.
+     */
+    int getReceptionQueueCapacity();
+
+    /**
+     * When the reception queue of a client is full, the overflow policy indicates
+     * which datagram is dropped. This parameter is ignored by the other server
+     * implementations.
+     *
+     * @return The datagram dropped when the reception queue of a client is full.
+     */
+    OverflowPolicy getOverflowPolicy();
+
+    enum OverflowPolicy {
+        /**
+         * The oldest datagram waiting in the queue is dropped in order to store the
+         * received one. Suited when only the latest data matters.
+         */
+        DROP_OLDEST,
+
+        /**
+         * The received datagram is dropped, the datagrams waiting in the queue are
+         * kept.
+         */
+        DROP_NEWEST
+    }
 }
@@ -0,0 +1,51 @@
+package fr.pederobien.communication.interfaces.server;
+
+import fr.pederobien.communication.event.NewClientEvent;
+import fr.pederobien.communication.event.ServerCloseEvent;
+import fr.pederobien.communication.event.ServerDisposeEvent;
+import fr.pederobien.communication.event.ServerOpenEvent;
+import fr.pederobien.communication.event.ServerUnstableEvent;
+
+public interface IServerListener {
+
+    /**
+     * Method called when the server has been opened.
+     *
+     * @param event The event that holds the opened server.
+     */
+    default void onOpen(ServerOpenEvent event) {
+    }
+
+    /**
+     * Method called when the connection with a new client has been initialised.
+     *
+     * @param event The event that holds the connection with the client.
+     */
+    default void onNewClient(NewClientEvent event) {
+    }
+
+    /**
+     * Method called when too many errors happened while waiting for clients. The
+     * server is closed after this method has been called.
+     *
+     * @param event The event that holds the unstable server.
+     */
+    default void onUnstable(ServerUnstableEvent event) {
+    }
+
+    /**
+     * Method called when the server has been closed.
+     *
+     * @param event The event that holds the closed server.
+     */
+    default void onClose(ServerCloseEvent event) {
+    }
+
+    /**
+     * Method called when the server has been disposed.
+     *
+     * @param event The event that holds the disposed server.
+     */
+    default void onDispose(ServerDisposeEvent event) {
+    }
+}
@@ -15,6 +15,7 @@ public class CommunicationTestApp {
         runTest("Layer initialisation tests", CommunicationTestApp::runLayerInitialisationTest);
         runTest("TCP tests", CommunicationTestApp::runTcpCommunicationTest);
         runTest("UDP tests", CommunicationTestApp::runUdpCommunicationTest);
+        runTest("Performance tests", CommunicationTestApp::runPerformanceTest);
 
         // Asynchronous tests, wait a little bit before closing tests session
         sleep(1000);
@@ -42,6 +43,7 @@ public class CommunicationTestApp {
         tests.testUnstableClient();
         tests.testTwoClientsOneServer();
         tests.testNetworkIssues();
+        tests.testReliableConnectionWithLosses();
     }
 
     private static void runLayerTests() {
@@ -50,12 +52,20 @@ public class CommunicationTestApp {
         tests.testEncapsulaterOneMessage();
         tests.testEncapsulaterTwoMessages();
         tests.testEncapsulaterLastMessageTruncated();
+        tests.testLengthPrefixFramerTwoMessages();
+        tests.testLengthPrefixFramerLastMessageTruncated();
+        tests.testSimpleLayerWithLengthPrefixDelimiterInPayload();
+        tests.testCompressionLayerTwoMessages();
+        tests.testLayerPipelineTwoMessages();
+        tests.testLayerPipelineInvalidStages();
         tests.testSplitterOneMessage();
         tests.testSplitterTwoMessages();
         tests.testSplitterLastMessageTruncated();
+        tests.testSplitterOutOfOrderAndLostPackets();
         tests.testSimpleLayerOneMessage();
         tests.testSimpleLayerTwoMessages();
         tests.testSimpleLayerLastMessageTruncated();
+        tests.testBufferSimpleLayerLastMessageTruncated();
         tests.testCertifiedLayerOneMessage();
         tests.testCertifiedLayerTwoMessages();
         tests.testCertifiedLayerLastMessageTruncated();
@@ -65,10 +75,16 @@ public class CommunicationTestApp {
         tests.testRsaLayerLastMessageTruncated();
         tests.testRsaLayerOneCorruptedMessage();
         tests.testRsaLayerOneBigMessage();
+        tests.testRsaHybridLayerOneBigMessage();
         tests.testAesLayerOneMessage();
         tests.testAesLayerTwoMessages();
+        tests.testAesLayerBinaryTwoMessages();
         tests.testAesLayerLastMessageTruncated();
         tests.testAesLayerOneCorruptedMessage();
+        tests.testAesGcmLayerTwoMessages();
+        tests.testAesGcmLayerOneCorruptedMessage();
+        tests.testAesGcmLayerReplayedMessage();
+        tests.testSharedMessageWithDifferentFramers();
     }
 
     private static void runLayerInitialisationTest() {
@@ -108,9 +124,23 @@ public class CommunicationTestApp {
         tests.testUnexpectedRequestException();
         tests.testUnstableClient();
         tests.testRsaLayer();
+        tests.testRsaHybridLayer();
+        tests.testEcdhLayer();
+        tests.testCompressedAesGcmLayer();
         tests.testAesLayer();
         tests.testAesSafeLayer();
+        tests.testAesSafeLayerSessionResumption();
+        tests.testAesGcmLayer();
         tests.testTwoClientsOneServer();
+        tests.testClientToServerWithFuture();
+        tests.testClientToServerWithFutureButNoTimeout();
+        tests.testNioClientToServerWithCallback();
+        tests.testNioTwoClientsOneServer();
+        tests.testSlowHandshakeDoesNotBlockAccept();
+        tests.testConnectionRegistry();
+        tests.testServerBroadcast();
+        tests.testServerAndConnectionListeners();
+        tests.testBufferSimpleLayerWithBatching();
     }
 
     private static void runUdpCommunicationTest() {
@@ -133,7 +163,27 @@ public class CommunicationTestApp {
         tests.testRsaLayer();
         tests.testAesLayer();
         tests.testAesSafeLayer();
+        tests.testAesGcmLayer();
         tests.testTwoClientsOneServer();
+        tests.testSeveralClientsSeveralReceivingWorkers();
+        tests.testTwoServersSamePortSeveralReceivingWorkers();
+        tests.testBurstWithBoundedReceptionQueue();
+        tests.testReliableServerToClientBigMessage();
+    }
+
+    private static void runPerformanceTest() {
+        PerformanceTest tests = new PerformanceTest();
+
+        tests.testIdleConnectionFootprint();
+        tests.testCallbackTimeoutOverhead();
+        tests.testSendingBatchThroughput();
+        tests.testLayerCopiesPerMessage();
+        tests.testRsaLayerBigMessage();
+        tests.testCompressionLayerTradeOff();
+        tests.testHandshakeLatency();
+        tests.testBroadcastFanOut();
+        tests.testSharedDispatchExecutor();
+        tests.testNioSlowConsumer();
     }
 
     private static void runTest(String testName, IExecutable test) {
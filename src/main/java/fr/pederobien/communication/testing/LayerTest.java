@@ -2,7 +2,10 @@ package fr.pederobien.communication.testing;
 
 import fr.pederobien.communication.impl.connection.HeaderMessage;
 import fr.pederobien.communication.impl.connection.Message;
+import fr.pederobien.communication.impl.connection.SharedMessage;
 import fr.pederobien.communication.impl.layer.*;
+import fr.pederobien.communication.interfaces.connection.IBufferHeaderMessage;
+import fr.pederobien.communication.interfaces.connection.IConnection.Mode;
 import fr.pederobien.communication.interfaces.connection.IHeaderMessage;
 import fr.pederobien.communication.interfaces.layer.ICertificate;
 import fr.pederobien.communication.interfaces.layer.ILayer;
@@ -13,11 +16,13 @@ import fr.pederobien.utils.event.Logger;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.IvParameterSpec;
+import java.nio.ByteBuffer;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.SecureRandom;
 import java.security.spec.AlgorithmParameterSpec;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -100,6 +105,154 @@ public class LayerTest {
         runTest("testEncapsulaterLastMessageTruncated", test);
     }
 
+    public void testLengthPrefixFramerTwoMessages() {
+        IExecutable test = () -> {
+            LengthPrefixFramer framer = new LengthPrefixFramer();
+            String main = "Hello world";
+
+            // The second message is long enough to need a two bytes length prefix
+            String message1 = main.concat(" 1");
+            String message2 = main.concat(" 2").repeat(20);
+
+            byte[] framed1 = framer.pack(message1.getBytes());
+            byte[] framed2 = framer.pack(message2.getBytes());
+
+            byte[] total = new byte[framed1.length + framed2.length];
+            System.arraycopy(framed1, 0, total, 0, framed1.length);
+            System.arraycopy(framed2, 0, total, framed1.length, framed2.length);
+
+            List<byte[]> messages = framer.unpack(total);
+            for (byte[] received : messages) {
+                Logger.info("Unpacked message: %s", new String(received));
+            }
+        };
+
+        runTest("testLengthPrefixFramerTwoMessages", test);
+    }
+
+    public void testLengthPrefixFramerLastMessageTruncated() {
+        IExecutable test = () -> {
+            LengthPrefixFramer framer = new LengthPrefixFramer();
+            String main = "Hello world";
+
+            String message1 = main.concat(" 1");
+            String message2 = main.concat(" 2");
+
+            byte[] framed1 = framer.pack(message1.getBytes());
+            byte[] framed2 = framer.pack(message2.getBytes());
+
+            byte[] total = new byte[framed1.length + framed2.length];
+            System.arraycopy(framed1, 0, total, 0, framed1.length);
+            System.arraycopy(framed2, 0, total, framed1.length, framed2.length);
+
+            // Received one byte at a time
+            for (byte current : total) {
+                List<byte[]> messages = framer.unpack(new byte[] { current });
+                for (byte[] received : messages) {
+                    Logger.info("Unpacked message: %s", new String(received));
+                }
+            }
+        };
+
+        runTest("testLengthPrefixFramerLastMessageTruncated", test);
+    }
+
+    public void testSimpleLayerWithLengthPrefixDelimiterInPayload() {
+        IExecutable test = () -> {
+            ILayer layer = new SimpleLayer(new LengthPrefixFramer());
+
+            // The payload contains the delimiter words of the Encapsulater
+            String message = "Hello (~@= world #.?)";
+
+            byte[] toSend = layer.pack(new HeaderMessage(0, new Message(message.getBytes())));
+            List<IHeaderMessage> messages = layer.unpack(toSend);
+
+            for (IHeaderMessage received : messages) {
+                Logger.info("Raw message: %s, data=%s", received, new String(received.getBytes()));
+            }
+        };
+
+        runTest("testSimpleLayerWithLengthPrefixDelimiterInPayload", test);
+    }
+
+    public void testCompressionLayerTwoMessages() {
+        IExecutable test = () -> {
+            ILayer layer = new CompressionLayer(new SimpleLayer(new LengthPrefixFramer()), 16);
+
+            // Message smaller than the threshold, not compressed
+            byte[] data1 = layer.pack(new HeaderMessage(0, new Message("Hello world".getBytes())));
+
+            // Message greater than the threshold, compressed
+            byte[] data2 = layer.pack(new HeaderMessage(0, new Message("Hello world ".repeat(100).getBytes())));
+
+            byte[] total = new byte[data1.length + data2.length];
+            System.arraycopy(data1, 0, total, 0, data1.length);
+            System.arraycopy(data2, 0, total, data1.length, data2.length);
+
+            Logger.info("Packed sizes: %s, %s", data1.length, data2.length);
+
+            List<IHeaderMessage> messages = layer.unpack(total);
+            for (IHeaderMessage message : messages) {
+                Logger.info("Received message: %s bytes, %s", message.getBytes().length, new String(message.getBytes(), 0, Math.min(24, message.getBytes().length)));
+            }
+        };
+
+        runTest("testCompressionLayerTwoMessages", test);
+    }
+
+    public void testLayerPipelineTwoMessages() {
+        IExecutable test = () -> {
+            KeyGenerator generator = KeyGenerator.getInstance("AES");
+            generator.init(256);
+            SecretKey secretKey = generator.generateKey();
+
+            // Compression, encryption, fragmentation then framing
+            ILayer client = LayerPipeline.builder().compress(16).encrypt(secretKey, Mode.CLIENT_TO_SERVER).fragment(64)
+                    .frame(new LengthPrefixFramer()).build();
+            ILayer server = LayerPipeline.builder().compress(16).encrypt(secretKey, Mode.SERVER_TO_CLIENT).fragment(64)
+                    .frame(new LengthPrefixFramer()).build();
+
+            byte[] data1 = client.pack(new HeaderMessage(0, new Message("Hello world".getBytes())));
+            byte[] data2 = client.pack(new HeaderMessage(0, new Message("Hello world ".repeat(100).getBytes())));
+
+            byte[] total = new byte[data1.length + data2.length];
+            System.arraycopy(data1, 0, total, 0, data1.length);
+            System.arraycopy(data2, 0, total, data1.length, data2.length);
+
+            // Bytes received in two parts
+            int middle = total.length / 2;
+            List<IHeaderMessage> messages = new ArrayList<IHeaderMessage>();
+            messages.addAll(server.unpack(Arrays.copyOfRange(total, 0, middle)));
+            messages.addAll(server.unpack(Arrays.copyOfRange(total, middle, total.length)));
+
+            for (IHeaderMessage message : messages) {
+                Logger.info("Received message: %s bytes, %s", message.getBytes().length, new String(message.getBytes(), 0, 11));
+            }
+        };
+
+        runTest("testLayerPipelineTwoMessages", test);
+    }
+
+    public void testLayerPipelineInvalidStages() {
+        IExecutable test = () -> {
+            try {
+                LayerPipeline.builder().fragment(0).frame(new LengthPrefixFramer()).build();
+                Logger.error("Expecting an invalid fragment size");
+            } catch (IllegalArgumentException e) {
+                Logger.info("Invalid pipeline: %s", e.getMessage());
+            }
+
+            try {
+                LayerPipeline.builder().frame(new LengthPrefixFramer()).compress(16).build();
+                Logger.error("Expecting a missing framing stage");
+            } catch (IllegalArgumentException e) {
+                Logger.info("Invalid pipeline: %s", e.getMessage());
+            }
+        };
+
+        runTest("testLayerPipelineInvalidStages", test);
+    }
+
     public void testSplitterOneMessage() {
         IExecutable test = () -> {
             String message = "Hello world";
@@ -183,6 +336,44 @@ public class LayerTest {
         runTest("testSplitterLastMessageTruncated", test);
     }
 
+    public void testSplitterOutOfOrderAndLostPackets() {
+        IExecutable test = () -> {
+            Reassembler reassembler = new Reassembler(200, 1024);
+            Splitter splitter = new Splitter(5, reassembler);
+            String main = "Hello world";
+
+            String message1 = main.concat(" 1");
+            String message2 = main.concat(" 2");
+
+            int identifier = 1;
+            List<byte[]> messages1 = splitter.pack(identifier, message1.getBytes());
+            identifier++;
+            List<byte[]> messages2 = splitter.pack(identifier, message2.getBytes());
+
+            // First message received in reverse order, one packet duplicated
+            List<byte[]> total = new ArrayList<byte[]>(messages1.reversed());
+            total.add(messages1.getFirst());
+
+            // Second message without its first packet
+            total.addAll(messages2.subList(1, messages2.size()));
+
+            Map<Integer, byte[]> concatenated = splitter.unpack(total);
+            for (byte[] received : concatenated.values()) {
+                Logger.info("Concatenated message: %s", new String(received));
+            }
+
+            Logger.info("Reassembler before eviction: %s", reassembler);
+
+            // Waiting for the second message to be evicted
+            Thread.sleep(300);
+            splitter.unpack(List.of(messages2.getFirst()));
+
+            Logger.info("Reassembler after eviction: %s", reassembler);
+        };
+
+        runTest("testSplitterOutOfOrderAndLostPackets", test);
+    }
+
     public void testSimpleLayerOneMessage() {
         IExecutable test = () -> {
             ILayer layer = new SimpleLayer();
@@ -256,6 +447,35 @@ public class LayerTest {
         runTest("testSimpleLayerLastMessageTruncated", test);
     }
 
+    public void testBufferSimpleLayerLastMessageTruncated() {
+        IExecutable test = () -> {
+            BufferSimpleLayer layer = new BufferSimpleLayer();
+            String main = "Hello world";
+
+            String message1 = main.concat(" 1");
+            String message2 = main.concat(" 2");
+
+            ByteBuffer buffer = ByteBuffer.allocate(1024);
+            layer.pack(new HeaderMessage(0, new Message(message1.getBytes())), buffer);
+            layer.pack(new HeaderMessage(0, new Message(message2.getBytes())), buffer);
+            buffer.flip();
+
+            // Missing last 5 bytes
+            ByteBuffer truncated = buffer.slice(0, buffer.limit() - 5);
+            for (IBufferHeaderMessage received : layer.unpack(truncated)) {
+                Logger.info("Raw message: %s, data=%s", received, new String(received.getBytes()));
+            }
+
+            // Remaining bytes
+            ByteBuffer remaining = buffer.slice(buffer.limit() - 5, 5);
+            for (IBufferHeaderMessage received : layer.unpack(remaining)) {
+                Logger.info("Raw message: %s, data=%s", received, new String(received.getBytes()));
+            }
+        };
+
+        runTest("testBufferSimpleLayerLastMessageTruncated", test);
+    }
+
     public void testCertifiedLayerOneMessage() {
         IExecutable test = () -> {
             ILayer layer = new CertifiedLayer(new SimpleCertificate());
@@ -513,6 +733,34 @@ public class LayerTest {
         runTest("testRsaLayerOneBigMessage", test);
     }
 
+    public void testRsaHybridLayerOneBigMessage() {
+        IExecutable test = () -> {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+
+            KeyPair pairA = generator.generateKeyPair();
+            KeyPair pairB = generator.generateKeyPair();
+
+            ILayer rsaA = new RsaHybridLayer(pairA.getPrivate(), pairB.getPublic(), Mode.CLIENT_TO_SERVER);
+            ILayer rsaB = new RsaHybridLayer(pairB.getPrivate(), pairA.getPublic(), Mode.SERVER_TO_CLIENT);
+
+            byte[] message = new byte[65536];
+            Arrays.fill(message, (byte) 'a');
+
+            // Two messages to check the session key is decrypted only once
+            for (int i = 0; i < 2; i++) {
+                byte[] toSend = rsaA.pack(new HeaderMessage(0, new Message(message)));
+
+                List<IHeaderMessage> messages = rsaB.unpack(toSend);
+                for (IHeaderMessage received : messages) {
+                    Logger.info("Received %s bytes", received.getBytes().length);
+                }
+            }
+        };
+
+        runTest("testRsaHybridLayerOneBigMessage", test);
+    }
+
     public void testAesLayerOneMessage() {
         IExecutable test = () -> {
             KeyGenerator generator = KeyGenerator.getInstance("AES");
@@ -578,6 +826,43 @@ public class LayerTest {
         runTest("testAesLayerTwoMessages", test);
     }
 
+    public void testAesLayerBinaryTwoMessages() {
+        IExecutable test = () -> {
+            KeyGenerator generator = KeyGenerator.getInstance("AES");
+            generator.init(128);
+            SecretKey secretKey = generator.generateKey();
+
+            byte[] iv = new byte[16];
+            SecureRandom random = new SecureRandom();
+            random.nextBytes(iv);
+            AlgorithmParameterSpec ivParameterSpec = new IvParameterSpec(iv);
+
+            ICertificate certificate = new SimpleCertificate();
+            // Binary safe framing, the encrypted bytes are not encoded in Base64
+            ILayer aesA = new AesLayer(certificate, secretKey, ivParameterSpec, new LengthPrefixFramer());
+            ILayer aesB = new AesLayer(certificate, secretKey, ivParameterSpec, new LengthPrefixFramer());
+
+            String message = "Hello World";
+            String message1 = message.concat(" 1");
+            String message2 = message.concat(" 2");
+
+            byte[] toSend1 = aesA.pack(new HeaderMessage(0, new Message(message1.getBytes())));
+            byte[] toSend2 = aesA.pack(new HeaderMessage(0, new Message(message2.getBytes())));
+
+            byte[] total = new byte[toSend1.length + toSend2.length];
+            System.arraycopy(toSend1, 0, total, 0, toSend1.length);
+            System.arraycopy(toSend2, 0, total, toSend1.length, toSend2.length);
+
+            List<IHeaderMessage> messages = aesB.unpack(total);
+
+            for (IHeaderMessage received : messages) {
+                Logger.info("Raw data: %s", new String(received.getBytes()));
+            }
+        };
+
+        runTest("testAesLayerBinaryTwoMessages", test);
+    }
+
     public void testAesLayerLastMessageTruncated() {
         IExecutable test = () -> {
             KeyGenerator generator = KeyGenerator.getInstance("AES");
@@ -653,6 +938,120 @@ public class LayerTest {
         runTest("testAesLayerOneCorruptedMessage", test);
     }
 
+    public void testAesGcmLayerTwoMessages() {
+        IExecutable test = () -> {
+            KeyGenerator generator = KeyGenerator.getInstance("AES");
+            generator.init(256);
+            SecretKey secretKey = generator.generateKey();
+
+            ILayer client = new AesGcmLayer(secretKey, Mode.CLIENT_TO_SERVER);
+            ILayer server = new AesGcmLayer(secretKey, Mode.SERVER_TO_CLIENT);
+
+            String message = "Hello World";
+            String message1 = message.concat(" 1");
+            String message2 = message.concat(" 2");
+
+            byte[] toSend1 = client.pack(new HeaderMessage(0, new Message(message1.getBytes())));
+            byte[] toSend2 = client.pack(new HeaderMessage(0, new Message(message2.getBytes())));
+
+            byte[] total = new byte[toSend1.length + toSend2.length];
+            System.arraycopy(toSend1, 0, total, 0, toSend1.length);
+            System.arraycopy(toSend2, 0, total, toSend1.length, toSend2.length);
+
+            List<IHeaderMessage> messages = server.unpack(total);
+
+            for (IHeaderMessage received : messages) {
+                Logger.info("Raw data: %s", new String(received.getBytes()));
+            }
+        };
+
+        runTest("testAesGcmLayerTwoMessages", test);
+    }
+
+    public void testAesGcmLayerOneCorruptedMessage() {
+        IExecutable test = () -> {
+            KeyGenerator generator = KeyGenerator.getInstance("AES");
+            generator.init(256);
+            SecretKey secretKey = generator.generateKey();
+
+            ILayer client = new AesGcmLayer(secretKey, Mode.CLIENT_TO_SERVER);
+            ILayer server = new AesGcmLayer(secretKey, Mode.SERVER_TO_CLIENT);
+
+            String message = "Hello World";
+
+            byte[] toSend = client.pack(new HeaderMessage(0, new Message(message.getBytes())));
+
+            // Simulating corruption: modifying message
+            byte[] corrupted = new byte[toSend.length];
+            System.arraycopy(toSend, 0, corrupted, 0, toSend.length);
+            corrupted[toSend.length - 1] ^= 1;
+
+            try {
+                server.unpack(corrupted);
+                Logger.error("Expecting an authentication failure");
+            } catch (Exception e) {
+                Logger.info("Authentication failure: %s", e.getMessage());
+            }
+        };
+
+        runTest("testAesGcmLayerOneCorruptedMessage", test);
+    }
+
+    public void testAesGcmLayerReplayedMessage() {
+        IExecutable test = () -> {
+            KeyGenerator generator = KeyGenerator.getInstance("AES");
+            generator.init(256);
+            SecretKey secretKey = generator.generateKey();
+
+            ILayer client = new AesGcmLayer(secretKey, Mode.CLIENT_TO_SERVER);
+            ILayer server = new AesGcmLayer(secretKey, Mode.SERVER_TO_CLIENT);
+
+            byte[] toSend1 = client.pack(new HeaderMessage(0, new Message("Hello World 1".getBytes())));
+            byte[] toSend2 = client.pack(new HeaderMessage(0, new Message("Hello World 2".getBytes())));
+
+            // Messages received out of order are accepted
+            Logger.info("Raw data: %s", new String(server.unpack(toSend2).getFirst().getBytes()));
+            Logger.info("Raw data: %s", new String(server.unpack(toSend1).getFirst().getBytes()));
+
+            // Simulating a replay: receiving again the first message
+            try {
+                server.unpack(toSend1);
+                Logger.error("Expecting an authentication failure");
+            } catch (Exception e) {
+                Logger.info("Authentication failure: %s", e.getMessage());
+            }
+        };
+
+        runTest("testAesGcmLayerReplayedMessage", test);
+    }
+
+    public void testSharedMessageWithDifferentFramers() {
+        IExecutable test = () -> {
+            SharedMessage message = new SharedMessage(new Message("Hello world".getBytes()));
+
+            // Same framer: the frame is packed once
+            byte[] frame1 = message.pack(new SimpleLayer());
+            byte[] frame2 = message.pack(new SimpleLayer());
+            Logger.info("Same framer, frame shared: %s", frame1 == frame2);
+
+            // Different framers: each layer must be able to parse its own frame
+            ILayer prefixLayer = new SimpleLayer(new LengthPrefixFramer());
+            byte[] frame3 = message.pack(prefixLayer);
+            Logger.info("Different framers, frame shared: %s", frame1 == frame3);
+
+            for (IHeaderMessage received : prefixLayer.unpack(frame3)) {
+                Logger.info("Unpacked with length prefix framer: %s", new String(received.getBytes()));
+            }
+
+            // Compression over different framers
+            byte[] frame4 = message.pack(new CompressionLayer(new SimpleLayer(), 4));
+            byte[] frame5 = message.pack(new CompressionLayer(new SimpleLayer(new LengthPrefixFramer()), 4));
+            Logger.info("Compression over different framers, frame shared: %s", frame4 == frame5);
+        };
+
+        runTest("testSharedMessageWithDifferentFramers", test);
+    }
+
     private void runTest(String testName, IExecutable test) {
         Logger.debug("Begin %s", testName);
         try {
@@ -3,8 +3,10 @@ package fr.pederobien.communication.testing;
 import fr.pederobien.communication.impl.ClientConfig;
 import fr.pederobien.communication.impl.Communication;
 import fr.pederobien.communication.impl.EthernetEndPoint;
+import fr.pederobien.communication.impl.client.ReliableClientImpl;
 import fr.pederobien.communication.impl.connection.Message;
 import fr.pederobien.communication.impl.layer.LayerInitializer;
+import fr.pederobien.communication.impl.server.ReliableServerImpl;
 import fr.pederobien.communication.interfaces.IEthernetEndPoint;
 import fr.pederobien.communication.interfaces.client.IClient;
 import fr.pederobien.communication.interfaces.server.IServer;
@@ -17,6 +19,9 @@ import fr.pederobien.communication.testing.tools.ServerListener;
 import fr.pederobien.utils.IExecutable;
 import fr.pederobien.utils.event.Logger;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class NetworkTest {
     private static final String SERVER_NAME = "Dummy Server";
     private static final String CLIENT_NAME = "Dummy Client";
@@ -785,6 +790,64 @@ public class NetworkTest {
         runTest("testNetworkIssues", test);
     }
 
+    public void testReliableConnectionWithLosses() {
+        IExecutable test = () -> {
+            NetworkCorrupter corrupter = new NetworkCorrupter();
+
+            // Losing data segments and acknowledgements in both directions
+            corrupter.registerClientToServerLoss(4, 5, 11, 17, 18, 19, 25);
+            corrupter.registerServerToClientLoss(3, 8, 14, 15);
+
+            Network network = new Network(corrupter);
+
+            EthernetEndPoint point = new EthernetEndPoint(PORT);
+            IServer server = Communication.createDefaultServer(SERVER_NAME, point, new ReliableServerImpl<IEthernetEndPoint>(network.getServer()));
+            server.open();
+
+            AtomicInteger received = new AtomicInteger();
+            AtomicBoolean isInOrder = new AtomicBoolean(true);
+            ServerListener listener = new ServerListener(server);
+            listener.setMessageHandler(event -> {
+                String message = new String(event.getData());
+                Logger.debug("Server received %s", message);
+
+                // Messages must be received in the order they have been sent
+                String expected = String.format("message %s", received.getAndIncrement());
+                if (!expected.equals(message)) {
+                    Logger.error("Expected \"%s\" but received \"%s\"", expected, message);
+                    isInOrder.set(false);
+                }
+            });
+
+            listener.start();
+
+            EthernetEndPoint endPoint = new EthernetEndPoint(ADDRESS, PORT);
+            IClient client = Communication.createDefaultClient(CLIENT_NAME, endPoint, new ReliableClientImpl<IEthernetEndPoint>(network.newClient()));
+            client.connect();
+
+            sleep(1000);
+
+            for (int i = 0; i < 20; i++) {
+                client.getConnection().send(new Message(String.format("message %s", i).getBytes()));
+            }
+
+            sleep(2000);
+
+            Logger.debug("Server received %s messages out of 20, in order: %s", received.get(), isInOrder.get());
+
+            client.disconnect();
+            client.dispose();
+
+            sleep(500);
+
+            listener.stop();
+            server.close();
+            server.dispose();
+        };
+
+        runTest("testReliableConnectionWithLosses", test);
+    }
+
     private void runTest(String testName, IExecutable test) {
         Logger.debug("Begin %s", testName);
         try {
@@ -0,0 +1,626 @@
+package fr.pederobien.communication.testing;
+
+import fr.pederobien.communication.impl.ClientConfig;
+import fr.pederobien.communication.impl.Communication;
+import fr.pederobien.communication.impl.EthernetEndPoint;
+import fr.pederobien.communication.impl.ServerConfig;
+import fr.pederobien.communication.impl.connection.CallbackManager;
+import fr.pederobien.communication.impl.connection.DispatchExecutor;
+import fr.pederobien.communication.impl.connection.HeaderMessage;
+import fr.pederobien.communication.impl.connection.Message;
+import fr.pederobien.communication.impl.connection.NioTcpConnectionImpl;
+import fr.pederobien.communication.impl.connection.QueueManager;
+import fr.pederobien.communication.impl.connection.SelectorLoopGroup;
+import fr.pederobien.communication.impl.connection.SharedMessage;
+import fr.pederobien.communication.impl.connection.TcpConnectionImpl;
+import fr.pederobien.communication.impl.keyexchange.AsymmetricKeyManager;
+import fr.pederobien.communication.impl.keyexchange.RsaKeyManager;
+import fr.pederobien.communication.impl.keyexchange.X25519KeyManager;
+import fr.pederobien.communication.impl.layer.AesSafeLayerInitializer;
+import fr.pederobien.communication.impl.layer.BufferLayerAdapter;
+import fr.pederobien.communication.impl.layer.BufferSimpleLayer;
+import fr.pederobien.communication.impl.layer.CompressionLayer;
+import fr.pederobien.communication.impl.layer.EcdhLayerInitializer;
+import fr.pederobien.communication.impl.layer.LengthPrefixFramer;
+import fr.pederobien.communication.impl.layer.RsaHybridLayer;
+import fr.pederobien.communication.impl.layer.RsaLayer;
+import fr.pederobien.communication.impl.layer.SimpleLayer;
+import fr.pederobien.communication.interfaces.IConfiguration.ExecutionMode;
+import fr.pederobien.communication.interfaces.IEthernetEndPoint;
+import fr.pederobien.communication.interfaces.connection.IConnection;
+import fr.pederobien.communication.interfaces.connection.IConnection.Mode;
+import fr.pederobien.communication.interfaces.connection.IConnectionImpl;
+import fr.pederobien.communication.interfaces.connection.ISharedMessage;
+import fr.pederobien.communication.interfaces.layer.IBufferLayer;
+import fr.pederobien.communication.interfaces.layer.ILayer;
+import fr.pederobien.communication.interfaces.layer.ILayerInitializer;
+import fr.pederobien.communication.testing.tools.SimpleCertificate;
+import fr.pederobien.utils.HealedCounter;
+import fr.pederobien.utils.IExecutable;
+import fr.pederobien.utils.event.Logger;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class PerformanceTest {
+    private static final String SERVER_NAME = "Benchmark Server";
+    private static final String CLIENT_NAME = "Benchmark Client";
+    private static final String ADDRESS = "127.0.0.1";
+    private static final int PORT = 12345;
+
+    public void testIdleConnectionFootprint() {
+        IExecutable test = () -> {
+            int count = 1000;
+
+            for (ExecutionMode mode : ExecutionMode.values()) {
+                ClientConfig<IEthernetEndPoint> config = Communication.createClientConfig(CLIENT_NAME, new EthernetEndPoint(ADDRESS, PORT));
+                config.setExecutionMode(mode);
+
+                ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+                int threadsBefore = threads.getThreadCount();
+                long memoryBefore = usedMemory();
+
+                List<IConnection> connections = new ArrayList<IConnection>();
+                for (int i = 0; i < count; i++) {
+                    IConnection connection = Communication.createConnection(config, new EthernetEndPoint(ADDRESS, i), new IdleConnectionImpl());
+                    connection.initialise();
+                    connections.add(connection);
+                }
+
+                sleep(1000);
+
+                int threadsAfter = threads.getThreadCount();
+                long memoryAfter = usedMemory();
+
+                Logger.info("%s threads: %s idle connections, %.2f OS threads per connection, %s bytes of heap per connection",
+                        mode, count, (threadsAfter - threadsBefore) / (double) count, (memoryAfter - memoryBefore) / count);
+
+                for (IConnection connection : connections) {
+                    connection.setEnabled(false);
+                    connection.dispose();
+                }
+
+                sleep(1000);
+            }
+        };
+
+        runTest("testIdleConnectionFootprint", test);
+    }
+
+    public void testCallbackTimeoutOverhead() {
+        IExecutable test = () -> {
+            int count = 20000;
+
+            // Before: one thread per request waiting for the response or the timeout
+            CountDownLatch threadLatch = new CountDownLatch(count);
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                Semaphore semaphore = new Semaphore(0);
+                Thread monitor = new Thread(() -> {
+                    try {
+                        semaphore.tryAcquire(1000, TimeUnit.MILLISECONDS);
+                        threadLatch.countDown();
+                    } catch (InterruptedException e) {
+                        // Do nothing
+                    }
+                });
+                monitor.start();
+                semaphore.release();
+            }
+            threadLatch.await();
+            long threadDuration = System.nanoTime() - start;
+
+            // After: timeouts scheduled on the shared timer
+            QueueManager queueManager = new QueueManager("Benchmark");
+            queueManager.initialize();
+
+            HealedCounter counter = new HealedCounter(10, 100, () -> {
+            }, "[Benchmark HealedCounter]");
+            CallbackManager callbackManager = new CallbackManager(queueManager, counter);
+
+            CountDownLatch timerLatch = new CountDownLatch(count);
+            start = System.nanoTime();
+            for (int i = 1; i <= count; i++) {
+                callbackManager.register(i, new Message(new byte[0], 1000, args -> timerLatch.countDown()));
+                callbackManager.start(i);
+                callbackManager.unregisterAndExecute(new HeaderMessage(count + i, i, new byte[0]));
+            }
+            timerLatch.await();
+            long timerDuration = System.nanoTime() - start;
+
+            Logger.info("Thread per request: %s requests, %.2f us per request", count, threadDuration / 1000.0 / count);
+            Logger.info("Shared timer: %s requests, %.2f us per request", count, timerDuration / 1000.0 / count);
+
+            callbackManager.dispose();
+            queueManager.dispose();
+            counter.dispose();
+        };
+
+        runTest("testCallbackTimeoutOverhead", test);
+    }
+
+    public void testSendingBatchThroughput() {
+        IExecutable test = () -> {
+            int count = 100000;
+            byte[] payload = "a small message".getBytes();
+            int expected = count * new SimpleLayer().pack(new HeaderMessage(1, 0, payload)).length;
+
+            for (int batchSize : new int[] { 0, 65536 }) {
+                ServerSocket serverSocket = new ServerSocket(0);
+                Socket socket = new Socket(ADDRESS, serverSocket.getLocalPort());
+                Socket remote = serverSocket.accept();
+
+                ClientConfig<IEthernetEndPoint> config = Communication.createClientConfig(CLIENT_NAME, new EthernetEndPoint(ADDRESS, serverSocket.getLocalPort()));
+                config.setSendingBatchSize(batchSize);
+
+                IConnection connection = Communication.createConnection(config, config.getEndPoint(), new TcpConnectionImpl(socket));
+                connection.initialise();
+
+                long start = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    connection.send(new Message(payload));
+                }
+
+                // Reading on the remote side until all messages have been received
+                byte[] buffer = new byte[65536];
+                int received = 0;
+                while (received < expected) {
+                    received += remote.getInputStream().read(buffer);
+                }
+                long duration = System.nanoTime() - start;
+
+                Logger.info("Batch size %s: %s messages, %.0f messages per second", batchSize, count, count / (duration / 1_000_000_000.0));
+
+                connection.setEnabled(false);
+                connection.dispose();
+                remote.close();
+                serverSocket.close();
+            }
+        };
+
+        runTest("testSendingBatchThroughput", test);
+    }
+
+    public void testLayerCopiesPerMessage() {
+        IExecutable test = () -> {
+            int count = 10000;
+            byte[] payload = new byte[1024];
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+            // Byte array oriented layers
+            ILayer[] layers = new ILayer[] { new SimpleLayer(), new SimpleLayer(new LengthPrefixFramer()) };
+            for (ILayer layer : layers) {
+                long before = threads.getCurrentThreadAllocatedBytes();
+                for (int i = 0; i < count; i++) {
+                    layer.unpack(layer.pack(new HeaderMessage(0, new Message(payload))));
+                }
+                long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+                Logger.info("%s: %.2f payload copies per message", layer.getClass().getSimpleName(), allocated / (double) count / payload.length);
+            }
+
+            // Buffer oriented layers
+            IBufferLayer[] bufferLayers = new IBufferLayer[] { new BufferLayerAdapter(new SimpleLayer()), new BufferSimpleLayer() };
+            for (IBufferLayer layer : bufferLayers) {
+                ByteBuffer buffer = ByteBuffer.allocate(2 * payload.length);
+
+                long before = threads.getCurrentThreadAllocatedBytes();
+                for (int i = 0; i < count; i++) {
+                    buffer.clear();
+                    layer.pack(new HeaderMessage(0, new Message(payload)), buffer);
+                    layer.unpack(buffer.flip());
+                }
+                long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+                Logger.info("%s: %.2f payload copies per message", layer.getClass().getSimpleName(), allocated / (double) count / payload.length);
+            }
+        };
+
+        runTest("testLayerCopiesPerMessage", test);
+    }
+
+    public void testRsaLayerBigMessage() {
+        IExecutable test = () -> {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+
+            KeyPair pairA = generator.generateKeyPair();
+            KeyPair pairB = generator.generateKeyPair();
+
+            ILayer[][] layers = new ILayer[][] {
+                    { new RsaLayer(pairA.getPrivate(), pairB.getPublic()), new RsaLayer(pairB.getPrivate(), pairA.getPublic()) },
+                    { new RsaHybridLayer(pairA.getPrivate(), pairB.getPublic(), Mode.CLIENT_TO_SERVER),
+                            new RsaHybridLayer(pairB.getPrivate(), pairA.getPublic(), Mode.SERVER_TO_CLIENT) } };
+
+            int count = 10;
+            byte[] payload = new byte[65536];
+            for (ILayer[] pair : layers) {
+                long start = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    pair[1].unpack(pair[0].pack(new HeaderMessage(0, new Message(payload))));
+                }
+                long duration = System.nanoTime() - start;
+
+                Logger.info("%s: %.2f ms per 64 kB message", pair[0].getClass().getSimpleName(), duration / 1_000_000.0 / count);
+            }
+        };
+
+        runTest("testRsaLayerBigMessage", test);
+    }
+
+    public void testCompressionLayerTradeOff() {
+        IExecutable test = () -> {
+            // JSON like payload of about 4 kB
+            StringBuilder builder = new StringBuilder("[");
+            for (int i = 0; builder.length() < 4096; i++) {
+                builder.append(String.format("{\"id\":%s,\"name\":\"player-%s\",\"x\":%s,\"y\":%s,\"alive\":true},", i, i, i * 3, i * 7));
+            }
+            byte[] payload = builder.append("]").toString().getBytes();
+
+            int count = 10000;
+            ILayer[] layers = new ILayer[] { new SimpleLayer(), new CompressionLayer(new SimpleLayer(), 256, 1, 1 << 20),
+                    new CompressionLayer(new SimpleLayer(), 256, 6, 1 << 20) };
+            String[] names = new String[] { "No compression", "Deflate level 1", "Deflate level 6" };
+
+            for (int i = 0; i < layers.length; i++) {
+                long bytes = 0;
+                long start = System.nanoTime();
+                for (int j = 0; j < count; j++) {
+                    byte[] packed = layers[i].pack(new HeaderMessage(0, new Message(payload)));
+                    layers[i].unpack(packed);
+                    bytes += packed.length;
+                }
+                long duration = System.nanoTime() - start;
+
+                Logger.info("%s: %s bytes per %s bytes message, %.2f us per message", names[i], bytes / count, payload.length,
+                        duration / 1000.0 / count);
+            }
+        };
+
+        runTest("testCompressionLayerTradeOff", test);
+    }
+
+    public void testHandshakeLatency() {
+        IExecutable test = () -> {
+            int count = 20;
+
+            // Key pair generation, on the accept path of the server
+            AsymmetricKeyManager[] managers = new AsymmetricKeyManager[] { new RsaKeyManager(2048), new X25519KeyManager() };
+            for (AsymmetricKeyManager manager : managers) {
+                long start = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    manager.generatePair();
+                }
+                long duration = System.nanoTime() - start;
+
+                Logger.info("%s: %.2f ms per key pair", manager.getClass().getSimpleName(), duration / 1_000_000.0 / count);
+            }
+
+            // Complete handshake between two connections over the loopback
+            List<Supplier<ILayerInitializer>> initializers = new ArrayList<Supplier<ILayerInitializer>>();
+            initializers.add(() -> new AesSafeLayerInitializer(new SimpleCertificate()));
+            initializers.add(() -> new EcdhLayerInitializer(new SimpleCertificate()));
+
+            for (Supplier<ILayerInitializer> initializer : initializers) {
+                String name = initializer.get().getClass().getSimpleName();
+                long total = 0;
+                int succeeded = 0;
+
+                for (int i = 0; i < 5; i++) {
+                    ServerSocket serverSocket = new ServerSocket(0);
+                    Socket socket = new Socket(ADDRESS, serverSocket.getLocalPort());
+                    Socket remote = serverSocket.accept();
+
+                    ClientConfig<IEthernetEndPoint> clientConfig = Communication.createClientConfig(CLIENT_NAME, new EthernetEndPoint(ADDRESS, serverSocket.getLocalPort()));
+                    clientConfig.setLayerInitializer(initializer);
+
+                    ServerConfig<IEthernetEndPoint> serverConfig = Communication.createServerConfig(SERVER_NAME, new EthernetEndPoint(serverSocket.getLocalPort()));
+                    serverConfig.setLayerInitializer(initializer);
+
+                    IConnection client = Communication.createConnection(clientConfig, clientConfig.getEndPoint(), new TcpConnectionImpl(socket));
+                    IConnection server = Communication.createConnection(serverConfig, clientConfig.getEndPoint(), new TcpConnectionImpl(remote));
+
+                    long start = System.nanoTime();
+                    CompletableFuture<Boolean> serverSide = CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return server.initialise();
+                        } catch (Exception e) {
+                            return false;
+                        }
+                    });
+                    boolean success = client.initialise() && serverSide.get();
+                    long duration = System.nanoTime() - start;
+
+                    if (success) {
+                        total += duration;
+                        succeeded++;
+                    }
+
+                    client.setEnabled(false);
+                    server.setEnabled(false);
+                    client.dispose();
+                    server.dispose();
+                    serverSocket.close();
+                }
+
+                Logger.info("%s: %s/5 handshakes, %.2f ms per handshake", name, succeeded, succeeded == 0 ? 0 : total / 1_000_000.0 / succeeded);
+            }
+        };
+
+        runTest("testHandshakeLatency", test);
+    }
+
+    public void testBroadcastFanOut() {
+        IExecutable test = () -> {
+            int count = 5000;
+            byte[] payload = new byte[1024];
+
+            ClientConfig<IEthernetEndPoint> config = Communication.createClientConfig(CLIENT_NAME, new EthernetEndPoint(ADDRESS, PORT));
+            config.setExecutionMode(ExecutionMode.VIRTUAL);
+
+            for (boolean isShared : new boolean[] { false, true }) {
+                CountDownLatch sent = new CountDownLatch(count);
+
+                List<IConnection> connections = new ArrayList<IConnection>();
+                for (int i = 0; i < count; i++) {
+                    IConnection connection = Communication.createConnection(config, new EthernetEndPoint(ADDRESS, i), new IdleConnectionImpl(sent));
+                    connection.initialise();
+                    connections.add(connection);
+                }
+
+                long start = System.nanoTime();
+                if (isShared) {
+                    // Packed once by the first connection, the other ones reuse the frame
+                    ISharedMessage message = new SharedMessage(new Message(payload));
+                    for (IConnection connection : connections) {
+                        connection.send(message);
+                    }
+                } else {
+                    for (IConnection connection : connections) {
+                        connection.send(new Message(payload));
+                    }
+                }
+
+                boolean completed = sent.await(10, TimeUnit.SECONDS);
+                long duration = System.nanoTime() - start;
+
+                Logger.info("%s: %s connections, fan-out in %.2f ms%s", isShared ? "Shared message" : "Message per connection",
+                        count, duration / 1_000_000.0, completed ? "" : " (incomplete)");
+
+                for (IConnection connection : connections) {
+                    connection.setEnabled(false);
+                    connection.dispose();
+                }
+
+                sleep(1000);
+            }
+        };
+
+        runTest("testBroadcastFanOut", test);
+    }
+
+    public void testSharedDispatchExecutor() {
+        IExecutable test = () -> {
+            int count = 1000;
+            DispatchExecutor executor = new DispatchExecutor("Benchmark dispatcher", 8, ExecutionMode.PLATFORM);
+
+            // Threads needed by idle connections
+            for (boolean isShared : new boolean[] { false, true }) {
+                ClientConfig<IEthernetEndPoint> config = Communication.createClientConfig(CLIENT_NAME, new EthernetEndPoint(ADDRESS, PORT));
+                config.setDispatchExecutor(isShared ? executor : null);
+
+                ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+                int threadsBefore = threads.getThreadCount();
+
+                List<IConnection> connections = new ArrayList<IConnection>();
+                for (int i = 0; i < count; i++) {
+                    IConnection connection = Communication.createConnection(config, new EthernetEndPoint(ADDRESS, i), new IdleConnectionImpl());
+                    connection.initialise();
+                    connections.add(connection);
+                }
+
+                sleep(1000);
+
+                Logger.info("%s: %s idle connections, %.2f threads per connection", isShared ? "Shared dispatch executor" : "Dispatching thread per connection",
+                        count, (threads.getThreadCount() - threadsBefore) / (double) count);
+
+                for (IConnection connection : connections) {
+                    connection.setEnabled(false);
+                    connection.dispose();
+                }
+
+                sleep(1000);
+            }
+
+            // One busy connection whose messages take 1 ms to be handled
+            int messages = 1000;
+            for (boolean isOrdered : new boolean[] { true, false }) {
+                ServerSocket serverSocket = new ServerSocket(0);
+                Socket socket = new Socket(ADDRESS, serverSocket.getLocalPort());
+                Socket remote = serverSocket.accept();
+
+                ClientConfig<IEthernetEndPoint> clientConfig = Communication.createClientConfig(CLIENT_NAME, new EthernetEndPoint(ADDRESS, serverSocket.getLocalPort()));
+                ServerConfig<IEthernetEndPoint> serverConfig = Communication.createServerConfig(SERVER_NAME, new EthernetEndPoint(serverSocket.getLocalPort()));
+                serverConfig.setDispatchExecutor(executor);
+                serverConfig.setDispatchOrdered(isOrdered);
+
+                IConnection client = Communication.createConnection(clientConfig, clientConfig.getEndPoint(), new TcpConnectionImpl(socket));
+                IConnection server = Communication.createConnection(serverConfig, clientConfig.getEndPoint(), new TcpConnectionImpl(remote));
+
+                CompletableFuture<Boolean> serverSide = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return server.initialise();
+                    } catch (Exception e) {
+                        return false;
+                    }
+                });
+                client.initialise();
+                serverSide.get();
+
+                CountDownLatch handled = new CountDownLatch(messages);
+                server.setMessageHandler(event -> {
+                    sleep(1);
+                    handled.countDown();
+                });
+
+                long start = System.nanoTime();
+                for (int i = 0; i < messages; i++) {
+                    client.send(new Message(String.format("Message %s", i).getBytes()));
+                }
+
+                boolean completed = handled.await(30, TimeUnit.SECONDS);
+                long duration = System.nanoTime() - start;
+
+                Logger.info("%s dispatch: %s messages handled in %.2f ms%s", isOrdered ? "Ordered" : "Parallel", messages,
+                        duration / 1_000_000.0, completed ? "" : " (incomplete)");
+
+                client.setEnabled(false);
+                server.setEnabled(false);
+                client.dispose();
+                server.dispose();
+                serverSocket.close();
+            }
+
+            executor.dispose();
+        };
+
+        runTest("testSharedDispatchExecutor", test);
+    }
+
+    public void testNioSlowConsumer() {
+        IExecutable test = () -> {
+            int total = 64 * 1024 * 1024;
+
+            ServerSocket serverSocket = new ServerSocket(0);
+            SocketChannel channel = SocketChannel.open(new InetSocketAddress(ADDRESS, serverSocket.getLocalPort()));
+            Socket remote = serverSocket.accept();
+
+            IConnectionImpl impl = new NioTcpConnectionImpl(channel, SelectorLoopGroup.getDefault().next());
+
+            // The remote writes as fast as possible while nothing is consumed
+            AtomicInteger written = new AtomicInteger();
+            Thread writer = new Thread(() -> {
+                byte[] chunk = new byte[65536];
+                try {
+                    while (written.get() < total) {
+                        remote.getOutputStream().write(chunk);
+                        written.addAndGet(chunk.length);
+                    }
+                } catch (IOException e) {
+                    // Do nothing
+                }
+            });
+            writer.start();
+
+            sleep(1000);
+
+            Logger.info("Written before consumption: %s kB out of %s kB", written.get() / 1024, total / 1024);
+
+            long received = 0;
+            while (received < total) {
+                received += impl.receive().length;
+            }
+
+            Logger.info("Received: %s kB", received / 1024);
+
+            writer.join();
+            impl.dispose();
+            remote.close();
+            serverSocket.close();
+        };
+
+        runTest("testNioSlowConsumer", test);
+    }
+
+    /**
+     * @return The number of bytes currently used in the heap, after having
+     * requested a garbage collection.
+     */
+    private long usedMemory() {
+        System.gc();
+        sleep(200);
+
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private void runTest(String testName, IExecutable test) {
+        Logger.debug("Begin %s", testName);
+        try {
+            test.exec();
+        } catch (Exception e) {
+            Logger.error("Unexpected error: %s", e.getMessage());
+            for (StackTraceElement trace : e.getStackTrace()) {
+                Logger.error(trace.toString());
+            }
+        }
+        Logger.debug("End %s", testName);
+    }
+
+    private void sleep(int millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static class IdleConnectionImpl implements IConnectionImpl {
+        private final Semaphore semaphore;
+        private final CountDownLatch sent;
+
+        /**
+         * Creates a connection that never receives data from the remote.
+         *
+         * @param sent The latch to count down each time data is sent, may be null.
+         */
+        public IdleConnectionImpl(CountDownLatch sent) {
+            this.sent = sent;
+
+            semaphore = new Semaphore(0);
+        }
+
+        /**
+         * Creates a connection that never receives data from the remote.
+         */
+        public IdleConnectionImpl() {
+            this(null);
+        }
+
+        @Override
+        public void send(byte[] data) throws Exception {
+            if (sent != null) {
+                sent.countDown();
+            }
+        }
+
+        @Override
+        public byte[] receive() throws Exception {
+            // Block until the connection is disposed
+            semaphore.acquire();
+            return null;
+        }
+
+        @Override
+        public void dispose() {
+            semaphore.release();
+        }
+    }
+}
@@ -1,19 +1,37 @@
 package fr.pederobien.communication.testing;
 
+import fr.pederobien.communication.event.ConnectionDisposedEvent;
+import fr.pederobien.communication.event.ConnectionEnableChangedEvent;
+import fr.pederobien.communication.event.ConnectionLostEvent;
+import fr.pederobien.communication.event.NewClientEvent;
+import fr.pederobien.communication.event.ServerCloseEvent;
+import fr.pederobien.communication.event.ServerDisposeEvent;
+import fr.pederobien.communication.event.ServerOpenEvent;
 import fr.pederobien.communication.impl.ClientConfig;
 import fr.pederobien.communication.impl.Communication;
 import fr.pederobien.communication.impl.EthernetEndPoint;
 import fr.pederobien.communication.impl.ServerConfig;
 import fr.pederobien.communication.impl.connection.Message;
+import fr.pederobien.communication.impl.keyexchange.SessionCache;
+import fr.pederobien.communication.impl.layer.AesGcmLayerInitializer;
 import fr.pederobien.communication.impl.layer.AesLayerInitializer;
 import fr.pederobien.communication.impl.layer.AesSafeLayerInitializer;
+import fr.pederobien.communication.impl.layer.BufferSimpleLayer;
+import fr.pederobien.communication.impl.layer.CompressionLayerInitializer;
+import fr.pederobien.communication.impl.layer.EcdhLayerInitializer;
 import fr.pederobien.communication.impl.layer.LayerInitializer;
+import fr.pederobien.communication.impl.layer.RsaHybridLayerInitializer;
 import fr.pederobien.communication.impl.layer.RsaLayerInitializer;
+import fr.pederobien.communication.interfaces.IConfiguration.ExecutionMode;
 import fr.pederobien.communication.interfaces.IEthernetEndPoint;
 import fr.pederobien.communication.interfaces.client.IClient;
+import fr.pederobien.communication.interfaces.connection.ICallback.CallbackArgs;
+import fr.pederobien.communication.interfaces.connection.IConnection;
+import fr.pederobien.communication.interfaces.connection.IConnectionListener;
 import fr.pederobien.communication.interfaces.connection.IMessage;
 import fr.pederobien.communication.interfaces.server.IServer;
 import fr.pederobien.communication.interfaces.server.IServerConfig;
+import fr.pederobien.communication.interfaces.server.IServerListener;
 import fr.pederobien.communication.testing.tools.ExceptionLayer;
 import fr.pederobien.communication.testing.tools.ExceptionLayer.LayerExceptionMode;
 import fr.pederobien.communication.testing.tools.ServerListener;
@@ -21,6 +39,15 @@ import fr.pederobien.communication.testing.tools.SimpleCertificate;
 import fr.pederobien.utils.IExecutable;
 import fr.pederobien.utils.event.Logger;
 
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class TcpCommunicationTest {
     private static final String SERVER_NAME = "TCP Server";
     private static final String CLIENT_NAME = "TCP Client";
@@ -674,6 +701,159 @@ public class TcpCommunicationTest {
         runTest("testRsaLayer", test);
     }
 
+    public void testRsaHybridLayer() {
+        IExecutable test = () -> {
+            ServerConfig<IEthernetEndPoint> serverConfig = createServerConfig();
+            serverConfig.setLayerInitializer(() -> new RsaHybridLayerInitializer(new SimpleCertificate()));
+
+            IServer server = Communication.createTcpServer(serverConfig);
+            server.open();
+
+            ServerListener listener = new ServerListener(server);
+            listener.setActionOnNewClientConnected(event -> {
+                sleep(500);
+
+                IMessage message = new Message("a message from the server".getBytes(), args -> {
+                    if (!args.isTimeout()) {
+                        Logger.debug("Server received %s", new String(args.response()));
+                    } else {
+                        Logger.error("Unexpected timeout occurred");
+                    }
+                });
+
+                event.getConnection().send(message);
+            });
+
+            listener.start();
+
+            ClientConfig<IEthernetEndPoint> clientConfig = createClientConfig();
+            clientConfig.setLayerInitializer(() -> new RsaHybridLayerInitializer(new SimpleCertificate()));
+            clientConfig.setMessageHandler(event -> {
+                Logger.debug("Client received %s", new String(event.getData()));
+
+                event.getConnection().answer(event.getIdentifier(), new Message("a message from a client".getBytes()));
+            });
+
+            IClient client = Communication.createTcpClient(clientConfig);
+            client.connect();
+
+            sleep(3000);
+
+            client.disconnect();
+            client.dispose();
+
+            sleep(500);
+
+            listener.stop();
+            server.close();
+            server.dispose();
+        };
+
+        runTest("testRsaHybridLayer", test);
+    }
+
+    public void testEcdhLayer() {
+        IExecutable test = () -> {
+            ServerConfig<IEthernetEndPoint> serverConfig = createServerConfig();
+            serverConfig.setLayerInitializer(() -> new EcdhLayerInitializer(new SimpleCertificate()));
+
+            IServer server = Communication.createTcpServer(serverConfig);
+            server.open();
+
+            ServerListener listener = new ServerListener(server);
+            listener.setActionOnNewClientConnected(event -> {
+                sleep(500);
+
+                IMessage message = new Message("a message from the server".getBytes(), args -> {
+                    if (!args.isTimeout()) {
+                        Logger.debug("Server received %s", new String(args.response()));
+                    } else {
+                        Logger.error("Unexpected timeout occurred");
+                    }
+                });
+
+                event.getConnection().send(message);
+            });
+
+            listener.start();
+
+            ClientConfig<IEthernetEndPoint> clientConfig = createClientConfig();
+            clientConfig.setLayerInitializer(() -> new EcdhLayerInitializer(new SimpleCertificate()));
+            clientConfig.setMessageHandler(event -> {
+                Logger.debug("Client received %s", new String(event.getData()));
+
+                event.getConnection().answer(event.getIdentifier(), new Message("a message from a client".getBytes()));
+            });
+
+            IClient client = Communication.createTcpClient(clientConfig);
+            client.connect();
+
+            sleep(3000);
+
+            client.disconnect();
+            client.dispose();
+
+            sleep(500);
+
+            listener.stop();
+            server.close();
+            server.dispose();
+        };
+
+        runTest("testEcdhLayer", test);
+    }
+
+    public void testCompressedAesGcmLayer() {
+        IExecutable test = () -> {
+            ServerConfig<IEthernetEndPoint> serverConfig = createServerConfig();
+            serverConfig.setLayerInitializer(() -> new CompressionLayerInitializer(new AesGcmLayerInitializer(new SimpleCertificate()), 16));
+
+            IServer server = Communication.createTcpServer(serverConfig);
+            server.open();
+
+            ServerListener listener = new ServerListener(server);
+            listener.setActionOnNewClientConnected(event -> {
+                sleep(500);
+
+                IMessage message = new Message("a message from the server ".repeat(10).getBytes(), args -> {
+                    if (!args.isTimeout()) {
+                        Logger.debug("Server received %s", new String(args.response()));
+                    } else {
+                        Logger.error("Unexpected timeout occurred");
+                    }
+                });
+
+                event.getConnection().send(message);
+            });
+
+            listener.start();
+
+            ClientConfig<IEthernetEndPoint> clientConfig = createClientConfig();
+            clientConfig.setLayerInitializer(() -> new CompressionLayerInitializer(new AesGcmLayerInitializer(new SimpleCertificate()), 16));
+            clientConfig.setMessageHandler(event -> {
+                Logger.debug("Client received %s", new String(event.getData()));
+
+                event.getConnection().answer(event.getIdentifier(), new Message("a message from a client".getBytes()));
+            });
+
+            IClient client = Communication.createTcpClient(clientConfig);
+            client.connect();
+
+            sleep(3000);
+
+            client.disconnect();
+            client.dispose();
+
+            sleep(500);
+
+            listener.stop();
+            server.close();
+            server.dispose();
+        };
+
+        runTest("testCompressedAesGcmLayer", test);
+    }
+
     public void testAesLayer() {
         IExecutable test = () -> {
             ServerConfig<IEthernetEndPoint> serverConfig = createServerConfig();
@@ -776,6 +956,114 @@ public class TcpCommunicationTest {
         runTest("testAesSafeLayer", test);
     }
 
+    public void testAesSafeLayerSessionResumption() {
+        IExecutable test = () -> {
+            SessionCache serverCache = new SessionCache();
+            ServerConfig<IEthernetEndPoint> serverConfig = createServerConfig();
+            serverConfig.setLayerInitializer(() -> new AesSafeLayerInitializer(new SimpleCertificate(), serverCache));
+
+            IServer server = Communication.createTcpServer(serverConfig);
+            server.open();
+
+            ServerListener listener = new ServerListener(server);
+            listener.setMessageHandler(event -> {
+                Logger.debug("Server received %s", new String(event.getData()));
+
+                event.getConnection().answer(event.getIdentifier(), new Message("a message from the server".getBytes()));
+            });
+
+            listener.start();
+
+            SessionCache clientCache = new SessionCache();
+            ClientConfig<IEthernetEndPoint> clientConfig = createClientConfig();
+            clientConfig.setLayerInitializer(() -> new AesSafeLayerInitializer(new SimpleCertificate(), clientCache));
+
+            // The first connection performs the whole key exchange, the second one resumes the session
+            for (int i = 0; i < 2; i++) {
+                IClient client = Communication.createTcpClient(clientConfig);
+                client.connect();
+
+                sleep(i == 0 ? 3000 : 1000);
+
+                IMessage message = new Message("a message from a client".getBytes(), args -> {
+                    if (!args.isTimeout()) {
+                        Logger.debug("Client received %s", new String(args.response()));
+                    } else {
+                        Logger.error("Unexpected timeout occurred");
+                    }
+                });
+
+                client.getConnection().send(message);
+
+                sleep(500);
+
+                Logger.debug("Sessions: server %s, client %s", serverCache.size(), clientCache.size());
+
+                client.disconnect();
+                client.dispose();
+            }
+
+            sleep(500);
+
+            listener.stop();
+            server.close();
+            server.dispose();
+        };
+
+        runTest("testAesSafeLayerSessionResumption", test);
+    }
+
+    public void testAesGcmLayer() {
+        IExecutable test = () -> {
+            ServerConfig<IEthernetEndPoint> serverConfig = createServerConfig();
+            serverConfig.setLayerInitializer(() -> new AesGcmLayerInitializer(new SimpleCertificate()));
+
+            IServer server = Communication.createTcpServer(serverConfig);
+            server.open();
+
+            ServerListener listener = new ServerListener(server);
+            listener.setActionOnNewClientConnected(event -> {
+                sleep(500);
+
+                IMessage message = new Message("a message from the server".getBytes(), args -> {
+                    if (!args.isTimeout()) {
+                        Logger.debug("Server received %s", new String(args.response()));
+                    } else {
+                        Logger.error("Unexpected timeout occurred");
+                    }
+                });
+
+                event.getConnection().send(message);
+            });
+
+            listener.start();
+
+            ClientConfig<IEthernetEndPoint> clientConfig = createClientConfig();
+            clientConfig.setLayerInitializer(() -> new AesGcmLayerInitializer(new SimpleCertificate()));
+            clientConfig.setMessageHandler(event -> {
+                Logger.debug("Client received %s", new String(event.getData()));
+
+                event.getConnection().answer(event.getIdentifier(), new Message("a message from a client".getBytes()));
+            });
+
+            IClient client = Communication.createTcpClient(clientConfig);
+            client.connect();
+
+            sleep(3000);
+
+            client.disconnect();
+            client.dispose();
+
+            sleep(500);
+
+            listener.stop();
+            server.close();
+            server.dispose();
+        };
+
+        runTest("testAesGcmLayer", test);
+    }
+
     public void testTwoClientsOneServer() {
         IExecutable tests = () -> {
             IClient client1 = createDefaultTcpClient();
@@ -819,6 +1107,471 @@ public class TcpCommunicationTest {
         runTest("testTwoClientsOneServer", tests);
     }
 
+    public void testClientToServerWithFuture() {
+        IExecutable test = () -> {
+            IServer server = createDefaultTcpServer();
+            server.open();
+
+            ServerListener listener = new ServerListener(server);
+            listener.setMessageHandler(event -> {
+                Logger.debug("Server received %s", new String(event.getData()));
+
+                byte[] bytes = String.format("answer to %s", new String(event.getData())).getBytes();
+                event.getConnection().answer(event.getIdentifier(), new Message(bytes));
+            });
+
+            listener.start();
+
+            IClient client = createDefaultTcpClient();
+            client.connect();
+
+            sleep(2000);
+
+            // Several requests waiting for their response at the same time
+            List<CompletableFuture<CallbackArgs>> futures = new ArrayList<CompletableFuture<CallbackArgs>>();
+            for (int i = 0; i < 10; i++) {
+                byte[] bytes = String.format("request %s", i).getBytes();
+                futures.add(client.getConnection().sendAsync(new Message(bytes, 1000, _ -> {
+                })));
+            }
+
+            for (CompletableFuture<CallbackArgs> future : futures) {
+                CallbackArgs args = future.join();
+                if (!args.isTimeout()) {
+                    Logger.debug("Client received %s", new String(args.response()));
+                } else {
+                    Logger.error("Unexpected timeout occurred");
+                }
+            }
+
+            client.disconnect();
+            client.dispose();
+
+            sleep(500);
+
+            listener.stop();
+            server.close();
+            server.dispose();
+        };
+
+        runTest("testClientToServerWithFuture", test);
+    }
+
+    public void testClientToServerWithFutureButNoTimeout() {
+        IExecutable test = () -> {
+            IServer server = createDefaultTcpServer();
+            server.open();
+
+            ServerListener listener = new ServerListener(server);
+            listener.setMessageHandler(event -> Logger.debug("Server received %s", new String(event.getData())));
+
+            listener.start();
+
+            IClient client = createDefaultTcpClient();
+            client.connect();
+
+            sleep(2000);
+
+            // No positive timeout, the future must be completed anyway
+            CompletableFuture<CallbackArgs> future = client.getConnection().sendAsync(new Message("a message from a client".getBytes(), 0, _ -> {
+            }));
+
+            try {
+                Logger.debug("Future completed, timeout: %s", future.get(2000, TimeUnit.MILLISECONDS).isTimeout());
+            } catch (TimeoutException e) {
+                Logger.error("Future not completed");
+            }
+
+            client.disconnect();
+            client.dispose();
+
+            sleep(500);
+
+            listener.stop();
+            server.close();
+            server.dispose();
+        };
+
+        runTest("testClientToServerWithFutureButNoTimeout", test);
+    }
+
+    public void testNioClientToServerWithCallback() {
+        IExecutable test = () -> {
+            ServerConfig<IEthernetEndPoint> serverConfig = createServerConfig();
+            serverConfig.setExecutionMode(ExecutionMode.VIRTUAL);
+
+            IServer server = Communication.createNioTcpServer(serverConfig);
+            server.open();
+
+            ServerListener listener = new ServerListener(server);
+            listener.setMessageHandler(event -> {
+                Logger.debug("Server received %s", new String(event.getData()));
+
+                byte[] bytes = "a message from the server".getBytes();
+                event.getConnection().answer(event.getIdentifier(), new Message(bytes));
+            });
+
+            listener.start();
+
+            ClientConfig<IEthernetEndPoint> clientConfig = createClientConfig();
+            clientConfig.setExecutionMode(ExecutionMode.VIRTUAL);
+
+            IClient client = Communication.createNioTcpClient(clientConfig);
+            client.connect();
+
+            sleep(2000);
+
+            client.getConnection().send(new Message("a message from a client".getBytes(), args -> {
+                if (!args.isTimeout()) {
+                    Logger.debug("Client received %s", new String(args.response()));
+                } else {
+                    Logger.error("Unexpected timeout occurred");
+                }
+            }));
+
+            sleep(2000);
+
+            client.disconnect();
+            client.dispose();
+
+            sleep(500);
+
+            listener.stop();
+            server.close();
+            server.dispose();
+        };
+
+        runTest("testNioClientToServerWithCallback", test);
+    }
+
+    public void testNioTwoClientsOneServer() {
+        IExecutable tests = () -> {
+            ServerConfig<IEthernetEndPoint> serverConfig = createServerConfig();
+            serverConfig.setExecutionMode(ExecutionMode.VIRTUAL);
+
+            IServer server = Communication.createNioTcpServer(serverConfig);
+            server.open();
+
+            ServerListener listener = new ServerListener(server);
+            listener.setMessageHandler(event -> Logger.debug("Server received %s", new String(event.getData())));
+
+            listener.start();
+
+            ClientConfig<IEthernetEndPoint> clientConfig = createClientConfig();
+            clientConfig.setExecutionMode(ExecutionMode.VIRTUAL);
+
+            IClient client1 = Communication.createNioTcpClient(clientConfig);
+            client1.connect();
+
+            IClient client2 = Communication.createNioTcpClient(clientConfig);
+            client2.connect();
+
+            sleep(2000);
+
+            client1.getConnection().send(new Message("a message from client1".getBytes()));
+            client2.getConnection().send(new Message("a message from client2".getBytes()));
+
+            sleep(2000);
+
+            client1.disconnect();
+            client1.dispose();
+
+            client2.disconnect();
+            client2.dispose();
+
+            sleep(500);
+
+            listener.stop();
+            server.close();
+            server.dispose();
+        };
+
+        runTest("testNioTwoClientsOneServer", tests);
+    }
+
+    public void testSlowHandshakeDoesNotBlockAccept() {
+        IExecutable test = () -> {
+            ServerConfig<IEthernetEndPoint> serverConfig = createServerConfig();
+            serverConfig.setLayerInitializer(() -> new AesLayerInitializer(new SimpleCertificate()));
+            serverConfig.setHandshakeConcurrency(3);
+            serverConfig.setHandshakeBacklog(1);
+
+            IServer server = Communication.createTcpServer(serverConfig);
+            server.open();
+
+            ServerListener listener = new ServerListener(server);
+            listener.setMessageHandler(event -> {
+                Logger.debug("Server received %s", new String(event.getData()));
+
+                event.getConnection().answer(event.getIdentifier(), new Message("a message from the server".getBytes()));
+            });
+
+            listener.start();
+
+            // Clients that never perform the handshake, the server waits for them until the timeout
+            List<Socket> sockets = new ArrayList<Socket>();
+            for (int i = 0; i < 2; i++) {
+                sockets.add(new Socket(ADDRESS, PORT));
+            }
+
+            sleep(200);
+            Logger.debug("Handshakes: %s", server.getHandshakeMetrics());
+
+            ClientConfig<IEthernetEndPoint> clientConfig = createClientConfig();
+            clientConfig.setLayerInitializer(() -> new AesLayerInitializer(new SimpleCertificate()));
+
+            long start = System.currentTimeMillis();
+            IClient client = Communication.createTcpClient(clientConfig);
+            client.connect();
+
+            sleep(1000);
+
+            client.getConnection().send(new Message("a message from a client".getBytes(), args -> {
+                if (!args.isTimeout()) {
+                    Logger.debug("Client received %s after %s ms", new String(args.response()), System.currentTimeMillis() - start);
+                } else {
+                    Logger.error("Unexpected timeout occurred");
+                }
+            }));
+
+            sleep(500);
+            Logger.debug("Handshakes: %s", server.getHandshakeMetrics());
+
+            client.disconnect();
+            client.dispose();
+
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+
+            sleep(500);
+
+            listener.stop();
+            server.close();
+            server.dispose();
+        };
+
+        runTest("testSlowHandshakeDoesNotBlockAccept", test);
+    }
+
+    public void testConnectionRegistry() {
+        IExecutable test = () -> {
+            IServer server = Communication.createTcpServer(createServerConfig());
+            server.open();
+
+            IClient client1 = Communication.createTcpClient(createClientConfig());
+            client1.connect();
+
+            IClient client2 = Communication.createTcpClient(createClientConfig());
+            client2.connect();
+
+            sleep(1000);
+
+            Logger.debug("Server registry: %s", server.getConnections());
+            server.getConnections().forEach((endPoint, connection) -> {
+                // Looking for the connection with an equal end-point
+                IEthernetEndPoint point = (IEthernetEndPoint) endPoint;
+                IConnection found = server.getConnections().get(new EthernetEndPoint(point.getAddress(), point.getPort()));
+                Logger.debug("Client %s found by end-point: %s", endPoint, found == connection);
+            });
+
+            client1.disconnect();
+            client1.dispose();
+
+            sleep(500);
+
+            Logger.debug("Server registry after first client disconnection: %s", server.getConnections());
+
+            client2.disconnect();
+            client2.dispose();
+
+            sleep(500);
+
+            Logger.debug("Server registry after second client disconnection: %s", server.getConnections());
+
+            server.close();
+            server.dispose();
+        };
+
+        runTest("testConnectionRegistry", test);
+    }
+
+    public void testServerBroadcast() {
+        IExecutable test = () -> {
+            IServer server = Communication.createTcpServer(createServerConfig());
+            server.open();
+
+            List<IClient> clients = new ArrayList<IClient>();
+            for (int i = 0; i < 3; i++) {
+                String name = "Client " + i;
+
+                ClientConfig<IEthernetEndPoint> clientConfig = createClientConfig();
+                clientConfig.setMessageHandler(event -> {
+                    Logger.debug("%s received %s", name, new String(event.getData()));
+
+                    event.getConnection().answer(event.getIdentifier(), new Message(String.format("%s response", name).getBytes()));
+                });
+
+                IClient client = Communication.createTcpClient(clientConfig);
+                client.connect();
+                clients.add(client);
+            }
+
+            sleep(1000);
+
+            IMessage message = new Message("a message to all clients".getBytes(), args -> {
+                if (!args.isTimeout()) {
+                    Logger.debug("Server received %s", new String(args.response()));
+                } else {
+                    Logger.error("Unexpected timeout occurred");
+                }
+            });
+
+            Logger.debug("Message broadcast to %s clients", server.broadcast(message));
+
+            sleep(500);
+
+            // Excluding one client
+            IConnection excluded = server.getConnections().iterator().next();
+            int count = server.broadcast(new Message("a message to all clients but one".getBytes()), connection -> connection != excluded);
+            Logger.debug("Message broadcast to %s clients", count);
+
+            sleep(500);
+
+            for (IClient client : clients) {
+                client.disconnect();
+                client.dispose();
+            }
+
+            sleep(500);
+
+            server.close();
+            server.dispose();
+        };
+
+        runTest("testServerBroadcast", test);
+    }
+
+    public void testServerAndConnectionListeners() {
+        IExecutable test = () -> {
+            ServerConfig<IEthernetEndPoint> serverConfig = createServerConfig();
+            serverConfig.setEventBusMirrored(false);
+
+            IServer server = Communication.createTcpServer(serverConfig);
+            server.addListener(new IServerListener() {
+                @Override
+                public void onOpen(ServerOpenEvent event) {
+                    Logger.debug("Server opened");
+                }
+
+                @Override
+                public void onNewClient(NewClientEvent event) {
+                    Logger.debug("New client connected");
+
+                    event.getConnection().addListener(new IConnectionListener() {
+                        @Override
+                        public void onLost(ConnectionLostEvent event) {
+                            Logger.debug("Server side: connection with the client lost");
+                        }
+
+                        @Override
+                        public void onDisposed(ConnectionDisposedEvent event) {
+                            Logger.debug("Server side: connection with the client disposed");
+                        }
+                    });
+                }
+
+                @Override
+                public void onClose(ServerCloseEvent event) {
+                    Logger.debug("Server closed");
+                }
+
+                @Override
+                public void onDispose(ServerDisposeEvent event) {
+                    Logger.debug("Server disposed");
+                }
+            });
+            server.open();
+
+            ClientConfig<IEthernetEndPoint> clientConfig = createClientConfig();
+            clientConfig.setEventBusMirrored(false);
+
+            IClient client = Communication.createTcpClient(clientConfig);
+            client.connect();
+
+            sleep(1000);
+
+            client.getConnection().addListener(new IConnectionListener() {
+                @Override
+                public void onEnableChanged(ConnectionEnableChangedEvent event) {
+                    Logger.debug("Client side: connection enabled: %s", event.isEnabled());
+                }
+            });
+
+            client.disconnect();
+            client.dispose();
+
+            sleep(500);
+
+            server.close();
+            server.dispose();
+        };
+
+        runTest("testServerAndConnectionListeners", test);
+    }
+
+    public void testBufferSimpleLayerWithBatching() {
+        IExecutable test = () -> {
+            ServerConfig<IEthernetEndPoint> serverConfig = createServerConfig();
+            serverConfig.setLayerInitializer(() -> new LayerInitializer(new BufferSimpleLayer()));
+
+            IServer server = Communication.createTcpServer(serverConfig);
+            server.open();
+
+            AtomicInteger received = new AtomicInteger();
+            ServerListener listener = new ServerListener(server);
+            listener.setMessageHandler(event -> {
+                // Reading the payload without copying it
+                String message = StandardCharsets.UTF_8.decode(event.getBuffer()).toString();
+
+                String expected = String.format("message %s", received.getAndIncrement());
+                if (!expected.equals(message)) {
+                    Logger.error("Expected \"%s\" but received \"%s\"", expected, message);
+                }
+            });
+
+            listener.start();
+
+            ClientConfig<IEthernetEndPoint> clientConfig = createClientConfig();
+            clientConfig.setLayerInitializer(() -> new LayerInitializer(new BufferSimpleLayer()));
+            clientConfig.setSendingBatchSize(4096);
+
+            IClient client = Communication.createTcpClient(clientConfig);
+            client.connect();
+
+            sleep(2000);
+
+            for (int i = 0; i < 1000; i++) {
+                client.getConnection().send(new Message(String.format("message %s", i).getBytes()));
+            }
+
+            sleep(2000);
+
+            Logger.debug("Server received %s messages out of 1000", received.get());
+
+            client.disconnect();
+            client.dispose();
+
+            sleep(500);
+
+            listener.stop();
+            server.close();
+            server.dispose();
+        };
+
+        runTest("testBufferSimpleLayerWithBatching", test);
+    }
+
     private void runTest(String testName, IExecutable test) {
         Logger.debug("Begin %s", testName);
         try {
@@ -5,14 +5,17 @@ import fr.pederobien.communication.impl.Communication;
 import fr.pederobien.communication.impl.EthernetEndPoint;
 import fr.pederobien.communication.impl.ServerConfig;
 import fr.pederobien.communication.impl.connection.Message;
+import fr.pederobien.communication.impl.layer.AesGcmLayerInitializer;
 import fr.pederobien.communication.impl.layer.AesLayerInitializer;
 import fr.pederobien.communication.impl.layer.AesSafeLayerInitializer;
 import fr.pederobien.communication.impl.layer.LayerInitializer;
 import fr.pederobien.communication.impl.layer.RsaLayerInitializer;
+import fr.pederobien.communication.impl.server.UdpServerImpl;
 import fr.pederobien.communication.interfaces.IEthernetEndPoint;
 import fr.pederobien.communication.interfaces.client.IClient;
 import fr.pederobien.communication.interfaces.server.IServer;
 import fr.pederobien.communication.interfaces.server.IServerConfig;
+import fr.pederobien.communication.interfaces.server.IServerConfig.OverflowPolicy;
 import fr.pederobien.communication.testing.tools.ExceptionLayer;
 import fr.pederobien.communication.testing.tools.ExceptionLayer.LayerExceptionMode;
 import fr.pederobien.communication.testing.tools.ServerListener;
@@ -20,6 +23,11 @@ import fr.pederobien.communication.testing.tools.SimpleCertificate;
 import fr.pederobien.utils.IExecutable;
 import fr.pederobien.utils.event.Logger;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class UdpCommunicationTest {
     private static final String SERVER_NAME = "UDP Server";
     private static final String CLIENT_NAME = "UDP Client";
@@ -719,6 +727,57 @@ public class UdpCommunicationTest {
         runTest("testAesSafeLayer", test);
     }
 
+    public void testAesGcmLayer() {
+        IExecutable test = () -> {
+            ServerConfig<IEthernetEndPoint> serverConfig = createServerConfig();
+            serverConfig.setLayerInitializer(() -> new AesGcmLayerInitializer(new SimpleCertificate()));
+
+            IServer server = Communication.createUdpServer(serverConfig);
+            server.open();
+
+            ServerListener listener = new ServerListener(server);
+            listener.setActionOnNewClientConnected(event -> {
+                sleep(500);
+
+                Message message = new Message("a message from the server".getBytes(), args -> {
+                    if (!args.isTimeout()) {
+                        Logger.debug("Server received %s", new String(args.response()));
+                    } else {
+                        Logger.error("Unexpected timeout occurred");
+                    }
+                });
+
+                event.getConnection().send(message);
+            });
+
+            listener.start();
+
+            ClientConfig<IEthernetEndPoint> clientConfig = createClientConfig();
+            clientConfig.setLayerInitializer(() -> new AesGcmLayerInitializer(new SimpleCertificate()));
+            clientConfig.setMessageHandler(event -> {
+                Logger.debug("Client received %s", new String(event.getData()));
+
+                event.getConnection().answer(event.getIdentifier(), new Message("a message from a client".getBytes()));
+            });
+
+            IClient client = Communication.createUdpClient(clientConfig);
+            client.connect();
+
+            sleep(3000);
+
+            client.disconnect();
+            client.dispose();
+
+            sleep(500);
+
+            listener.stop();
+            server.close();
+            server.dispose();
+        };
+
+        runTest("testAesGcmLayer", test);
+    }
+
     public void testTwoClientsOneServer() {
         IExecutable tests = () -> {
             IServer server = createDefaultUdpServer();
@@ -762,6 +821,158 @@ public class UdpCommunicationTest {
         runTest("testTwoClientsOneServer", tests);
     }
 
+    public void testSeveralClientsSeveralReceivingWorkers() {
+        IExecutable tests = () -> {
+            IServer server = Communication.createUdpServer(createServerConfig(), 4);
+            server.open();
+
+            AtomicInteger received = new AtomicInteger();
+            ServerListener listener = new ServerListener(server);
+            listener.setMessageHandler(event -> received.incrementAndGet());
+
+            listener.start();
+
+            sleep(1000);
+
+            List<IClient> clients = new ArrayList<IClient>();
+            for (int i = 0; i < 8; i++) {
+                IClient client = createDefaultUdpClient();
+                client.connect();
+                clients.add(client);
+            }
+
+            sleep(2000);
+
+            for (int i = 0; i < 50; i++) {
+                for (IClient client : clients) {
+                    client.getConnection().send(new Message(String.format("message %s", i).getBytes()));
+                }
+            }
+
+            sleep(2000);
+
+            Logger.debug("Server received %s messages out of %s", received.get(), 50 * clients.size());
+
+            listener.stop();
+            server.close();
+            server.dispose();
+
+            sleep(500);
+
+            for (IClient client : clients) {
+                client.disconnect();
+                client.dispose();
+            }
+        };
+
+        runTest("testSeveralClientsSeveralReceivingWorkers", tests);
+    }
+
+    public void testTwoServersSamePortSeveralReceivingWorkers() {
+        IExecutable tests = () -> {
+            IServer server1 = Communication.createUdpServer(createServerConfig(), 4);
+            IServer server2 = Communication.createUdpServer(createServerConfig(), 4);
+
+            Logger.debug("First server opened: %s", server1.open());
+
+            // The port is already used by the first server
+            Logger.debug("Second server opened: %s", server2.open());
+
+            server1.close();
+            server1.dispose();
+            server2.dispose();
+        };
+
+        runTest("testTwoServersSamePortSeveralReceivingWorkers", tests);
+    }
+
+    public void testBurstWithBoundedReceptionQueue() {
+        IExecutable tests = () -> {
+            ServerConfig<IEthernetEndPoint> config = createServerConfig();
+            config.setReceptionQueueCapacity(16);
+            config.setOverflowPolicy(OverflowPolicy.DROP_OLDEST);
+
+            UdpServerImpl impl = new UdpServerImpl();
+            IServer server = Communication.createServer(config, impl);
+            server.open();
+
+            AtomicInteger received = new AtomicInteger();
+            ServerListener listener = new ServerListener(server);
+            listener.setMessageHandler(event -> received.incrementAndGet());
+
+            listener.start();
+
+            sleep(1000);
+
+            IClient client = createDefaultUdpClient();
+            client.connect();
+
+            sleep(2000);
+
+            for (int i = 0; i < 2000; i++) {
+                client.getConnection().send(new Message(String.format("message %s", i).getBytes()));
+            }
+
+            sleep(2000);
+
+            Logger.debug("Server received %s messages, %s datagrams dropped", received.get(), impl.getDroppedPackets());
+
+            listener.stop();
+            server.close();
+            server.dispose();
+
+            sleep(500);
+
+            client.disconnect();
+            client.dispose();
+        };
+
+        runTest("testBurstWithBoundedReceptionQueue", tests);
+    }
+
+    public void testReliableServerToClientBigMessage() {
+        IExecutable tests = () -> {
+            IServer server = Communication.createReliableUdpServer(createServerConfig());
+            server.open();
+
+            // Bigger than the datagrams received by the client socket
+            byte[] bytes = new byte[10000];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte) i;
+            }
+
+            ServerListener listener = new ServerListener(server);
+            listener.setActionOnNewClientConnected(event -> {
+                sleep(500);
+
+                event.getConnection().send(new Message(bytes));
+            });
+
+            listener.start();
+
+            ClientConfig<IEthernetEndPoint> clientConfig = createClientConfig();
+            clientConfig.setMessageHandler(event -> {
+                Logger.debug("Client received %s bytes, identical: %s", event.getData().length, Arrays.equals(bytes, event.getData()));
+            });
+
+            IClient client = Communication.createReliableUdpClient(clientConfig);
+            client.connect();
+
+            sleep(2000);
+
+            client.disconnect();
+            client.dispose();
+
+            sleep(500);
+
+            listener.stop();
+            server.close();
+            server.dispose();
+        };
+
+        runTest("testReliableServerToClientBigMessage", tests);
+    }
+
     private void runTest(String testName, IExecutable test) {
         Logger.debug("Begin %s", testName);
         try {
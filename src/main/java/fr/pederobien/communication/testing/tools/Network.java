@@ -12,8 +12,10 @@ import fr.pederobien.communication.interfaces.server.IServerImpl;
 import fr.pederobien.utils.Watchdog;
 import fr.pederobien.utils.event.Logger;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -87,7 +89,7 @@ public class Network {
          * @param mode   The direction the communication.
          * @param remote The address of the receiver.
          * @param data   The data to send to the receiver.
-         * @return The data the receiver will receive.
+         * @return The data the receiver will receive, or null if the data is lost.
          */
         byte[] corrupt(Mode mode, Address remote, byte[] data);
     }
@@ -137,7 +139,7 @@ public class Network {
         public NetworkStakeholder(INetworkerCorrupter corrupter) {
             this.corrupter = corrupter;
 
-            sockets = new ArrayList<NetworkSocket>();
+            sockets = new CopyOnWriteArrayList<NetworkSocket>();
         }
 
         /**
@@ -188,9 +190,16 @@ public class Network {
          * @param data   The data to send.
          */
         protected void send(Mode mode, Address remote, byte[] data) {
+            byte[] received = corrupter.corrupt(mode, remote, data);
+
+            // Data lost by the network
+            if (received == null) {
+                return;
+            }
+
             for (NetworkSocket socket : sockets) {
                 if (socket.getLocal() == remote) {
-                    socket.notifyDataReceived(corrupter.corrupt(mode, remote, data));
+                    socket.notifyDataReceived(received);
                 }
             }
         }
@@ -285,12 +294,12 @@ public class Network {
 
     private class NetworkSocket {
         private static final AtomicInteger PORT = new AtomicInteger(1);
+        private static final byte[] CLOSED = new byte[0];
         private final NetworkStakeholder network;
         private final Address local;
         private final Mode mode;
-        private final Semaphore semaphore;
+        private final BlockingQueue<byte[]> received;
         private Address remote;
-        private byte[] data;
 
         /**
          * Create a socket used to send data to the remote.
@@ -305,7 +314,7 @@ public class Network {
             this.mode = mode;
 
             local = new Address("127.0.0.1", PORT.getAndIncrement());
-            semaphore = new Semaphore(0);
+            received = new LinkedBlockingQueue<byte[]>();
 
             network.registerSocket(this);
         }
@@ -341,8 +350,8 @@ public class Network {
          * @return the raw data received from the remote.
          */
         public byte[] receive() throws Exception {
-            semaphore.acquire();
-            return data;
+            byte[] data = received.take();
+            return data == CLOSED ? null : data;
         }
 
         /**
@@ -372,16 +381,14 @@ public class Network {
          * @param data The byte array received from the remote.
          */
         protected void notifyDataReceived(byte[] data) {
-            this.data = data;
-            semaphore.release();
+            received.add(data);
         }
 
         /**
          * Notify this connection that the remote closed the connection.
          */
         protected void notifyConnectionClosed() {
-            data = null;
-            semaphore.release();
+            received.add(CLOSED);
         }
     }
 
@@ -11,8 +11,11 @@ import java.util.Random;
 public class NetworkCorrupter implements INetworkerCorrupter {
     private final List<Integer> clientToServerCorrupters;
     private final List<Integer> serverToClientCorrupters;
+    private final List<Integer> clientToServerLosses;
+    private final List<Integer> serverToClientLosses;
     private final Corrupter corruptor;
     private int clientToServerCounter, serverToClientCounter;
+    private int clientToServerLossCounter, serverToClientLossCounter;
 
     /**
      * Creates a network corrupter.
@@ -23,12 +26,18 @@ public class NetworkCorrupter implements INetworkerCorrupter {
 
         clientToServerCorrupters = new ArrayList<Integer>();
         serverToClientCorrupters = new ArrayList<Integer>();
+        clientToServerLosses = new ArrayList<Integer>();
+        serverToClientLosses = new ArrayList<Integer>();
 
         corruptor = new Corrupter();
     }
 
     @Override
-    public byte[] corrupt(Mode mode, Address remote, byte[] data) {
+    public synchronized byte[] corrupt(Mode mode, Address remote, byte[] data) {
+        if (isLost(mode)) {
+            return null;
+        }
+
         if (mode == Mode.CLIENT_TO_SERVER) {
             if (clientToServerCorrupters.contains(clientToServerCounter)) {
                 return corruptor.corrupt(data);
@@ -76,6 +85,50 @@ public class NetworkCorrupter implements INetworkerCorrupter {
         }
     }
 
+    /**
+     * An internal counter is incremented each time data is being sent from the
+     * client to the server. This method set if for a specific counter value the
+     * data should be lost, it never reaches the server.
+     *
+     * @param counters A list of counter values for which data must be lost.
+     */
+    public void registerClientToServerLoss(int... counters) {
+        for (int counter : counters) {
+            if (!clientToServerLosses.contains(counter)) {
+                clientToServerLosses.add(counter);
+            }
+        }
+    }
+
+    /**
+     * An internal counter is incremented each time data is being sent from the
+     * server to the client. This method set if for a specific counter value the
+     * data should be lost, it never reaches the client.
+     *
+     * @param counters A list of counter values for which data must be lost.
+     */
+    public void registerServerToClientLoss(int... counters) {
+        for (int counter : counters) {
+            if (!serverToClientLosses.contains(counter)) {
+                serverToClientLosses.add(counter);
+            }
+        }
+    }
+
+    /**
+     * Increment the loss counter of the given direction.
+     *
+     * @param mode The direction of the communication.
+     * @return True if the data being sent must be lost.
+     */
+    private boolean isLost(Mode mode) {
+        if (mode == Mode.CLIENT_TO_SERVER) {
+            return clientToServerLosses.contains(clientToServerLossCounter++);
+        }
+
+        return serverToClientLosses.contains(serverToClientLossCounter++);
+    }
+
     private static class Corrupter {
 
         /**
@@ -3,13 +3,11 @@ package fr.pederobien.communication.testing.tools;
 import fr.pederobien.communication.event.NewClientEvent;
 import fr.pederobien.communication.interfaces.IMessageHandler;
 import fr.pederobien.communication.interfaces.server.IServer;
-import fr.pederobien.utils.event.EventHandler;
-import fr.pederobien.utils.event.EventManager;
-import fr.pederobien.utils.event.IEventListener;
+import fr.pederobien.communication.interfaces.server.IServerListener;
 
 import java.util.function.Consumer;
 
-public class ServerListener implements IEventListener {
+public class ServerListener implements IServerListener {
     private final IServer server;
     private Consumer<NewClientEvent> onNewClientConnected;
     private IMessageHandler handler;
@@ -24,17 +22,17 @@ public class ServerListener implements IEventListener {
     }
 
     /**
-     * Start listening event bus to trigger {@link NewClientEvent}.
+     * Start listening the server to trigger {@link NewClientEvent}.
      */
     public void start() {
-        EventManager.registerListener(this);
+        server.addListener(this);
     }
 
     /**
-     * Unregister this event listener.
+     * Unregister this listener from the server.
      */
     public void stop() {
-        EventManager.unregisterListener(this);
+        server.removeListener(this);
     }
 
     /**
@@ -57,13 +55,11 @@ public class ServerListener implements IEventListener {
         this.handler = handler;
     }
 
-    @EventHandler
-    private void onNewClientEvent(NewClientEvent event) throws InterruptedException {
-        if (event.getServer() == server) {
-            if (onNewClientConnected != null)
-                onNewClientConnected.accept(event);
-            if (handler != null)
-                event.getConnection().setMessageHandler(handler);
-        }
+    @Override
+    public void onNewClient(NewClientEvent event) {
+        if (onNewClientConnected != null)
+            onNewClientConnected.accept(event);
+        if (handler != null)
+            event.getConnection().setMessageHandler(handler);
     }
 }